@@ -0,0 +1,85 @@
+package org.RHV.bench;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ResultSet en memoria sobre filas ya preparadas, para medir el mapeo
+ * fila → objeto sin driver ni red. Solo implementa los métodos que usan
+ * los mapeadores de facturas (next, findColumn y los getters por posición
+ * o por nombre); el resto lanza UnsupportedOperationException.
+ */
+final class ArrayResultSet implements InvocationHandler {
+
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final List<Object[]> rows;
+    private int cursor = -1;
+
+    private ArrayResultSet(String[] labels, List<Object[]> rows) {
+        for (int i = 0; i < labels.length; i++) {
+            columns.put(labels[i], i + 1);
+        }
+        this.rows = rows;
+    }
+
+    /**
+     * @param labels Nombres de las columnas, en orden (posición 1, 2, ...).
+     * @param rows   Valores de cada fila, en el mismo orden que labels.
+     */
+    static ResultSet of(String[] labels, List<Object[]> rows) {
+        return (ResultSet) Proxy.newProxyInstance(ArrayResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, new ArrayResultSet(labels, rows));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+        String name = method.getName();
+
+        switch (name) {
+            case "next":
+                return ++cursor < rows.size();
+            case "close":
+                return null;
+            case "findColumn":
+                return column(args[0]);
+            default:
+                break;
+        }
+
+        if (!name.startsWith("get") || args == null) {
+            throw new UnsupportedOperationException(name);
+        }
+
+        Object value = rows.get(cursor)[column(args[0]) - 1];
+
+        return switch (name) {
+            case "getInt" -> ((Number) value).intValue();
+            case "getDouble" -> ((Number) value).doubleValue();
+            case "getString" -> value;
+            case "getBigDecimal" -> value instanceof BigDecimal bd ? bd : BigDecimal.valueOf(((Number) value).doubleValue());
+            case "getDate" -> Date.valueOf((LocalDate) value);
+            case "getObject" -> value;
+            default -> throw new UnsupportedOperationException(name);
+        };
+    }
+
+    private int column(Object key) throws SQLException {
+        if (key instanceof Integer index) {
+            return index;
+        }
+        Integer index = columns.get((String) key);
+        if (index == null) {
+            throw new SQLException("Unknown column " + key);
+        }
+        return index;
+    }
+}
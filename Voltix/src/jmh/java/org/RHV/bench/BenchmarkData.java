@@ -0,0 +1,67 @@
+package org.RHV.bench;
+
+import org.RHV.model.Consumption;
+import org.RHV.model.Customer;
+import org.RHV.model.Invoice;
+import org.RHV.util.TariffCalculator;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Datos sintéticos reproducibles (semilla fija) para los benchmarks.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 20240101L;
+
+    // Primer periodo facturado; los consumos se reparten en 24 meses
+    static final LocalDate FIRST_PERIOD = LocalDate.of(2024, 1, 1);
+    static final int MONTHS = 24;
+
+    private BenchmarkData() {
+        // Evitar instanciación
+    }
+
+    /**
+     * Consumos entre 0 y 600 kWh con 3 decimales, para cubrir los tres tramos.
+     */
+    static double[] kwh(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt(600_000) / 1000.0;
+        }
+        return values;
+    }
+
+    static List<Customer> customers(int count) {
+        List<Customer> customers = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            customers.add(new Customer(id, "Customer " + id, "Street " + id,
+                    "customer" + id + "@voltix.test", "555-" + id));
+        }
+        return customers;
+    }
+
+    /**
+     * Facturas ya tarificadas, repartidas entre los clientes y los meses.
+     */
+    static List<Invoice> invoices(int size, List<Customer> customers) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        double[] kwh = kwh(size);
+        List<Invoice> invoices = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            Customer customer = customers.get(random.nextInt(customers.size()));
+            LocalDate start = FIRST_PERIOD.plusMonths(random.nextInt(MONTHS));
+            Consumption consumption = new Consumption(i + 1, kwh[i], start, start.plusMonths(1).minusDays(1));
+
+            invoices.add(new Invoice(i + 1, customer, consumption,
+                    TariffCalculator.getRate(kwh[i]), TariffCalculator.calculateTotal(kwh[i])));
+        }
+        return invoices;
+    }
+}
@@ -0,0 +1,48 @@
+package org.RHV.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Punto de entrada de target/benchmarks.jar.
+ *
+ * Acepta las mismas opciones que la línea de comandos de JMH (filtro de
+ * benchmarks, -p size=..., -f, -wi, -i...). Si no se indica -rff, los
+ * resultados se guardan en JSON en target/jmh/voltix-VERSION-FECHA.json
+ * para poder compararlos entre versiones (por ejemplo con jmh.morethan.io).
+ */
+public final class BenchmarkRunner {
+
+    private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private BenchmarkRunner() {
+        // Evitar instanciación
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+
+        if (!cli.getResult().hasValue()) {
+            String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+            Path dir = Path.of("target", "jmh");
+            Files.createDirectories(dir);
+
+            Path file = dir.resolve("voltix-" + (version != null ? version : "dev")
+                    + "-" + LocalDateTime.now().format(STAMP) + ".json");
+
+            options.result(file.toString()).resultFormat(ResultFormatType.JSON);
+            System.out.println("JMH results will be written to " + file.toAbsolutePath());
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+package org.RHV.bench;
+
+import org.RHV.bench.InvoiceColumns.Measure;
+import org.RHV.model.Invoice;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Las tres agregaciones de los gráficos del dashboard (kWh por cliente,
+ * kWh por mes y facturas por cliente):
+ *  - streamGroupingBy: Collectors.groupingBy sobre List&lt;Invoice&gt;, como
+ *    hacía MainViewController.loadCharts originalmente.
+ *  - streamGroupingByYearMonth: igual, pero agrupando por año-mes (YearMonth).
+ *  - columnar: operadores de InvoiceColumns sobre arreglos primitivos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class DashboardAggregationBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"500"})
+    public int customers;
+
+    private List<Invoice> invoices;
+    private InvoiceColumns columns;
+
+    @Setup
+    public void setup() {
+        invoices = BenchmarkData.invoices(size, BenchmarkData.customers(customers));
+
+        InvoiceColumns.Builder builder = InvoiceColumns.builder(size);
+        for (Invoice inv : invoices) {
+            builder.customer(inv.getCustomer().getId(), inv.getCustomer().getName());
+            builder.add(inv.getInvoiceId(), inv.getCustomer().getId(),
+                    (int) inv.getConsumption().getStartDate().toEpochDay(),
+                    (int) inv.getConsumption().getEndDate().toEpochDay(),
+                    inv.getConsumption().getKWh(),
+                    inv.getAppliedRate().doubleValue(),
+                    inv.getTotalToPay().doubleValue());
+        }
+        columns = builder.build();
+    }
+
+    @Benchmark
+    public void streamGroupingBy(Blackhole bh) {
+        Map<String, Double> kwhByCustomer = invoices.stream()
+                .collect(Collectors.groupingBy(
+                        inv -> inv.getCustomer().getName(),
+                        Collectors.summingDouble(inv -> inv.getConsumption().getKWh())));
+
+        Map<String, Double> monthly = invoices.stream()
+                .collect(Collectors.groupingBy(
+                        inv -> inv.getConsumption().getStartDate()
+                                .getMonth()
+                                .getDisplayName(TextStyle.SHORT, Locale.ENGLISH),
+                        Collectors.summingDouble(inv -> inv.getConsumption().getKWh())));
+
+        Map<String, Long> invoicesByCustomer = invoices.stream()
+                .collect(Collectors.groupingBy(
+                        inv -> inv.getCustomer().getName(),
+                        Collectors.counting()));
+
+        bh.consume(kwhByCustomer);
+        bh.consume(monthly);
+        bh.consume(invoicesByCustomer);
+    }
+
+    @Benchmark
+    public void streamGroupingByYearMonth(Blackhole bh) {
+        Map<YearMonth, Double> monthly = invoices.stream()
+                .collect(Collectors.groupingBy(
+                        inv -> YearMonth.from(inv.getConsumption().getStartDate()),
+                        Collectors.summingDouble(inv -> inv.getConsumption().getKWh())));
+
+        bh.consume(monthly);
+    }
+
+    @Benchmark
+    public void columnar(Blackhole bh) {
+        bh.consume(columns.sumByName(Measure.KWH));
+        bh.consume(columns.sumByMonth(Measure.KWH));
+        bh.consume(columns.countByName());
+    }
+}
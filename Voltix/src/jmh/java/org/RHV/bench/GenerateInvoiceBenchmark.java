@@ -0,0 +1,108 @@
+package org.RHV.bench;
+
+import org.RHV.database.DataAccessException;
+import org.RHV.database.UnitOfWork;
+import org.RHV.model.Consumption;
+import org.RHV.model.Customer;
+import org.RHV.model.Invoice;
+import org.RHV.repository.ConsumptionRepository;
+import org.RHV.repository.InvoiceRepository;
+import org.RHV.repository.RollupRepository;
+import org.RHV.service.InvoiceService;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * InvoiceService.generateInvoice con repositorios en memoria: mide validación,
+ * tarificación y construcción de objetos, sin el coste de MySQL.
+ *
+ * Los logs INFO del servicio se desactivan durante el benchmark; con ellos
+ * activos el tiempo medido sería casi todo escritura en consola.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenerateInvoiceBenchmark {
+
+    @Param({"50", "250", "450"})
+    public double kwh;
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 1, 31);
+
+    // Referencia fuerte: el LogManager solo guarda referencias débiles
+    private Logger serviceLogger;
+    private Level previousLevel;
+
+    private InvoiceService service;
+    private Customer customer;
+
+    @Setup
+    public void setup() {
+        serviceLogger = Logger.getLogger(InvoiceService.class.getName());
+        previousLevel = serviceLogger.getLevel();
+        serviceLogger.setLevel(Level.WARNING);
+
+        service = new InvoiceService(new StubInvoiceRepository(), new StubConsumptionRepository(),
+                new StubRollupRepository(), new StubUnitOfWork());
+        customer = new Customer(1, "Customer 1", "Street 1", "customer1@voltix.test", "555-1");
+    }
+
+    @TearDown
+    public void tearDown() {
+        serviceLogger.setLevel(previousLevel);
+    }
+
+    @Benchmark
+    public Invoice generateInvoice() {
+        return service.generateInvoice(customer, kwh, START, END);
+    }
+
+    /**
+     * Ejecuta el trabajo directamente, sin conexión ni transacción.
+     */
+    static final class StubUnitOfWork extends UnitOfWork {
+        @Override
+        public <T> T execute(Work<T> work) {
+            try {
+                return work.execute(null);
+            } catch (SQLException e) {
+                throw new DataAccessException(e.getMessage(), e);
+            }
+        }
+    }
+
+    static final class StubConsumptionRepository extends ConsumptionRepository {
+        private int nextId;
+
+        @Override
+        public int save(Connection conn, Consumption c) {
+            return ++nextId;
+        }
+    }
+
+    static final class StubInvoiceRepository extends InvoiceRepository {
+        private int nextId;
+
+        @Override
+        public void saveInvoice(Connection conn, Invoice invoice) {
+            invoice.setInvoiceId(++nextId);
+        }
+    }
+
+    static final class StubRollupRepository extends RollupRepository {
+        @Override
+        public void addInvoice(Connection conn, Invoice invoice) {
+            // Sin tabla de totales
+        }
+    }
+}
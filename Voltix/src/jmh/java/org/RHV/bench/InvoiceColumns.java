@@ -0,0 +1,502 @@
+package org.RHV.bench;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Foto en memoria de las facturas organizada por columnas.
+ *
+ * En lugar de una lista de objetos Invoice (cada uno con su Customer,
+ * Consumption y fechas), cada campo se guarda en un arreglo primitivo:
+ *  - int[]    ID de factura, ID de cliente, días de inicio/fin (epoch day)
+ *             y año-mes del periodo.
+ *  - double[] kWh, tarifa y total.
+ *  - int[]    código de nombre de cliente, que apunta a un diccionario
+ *             de nombres distintos (cada nombre se guarda una sola vez).
+ *
+ * Una factura ocupa unos 48 bytes y los recorridos son secuenciales sobre
+ * arreglos contiguos, por lo que sumar o agrupar millones de facturas
+ * tarda milisegundos.
+ *
+ * Los operadores (sum, sumByName, countByName, sumByMonth, select...) no
+ * crean objetos por fila: solo reservan el arreglo del resultado. Aceptan
+ * una Selection opcional para trabajar sobre un subconjunto de filas.
+ *
+ * La foto es inmutable y puede compartirse entre hilos. Se construye con
+ * Builder. Solo la usa DashboardAggregationBenchmark, como referencia frente
+ * a las agregaciones sobre List&lt;Invoice&gt;.
+ */
+public final class InvoiceColumns {
+
+    /**
+     * Columnas numéricas sobre las que se puede sumar.
+     */
+    public enum Measure { KWH, RATE, TOTAL }
+
+    /**
+     * Condición sobre una fila. Las lambdas que no capturan variables
+     * no crean objetos al evaluarse.
+     */
+    @FunctionalInterface
+    public interface RowPredicate {
+        boolean test(InvoiceColumns columns, int row);
+    }
+
+    /**
+     * Conjunto de filas seleccionadas (índices en orden creciente).
+     */
+    public static final class Selection {
+
+        private final int[] rows;
+        private final int size;
+
+        private Selection(int[] rows, int size) {
+            this.rows = rows;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int row(int i) {
+            return rows[i];
+        }
+    }
+
+    /**
+     * Totales por mes consecutivo a partir de firstMonth.
+     * values[i] corresponde al mes firstMonth + i.
+     */
+    public record MonthlyTotals(YearMonth firstMonth, double[] values) {
+
+        public YearMonth month(int i) {
+            return firstMonth.plusMonths(i);
+        }
+
+        /**
+         * Convierte a mapa año-mes → total, en orden cronológico,
+         * omitiendo los meses sin facturas.
+         */
+        public Map<YearMonth, Double> toMap() {
+            Map<YearMonth, Double> map = new LinkedHashMap<>();
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != 0) {
+                    map.put(month(i), values[i]);
+                }
+            }
+            return map;
+        }
+    }
+
+    private final int size;
+
+    private final int[] invoiceIds;
+    private final int[] customerIds;
+    private final int[] startDays;
+    private final int[] endDays;
+    private final int[] periods;
+    private final double[] kwh;
+    private final double[] rates;
+    private final double[] totals;
+
+    // Columna de nombres codificada por diccionario
+    private final int[] nameCodes;
+    private final String[] names;
+
+    private InvoiceColumns(Builder b) {
+        this.size = b.size;
+        this.invoiceIds = Arrays.copyOf(b.invoiceIds, size);
+        this.customerIds = Arrays.copyOf(b.customerIds, size);
+        this.startDays = Arrays.copyOf(b.startDays, size);
+        this.endDays = Arrays.copyOf(b.endDays, size);
+        this.kwh = Arrays.copyOf(b.kwh, size);
+        this.rates = Arrays.copyOf(b.rates, size);
+        this.totals = Arrays.copyOf(b.totals, size);
+
+        // Año-mes del periodo (año * 12 + mes - 1), calculado una sola vez
+        this.periods = new int[size];
+        for (int i = 0; i < size; i++) {
+            LocalDate start = LocalDate.ofEpochDay(startDays[i]);
+            periods[i] = start.getYear() * 12 + start.getMonthValue() - 1;
+        }
+
+        // Diccionario de nombres: un código por nombre distinto
+        Map<String, Integer> codeByName = new HashMap<>();
+        Map<Integer, Integer> codeByCustomer = new HashMap<>();
+        for (Map.Entry<Integer, String> e : b.customerNames.entrySet()) {
+            Integer code = codeByName.computeIfAbsent(e.getValue(), n -> codeByName.size());
+            codeByCustomer.put(e.getKey(), code);
+        }
+
+        this.nameCodes = new int[size];
+        for (int i = 0; i < size; i++) {
+            int customerId = customerIds[i];
+            Integer code = codeByCustomer.get(customerId);
+            if (code == null) {
+                // Cliente sin nombre conocido: se registra con su ID
+                code = codeByName.computeIfAbsent("Customer " + customerId, n -> codeByName.size());
+                codeByCustomer.put(customerId, code);
+            }
+            nameCodes[i] = code;
+        }
+
+        this.names = new String[codeByName.size()];
+        codeByName.forEach((name, code) -> names[code] = name);
+    }
+
+    public static Builder builder() {
+        return new Builder(1024);
+    }
+
+    public static Builder builder(int expectedRows) {
+        return new Builder(expectedRows);
+    }
+
+    // ---------------------------------------------------------------
+    // Acceso por fila
+    // ---------------------------------------------------------------
+
+    public int size() {
+        return size;
+    }
+
+    public int invoiceId(int row) {
+        return invoiceIds[row];
+    }
+
+    public int customerId(int row) {
+        return customerIds[row];
+    }
+
+    public int startDay(int row) {
+        return startDays[row];
+    }
+
+    public int endDay(int row) {
+        return endDays[row];
+    }
+
+    /**
+     * Año-mes del inicio del periodo codificado como año * 12 + mes - 1.
+     */
+    public int period(int row) {
+        return periods[row];
+    }
+
+    public double kwh(int row) {
+        return kwh[row];
+    }
+
+    public double rate(int row) {
+        return rates[row];
+    }
+
+    public double total(int row) {
+        return totals[row];
+    }
+
+    public int nameCode(int row) {
+        return nameCodes[row];
+    }
+
+    public String customerName(int row) {
+        return names[nameCodes[row]];
+    }
+
+    /**
+     * Número de nombres distintos en el diccionario.
+     */
+    public int nameCount() {
+        return names.length;
+    }
+
+    public String name(int code) {
+        return names[code];
+    }
+
+    /**
+     * Codifica un año-mes igual que period().
+     */
+    public static int period(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    // ---------------------------------------------------------------
+    // Filtros
+    // ---------------------------------------------------------------
+
+    /**
+     * Selecciona las filas que cumplen la condición.
+     */
+    public Selection select(RowPredicate predicate) {
+        int[] rows = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (predicate.test(this, i)) {
+                rows[n++] = i;
+            }
+        }
+        return new Selection(rows, n);
+    }
+
+    /**
+     * Selecciona las facturas cuyo periodo empieza entre from y to (ambos incluidos).
+     */
+    public Selection selectPeriod(YearMonth from, YearMonth to) {
+        int lo = period(from);
+        int hi = period(to);
+        int[] rows = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            int p = periods[i];
+            if (p >= lo && p <= hi) {
+                rows[n++] = i;
+            }
+        }
+        return new Selection(rows, n);
+    }
+
+    /**
+     * Selecciona las facturas de un cliente.
+     */
+    public Selection selectCustomer(int customerId) {
+        int[] rows = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (customerIds[i] == customerId) {
+                rows[n++] = i;
+            }
+        }
+        return new Selection(rows, n);
+    }
+
+    // ---------------------------------------------------------------
+    // Agregaciones
+    // ---------------------------------------------------------------
+
+    public double sum(Measure measure) {
+        return sum(measure, null);
+    }
+
+    /**
+     * Suma una columna sobre las filas seleccionadas (todas si selection es null).
+     */
+    public double sum(Measure measure, Selection selection) {
+        double[] values = column(measure);
+        double sum = 0;
+
+        if (selection == null) {
+            for (int i = 0; i < size; i++) {
+                sum += values[i];
+            }
+        } else {
+            for (int k = 0; k < selection.size; k++) {
+                sum += values[selection.rows[k]];
+            }
+        }
+        return sum;
+    }
+
+    public double[] sumByName(Measure measure) {
+        return sumByName(measure, null);
+    }
+
+    /**
+     * Suma una columna agrupando por nombre de cliente.
+     *
+     * @return Arreglo indexado por código de nombre (ver name(code)).
+     */
+    public double[] sumByName(Measure measure, Selection selection) {
+        double[] values = column(measure);
+        double[] result = new double[names.length];
+
+        if (selection == null) {
+            for (int i = 0; i < size; i++) {
+                result[nameCodes[i]] += values[i];
+            }
+        } else {
+            for (int k = 0; k < selection.size; k++) {
+                int i = selection.rows[k];
+                result[nameCodes[i]] += values[i];
+            }
+        }
+        return result;
+    }
+
+    public long[] countByName() {
+        return countByName(null);
+    }
+
+    /**
+     * Cuenta facturas agrupando por nombre de cliente.
+     *
+     * @return Arreglo indexado por código de nombre (ver name(code)).
+     */
+    public long[] countByName(Selection selection) {
+        long[] result = new long[names.length];
+
+        if (selection == null) {
+            for (int i = 0; i < size; i++) {
+                result[nameCodes[i]]++;
+            }
+        } else {
+            for (int k = 0; k < selection.size; k++) {
+                result[nameCodes[selection.rows[k]]]++;
+            }
+        }
+        return result;
+    }
+
+    public MonthlyTotals sumByMonth(Measure measure) {
+        return sumByMonth(measure, null);
+    }
+
+    /**
+     * Suma una columna agrupando por año-mes de inicio del periodo.
+     * El resultado cubre todos los meses entre el primero y el último con facturas.
+     */
+    public MonthlyTotals sumByMonth(Measure measure, Selection selection) {
+        int count = selection == null ? size : selection.size;
+        if (count == 0) {
+            return new MonthlyTotals(YearMonth.of(1970, 1), new double[0]);
+        }
+
+        // Primera pasada: rango de meses
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int k = 0; k < count; k++) {
+            int p = periods[selection == null ? k : selection.rows[k]];
+            if (p < min) min = p;
+            if (p > max) max = p;
+        }
+
+        // Segunda pasada: acumular por mes
+        double[] values = column(measure);
+        double[] result = new double[max - min + 1];
+        for (int k = 0; k < count; k++) {
+            int i = selection == null ? k : selection.rows[k];
+            result[periods[i] - min] += values[i];
+        }
+
+        return new MonthlyTotals(YearMonth.of(min / 12, min % 12 + 1), result);
+    }
+
+    /**
+     * Convierte un resultado por código de nombre en un mapa nombre → valor
+     * ordenado por nombre, omitiendo los nombres sin facturas.
+     * Útil para alimentar gráficos.
+     */
+    public Map<String, Double> toNameMap(double[] byName) {
+        Map<String, Double> map = new LinkedHashMap<>();
+        for (int code : sortedNameCodes()) {
+            if (byName[code] != 0) {
+                map.put(names[code], byName[code]);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Igual que toNameMap(double[]) para conteos.
+     */
+    public Map<String, Long> toNameMap(long[] byName) {
+        Map<String, Long> map = new LinkedHashMap<>();
+        for (int code : sortedNameCodes()) {
+            if (byName[code] != 0) {
+                map.put(names[code], byName[code]);
+            }
+        }
+        return map;
+    }
+
+    private int[] sortedNameCodes() {
+        return IntStream.range(0, names.length)
+                .boxed()
+                .sorted((a, b) -> names[a].compareTo(names[b]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private double[] column(Measure measure) {
+        return switch (measure) {
+            case KWH -> kwh;
+            case RATE -> rates;
+            case TOTAL -> totals;
+        };
+    }
+
+    /**
+     * Acumula filas en arreglos que crecen al doble cuando se llenan.
+     * No es seguro para varios hilos.
+     */
+    public static final class Builder {
+
+        private int size;
+        private int[] invoiceIds;
+        private int[] customerIds;
+        private int[] startDays;
+        private int[] endDays;
+        private double[] kwh;
+        private double[] rates;
+        private double[] totals;
+        private final Map<Integer, String> customerNames = new HashMap<>();
+
+        private Builder(int expectedRows) {
+            int capacity = Math.max(16, expectedRows);
+            invoiceIds = new int[capacity];
+            customerIds = new int[capacity];
+            startDays = new int[capacity];
+            endDays = new int[capacity];
+            kwh = new double[capacity];
+            rates = new double[capacity];
+            totals = new double[capacity];
+        }
+
+        /**
+         * Registra el nombre de un cliente para la columna de nombres.
+         */
+        public Builder customer(int customerId, String name) {
+            customerNames.put(customerId, name);
+            return this;
+        }
+
+        /**
+         * Agrega una factura.
+         */
+        public void add(int invoiceId, int customerId, int startDay, int endDay,
+                        double kwh, double rate, double total) {
+            if (size == invoiceIds.length) {
+                grow();
+            }
+            invoiceIds[size] = invoiceId;
+            customerIds[size] = customerId;
+            startDays[size] = startDay;
+            endDays[size] = endDay;
+            this.kwh[size] = kwh;
+            rates[size] = rate;
+            totals[size] = total;
+            size++;
+        }
+
+        public InvoiceColumns build() {
+            return new InvoiceColumns(this);
+        }
+
+        private void grow() {
+            int capacity = invoiceIds.length * 2;
+            invoiceIds = Arrays.copyOf(invoiceIds, capacity);
+            customerIds = Arrays.copyOf(customerIds, capacity);
+            startDays = Arrays.copyOf(startDays, capacity);
+            endDays = Arrays.copyOf(endDays, capacity);
+            kwh = Arrays.copyOf(kwh, capacity);
+            rates = Arrays.copyOf(rates, capacity);
+            totals = Arrays.copyOf(totals, capacity);
+        }
+    }
+}
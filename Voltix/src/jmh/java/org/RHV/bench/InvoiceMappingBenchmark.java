@@ -0,0 +1,96 @@
+package org.RHV.bench;
+
+import org.RHV.model.Consumption;
+import org.RHV.model.Customer;
+import org.RHV.model.Invoice;
+import org.RHV.repository.InvoiceRowMapper;
+import org.RHV.util.Money;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversión de las filas de InvoiceRepository.listInvoices en objetos:
+ *  - rowMapper: InvoiceRowMapper (clientes y fechas compartidos por consulta).
+ *  - perRowObjects: un Customer y unas fechas nuevas por fila, por nombre
+ *    de columna, como se hacía antes de InvoiceRowMapper (referencia).
+ *
+ * Las filas vienen de un ResultSet en memoria, así que se mide solo el
+ * mapeo y no el driver.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class InvoiceMappingBenchmark {
+
+    private static final String[] LABELS = {
+            "invoice_id", "customer_id", "name", "address", "email", "phone",
+            "consumption_id", "kwh", "start_date", "end_date", "rate", "total"
+    };
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"100", "10000"})
+    public int customers;
+
+    private List<Object[]> rows;
+
+    @Setup
+    public void setup() {
+        rows = new ArrayList<>(size);
+        for (Invoice inv : BenchmarkData.invoices(size, BenchmarkData.customers(customers))) {
+            Customer c = inv.getCustomer();
+            Consumption con = inv.getConsumption();
+            rows.add(new Object[]{
+                    inv.getInvoiceId(), c.getId(), c.getName(), c.getAddress(), c.getEmail(), c.getPhone(),
+                    con.getId(), con.getKWh(), con.getStartDate(), con.getEndDate(),
+                    inv.getAppliedRate().toBigDecimal(), inv.getTotalToPay().toBigDecimal()
+            });
+        }
+    }
+
+    @Benchmark
+    public void rowMapper(Blackhole bh) throws SQLException {
+        ResultSet rs = ArrayResultSet.of(LABELS, rows);
+        InvoiceRowMapper mapper = new InvoiceRowMapper();
+        while (rs.next()) {
+            bh.consume(mapper.map(rs));
+        }
+    }
+
+    @Benchmark
+    public void perRowObjects(Blackhole bh) throws SQLException {
+        ResultSet rs = ArrayResultSet.of(LABELS, rows);
+        while (rs.next()) {
+            Customer customer = new Customer(
+                    rs.getInt("customer_id"),
+                    rs.getString("name"),
+                    rs.getString("address"),
+                    rs.getString("email"),
+                    rs.getString("phone")
+            );
+            Consumption consumption = new Consumption(
+                    rs.getInt("consumption_id"),
+                    rs.getDouble("kwh"),
+                    rs.getDate("start_date").toLocalDate(),
+                    rs.getDate("end_date").toLocalDate()
+            );
+            bh.consume(new Invoice(
+                    rs.getInt("invoice_id"),
+                    customer,
+                    consumption,
+                    Money.of(rs.getBigDecimal("rate"), Money.RATE_SCALE),
+                    Money.of(rs.getBigDecimal("total"), Money.TOTAL_SCALE)
+            ));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package org.RHV.bench;
+
+import org.RHV.util.Money;
+import org.RHV.util.TariffCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tarificación de un conjunto de consumos:
+ *  - scalarTwoCalls: getRate + calculateTotal(kwh), que evalúa el tramo dos veces.
+ *  - scalar: getRate + calculateTotal(kwh, rate).
+ *  - batch: rateAll sobre arreglos primitivos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TariffBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private double[] kwh;
+    private long[] rateUnits;
+    private long[] totalUnits;
+
+    @Setup
+    public void setup() {
+        kwh = BenchmarkData.kwh(size);
+        rateUnits = new long[size];
+        totalUnits = new long[size];
+    }
+
+    @Benchmark
+    public long scalarTwoCalls() {
+        long sum = 0;
+        for (double k : kwh) {
+            Money rate = TariffCalculator.getRate(k);
+            Money total = TariffCalculator.calculateTotal(k);
+            sum += rate.units() + total.units();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long scalar() {
+        long sum = 0;
+        for (double k : kwh) {
+            Money rate = TariffCalculator.getRate(k);
+            Money total = TariffCalculator.calculateTotal(k, rate);
+            sum += rate.units() + total.units();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long batch() {
+        TariffCalculator.rateAll(kwh, rateUnits, totalUnits);
+        return totalUnits[size - 1];
+    }
+}
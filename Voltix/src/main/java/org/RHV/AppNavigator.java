@@ -4,13 +4,14 @@ import javafx.animation.FadeTransition;
 import javafx.animation.Interpolator;
 import javafx.animation.ScaleTransition;
 import javafx.animation.TranslateTransition;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 import org.RHV.controller.ListCustomersController;
 import org.RHV.controller.MainControllers;
+import org.RHV.jfr.ViewLoadEvent;
+import org.RHV.ui.ViewRegistry;
 
 import java.util.function.Consumer;
 import java.util.logging.Logger;
@@ -91,35 +92,47 @@ public class AppNavigator {
      *
      * Flujo:
      *  1. Verificar que el Stage esté inicializado
-     *  2. Cargar el FXML con FXMLLoader
+     *  2. Obtener la vista de ViewRegistry (solo se parsea la primera vez)
      *  3. Aplicar configuración opcional al controlador
-     *  4. Crear nueva escena y asignarla al Stage
+     *  4. Reutilizar su escena (o crear una si aún no tiene) y asignarla al Stage
      *  5. Aplicar animaciones suaves
      */
     private static void loadView(String fxml, Consumer<Object> controllerSetup) {
+        ViewLoadEvent event = new ViewLoadEvent();
+        event.fxml = fxml;
+        event.target = "stage";
+        event.cached = ViewRegistry.isLoaded(fxml);
+        event.begin();
         try {
             if (mainStage == null) {
                 logger.severe("Main stage has not been initialized. Call AppNavigator.setStage() first.");
                 return;
             }
 
-            FXMLLoader loader = new FXMLLoader(Main.class.getResource(fxml));
-            Parent root = loader.load();
+            ViewRegistry.View<Object> view = ViewRegistry.show(fxml);
+            Parent root = view.root();
 
             // Configuración opcional del controlador
             if (controllerSetup != null) {
-                controllerSetup.accept(loader.getController());
+                controllerSetup.accept(view.controller());
             }
 
-            // Crear escena y asignarla al Stage
-            Scene scene = new Scene(root, 900, 600);
+            // Reutilizar la escena de la vista; si estaba en otro sitio, crear una nueva
+            Scene scene = root.getScene();
+            if (scene == null || scene.getRoot() != root) {
+                ViewRegistry.detach(root);
+                scene = new Scene(root, 900, 600);
+            }
             mainStage.setScene(scene);
+            event.success = true;
 
             // Animaciones suaves
             applyTransitions(root);
 
         } catch (Exception e) {
             logger.severe("Error loading view '" + fxml + "': " + e.getMessage());
+        } finally {
+            event.commit();
         }
     }
 
@@ -0,0 +1,21 @@
+package org.RHV;
+
+/**
+ * Punto de entrada para ejecutar Voltix como JAR normal
+ * (java -jar Voltix.jar, perfil Maven "appcds").
+ *
+ * Si la clase principal extiende Application y JavaFX está en el classpath
+ * (no como módulos), el lanzador de Java se niega a arrancar
+ * ("JavaFX runtime components are missing"). Esta clase no extiende
+ * Application, así que evita esa comprobación y delega en Main.
+ */
+public class Launcher {
+
+    private Launcher() {
+        // Evitar instanciación
+    }
+
+    public static void main(String[] args) {
+        Main.main(args);
+    }
+}
@@ -1,9 +1,17 @@
 package org.RHV;
 
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.RHV.controller.MainControllers;
+import org.RHV.controller.MainViewController;
+import org.RHV.database.DatabaseConnection;
+import org.RHV.logging.LoggingConfig;
+import org.RHV.metrics.MetricsFileReporter;
+import org.RHV.metrics.StartupTimer;
+import org.RHV.ui.BackgroundTasks;
+import org.RHV.ui.ViewRegistry;
 
 /**
  * Clase principal de la aplicación Voltix.
@@ -13,9 +21,22 @@ import javafx.stage.Stage;
  *  - Inicializar el Stage principal
  *  - Cargar la vista inicial (main-view.fxml)
  *  - Registrar el Stage en AppNavigator para navegación global
+ *
+ * Para que la ventana aparezca cuanto antes, solo se carga la vista principal
+ * antes de mostrarla; servicios, datos del dashboard y resto de pantallas se
+ * preparan después del primer frame. Los tiempos de cada fase se escriben en
+ * el log (StartupTimer).
+ *
+ * Con -Dvoltix.startup.training=true la aplicación se cierra sola al terminar
+ * de arrancar; lo usa el perfil Maven "appcds" para generar el archivo CDS.
  */
 public class Main extends Application {
 
+    public static final String TRAINING_PROPERTY = "voltix.startup.training";
+
+    // Volcado periódico de métricas a archivo (null si no se configuró)
+    private MetricsFileReporter metricsReporter;
+
     /**
      * Método llamado automáticamente por JavaFX al iniciar la aplicación.
      * Aquí se configura la ventana principal y se carga la UI inicial.
@@ -24,11 +45,15 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage stage) throws Exception {
+        StartupTimer.mark("toolkit");
 
         // Registrar el Stage principal en el AppNavigator
         // para permitir navegación centralizada desde cualquier parte de la app.
         AppNavigator.setStage(stage);
 
+        // Reporte de métricas a archivo si se pidió con -Dvoltix.metrics.file=...
+        metricsReporter = MetricsFileReporter.startFromSystemProperties();
+
         // Establecer icono de la aplicación (ubicado en resources/org/RHV/icon.png)
         stage.getIcons().add(
                 new javafx.scene.image.Image(
@@ -36,14 +61,71 @@ public class Main extends Application {
                 )
         );
 
-        // Cargar la vista principal (dashboard)
-        FXMLLoader loader = new FXMLLoader(Main.class.getResource("main-view.fxml"));
-        Scene scene = new Scene(loader.load(), 900, 600);
+        // Cargar la vista principal (dashboard); queda en ViewRegistry para AppNavigator.
+        // get() y no show(): sus datos se piden después del primer frame (loadDashboardData)
+        ViewRegistry.View<MainViewController> mainView = ViewRegistry.get("main-view.fxml");
+        Scene scene = new Scene(mainView.root(), 900, 600);
+        StartupTimer.mark("mainView");
 
         // Configurar ventana
         stage.setTitle("Voltix");
         stage.setScene(scene);
         stage.show(); // Mostrar ventana
+        StartupTimer.mark("show");
+
+        afterFirstPaint(scene, () -> {
+            StartupTimer.mark("firstPaint");
+
+            // Servicios y datos del dashboard en segundo plano
+            MainControllers.warmUp();
+            mainView.controller().loadDashboardData();
+
+            // Cargar el resto de pantallas en segundo plano: la primera visita ya es inmediata
+            ViewRegistry.prewarm(MainViewController.CENTER_VIEWS, () -> {
+                StartupTimer.mark("views");
+                StartupTimer.report();
+
+                if (Boolean.getBoolean(TRAINING_PROPERTY)) {
+                    Platform.exit();
+                }
+            });
+        });
+    }
+
+    /**
+     * Ejecuta la acción en el hilo de JavaFX justo después del primer pulso
+     * que dibuja la escena (layout + render).
+     */
+    private static void afterFirstPaint(Scene scene, Runnable action) {
+        boolean[] done = {false};
+        Runnable[] listener = new Runnable[1];
+
+        listener[0] = () -> {
+            if (done[0]) {
+                return;
+            }
+            done[0] = true;
+
+            // runLater: se ejecuta cuando el pulso (y el render) ya terminó
+            Platform.runLater(() -> {
+                scene.removePostLayoutPulseListener(listener[0]);
+                action.run();
+            });
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    /**
+     * Método llamado por JavaFX al cerrar la aplicación.
+     * Detiene las tareas en segundo plano y cierra el pool de conexiones a MySQL.
+     */
+    @Override
+    public void stop() {
+        BackgroundTasks.shutdown();
+        DatabaseConnection.shutdown();
+        if (metricsReporter != null) {
+            metricsReporter.close();
+        }
     }
 
     /**
@@ -51,6 +133,12 @@ public class Main extends Application {
      * Llama a launch(), que inicia el motor de JavaFX.
      */
     public static void main(String[] args) {
-        launch();
+        StartupTimer.mark("main");
+
+        // Aplicar logging.properties (log asíncrono a consola y archivo)
+        LoggingConfig.init();
+        StartupTimer.mark("logging");
+
+        launch(Main.class, args);
     }
 }
@@ -0,0 +1,287 @@
+package org.RHV.cli;
+
+import org.RHV.database.DatabaseConnection;
+import org.RHV.document.InvoiceTemplate;
+import org.RHV.logging.LoggingConfig;
+import org.RHV.metrics.MetricsFileReporter;
+import org.RHV.repository.InvoiceFilter;
+import org.RHV.repository.InvoiceRepository;
+import org.RHV.service.CsvImportService;
+import org.RHV.service.InvoiceExportService;
+import org.RHV.service.InvoiceRenderService;
+import org.RHV.service.InvoiceService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Punto de entrada de línea de comandos para tareas de mantenimiento y
+ * procesos masivos que no necesitan la interfaz gráfica.
+ *
+ * Uso:
+ * <pre>
+ *     mvn -q compile exec:java -Dexec.mainClass=org.RHV.cli.VoltixCli -Dexec.args="rebuild-rollups"
+ * </pre>
+ *
+ * Comandos:
+ *  - rebuild-rollups     : recalcula la tabla consumption_rollup desde las facturas
+ *  - import-customers    : importa clientes desde un CSV
+ *  - import-consumptions : importa consumos desde un CSV y genera sus facturas
+ *  - export-invoices     : exporta facturas a CSV (o CSV.gz) en streaming
+ *  - render-invoices     : genera un documento por factura a partir de una plantilla
+ *
+ * La conexión se configura igual que en la aplicación (database.properties).
+ */
+public class VoltixCli {
+
+    private static final Logger logger = Logger.getLogger(VoltixCli.class.getName());
+
+    // Rechazos que se muestran por consola (el resto solo se cuenta)
+    private static final int REJECTIONS_SHOWN = 20;
+
+    private VoltixCli() {
+        // Evitar instanciación
+    }
+
+    public static void main(String[] args) {
+        LoggingConfig.init();
+
+        if (args.length == 0) {
+            printUsage();
+            System.exit(1);
+        }
+
+        String command = args[0];
+        String[] options = Arrays.copyOfRange(args, 1, args.length);
+        int exitCode;
+
+        // Reporte de métricas a archivo si se pidió con -Dvoltix.metrics.file=...
+        MetricsFileReporter metricsReporter = MetricsFileReporter.startFromSystemProperties();
+
+        try {
+            exitCode = run(command, options);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            printUsage();
+            exitCode = 1;
+        } catch (Exception e) {
+            logger.severe("Command '" + command + "' failed: " + e.getMessage());
+            exitCode = 2;
+        } finally {
+            DatabaseConnection.shutdown();
+            if (metricsReporter != null) {
+                metricsReporter.close();
+            }
+        }
+
+        System.exit(exitCode);
+    }
+
+    /**
+     * Ejecuta un comando y devuelve el código de salida.
+     */
+    private static int run(String command, String[] options) throws IOException {
+        switch (command) {
+            case "rebuild-rollups" -> {
+                int rows = new InvoiceService().rebuildRollups();
+                System.out.println("consumption_rollup rebuilt: " + rows + " rows");
+                return 0;
+            }
+            case "import-customers" -> {
+                Path file = inputFile(options);
+                return report(new CsvImportService().importCustomers(file));
+            }
+            case "import-consumptions" -> {
+                Path file = inputFile(options);
+                LocalDate from = dateOption(options, "--from");
+                LocalDate to = dateOption(options, "--to");
+                return report(new CsvImportService().importConsumptions(file, from, to));
+            }
+            case "export-invoices" -> {
+                Path file = outputFile(options);
+                InvoiceFilter filter = new InvoiceFilter(
+                        dateOption(options, "--from"), dateOption(options, "--to"), customerOption(options));
+                boolean gzip = hasOption(options, "--gzip") || file.getFileName().toString().endsWith(".gz");
+
+                InvoiceExportService.Result result = new InvoiceExportService().export(file, filter, gzip);
+                System.out.printf("exported: %d invoices, %d bytes to %s, elapsed: %.1f s, %.1f rows/s%n",
+                        result.rows(), result.bytes(), result.file(),
+                        result.elapsed().toMillis() / 1000.0, result.rowsPerSecond());
+                return 0;
+            }
+            case "render-invoices" -> {
+                Path directory = outputFile(options);
+                InvoiceFilter filter = new InvoiceFilter(
+                        dateOption(options, "--from"), dateOption(options, "--to"), customerOption(options));
+
+                String templateFile = stringOption(options, "--template");
+                InvoiceTemplate template = templateFile == null
+                        ? InvoiceTemplate.loadDefault()
+                        : InvoiceTemplate.load(Path.of(templateFile));
+
+                InvoiceRenderService service = new InvoiceRenderService(new InvoiceRepository(),
+                        intOption(options, "--threads", Runtime.getRuntime().availableProcessors()),
+                        intOption(options, "--writers", InvoiceRenderService.DEFAULT_WRITERS),
+                        intOption(options, "--queue", InvoiceRenderService.DEFAULT_QUEUE_CAPACITY));
+
+                InvoiceRenderService.Result result = service.render(template, filter, directory);
+                System.out.printf("rendered: %d documents to %s, failed: %d, elapsed: %.1f s, %.1f documents/s%n",
+                        result.documents(), result.directory(), result.failed(),
+                        result.elapsed().toMillis() / 1000.0, result.documentsPerSecond());
+
+                List<InvoiceRenderService.Failure> failures = result.failures();
+                for (int i = 0; i < Math.min(REJECTIONS_SHOWN, failures.size()); i++) {
+                    System.err.println("  invoice " + failures.get(i).invoiceId() + ": " + failures.get(i).reason());
+                }
+                return result.failed() == 0 ? 0 : 2;
+            }
+            default -> throw new IllegalArgumentException("Unknown command: " + command);
+        }
+    }
+
+    /**
+     * Muestra el resumen de una importación.
+     *
+     * @return 0 si todas las filas se importaron, 2 si hubo rechazos.
+     */
+    private static int report(CsvImportService.Result result) {
+        System.out.printf("rows: %d, imported: %d, rejected: %d, elapsed: %.1f s, %.1f rows/s%n",
+                result.rows(), result.imported(), result.rejected(),
+                result.elapsed().toMillis() / 1000.0, result.rowsPerSecond());
+
+        List<CsvImportService.Rejection> rejections = result.rejections();
+        for (int i = 0; i < Math.min(REJECTIONS_SHOWN, rejections.size()); i++) {
+            CsvImportService.Rejection r = rejections.get(i);
+            System.err.println("  " + (r.line() > 0 ? "line " + r.line() : "billing") + ": " + r.reason());
+        }
+        if (result.rejected() > REJECTIONS_SHOWN) {
+            System.err.println("  ... " + (result.rejected() - REJECTIONS_SHOWN) + " more rejected rows");
+        }
+
+        return result.rejected() == 0 ? 0 : 2;
+    }
+
+    /**
+     * Primer argumento que no es una opción: el archivo a importar.
+     */
+    private static Path inputFile(String[] options) {
+        for (String option : options) {
+            if (!option.startsWith("--")) {
+                Path file = Path.of(option);
+                if (!Files.isReadable(file))
+                    throw new IllegalArgumentException("Cannot read file: " + file);
+                return file;
+            }
+        }
+        throw new IllegalArgumentException("Missing CSV file argument.");
+    }
+
+    /**
+     * Primer argumento que no es una opción: el archivo de destino.
+     */
+    private static Path outputFile(String[] options) {
+        for (String option : options) {
+            if (!option.startsWith("--")) {
+                return Path.of(option);
+            }
+        }
+        throw new IllegalArgumentException("Missing output file argument.");
+    }
+
+    /**
+     * Valor de una opción --nombre=valor, o null si no se indicó.
+     */
+    private static String stringOption(String[] options, String name) {
+        for (String option : options) {
+            if (option.startsWith(name + "=")) {
+                return option.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Valor entero positivo de una opción --nombre=N, o defaultValue si no se indicó.
+     */
+    private static int intOption(String[] options, String name, int defaultValue) {
+        String value = stringOption(options, name);
+        if (value == null)
+            return defaultValue;
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0)
+                return parsed;
+        } catch (NumberFormatException e) {
+            // Se informa abajo
+        }
+        throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+    }
+
+    private static boolean hasOption(String[] options, String name) {
+        return Arrays.asList(options).contains(name);
+    }
+
+    /**
+     * IDs de la opción --customer=1,2,3 (puede repetirse); vacío si no se indicó.
+     */
+    private static Set<Integer> customerOption(String[] options) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (String option : options) {
+            if (option.startsWith("--customer=")) {
+                for (String id : option.substring("--customer=".length()).split(",")) {
+                    if (id.isBlank())
+                        continue;
+                    try {
+                        ids.add(Integer.parseInt(id.strip()));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid customer ID: " + id);
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Valor de una opción --nombre=yyyy-MM-dd, o null si no se indicó.
+     */
+    private static LocalDate dateOption(String[] options, String name) {
+        String value = stringOption(options, name);
+        if (value == null)
+            return null;
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date for " + name + ": " + value);
+        }
+    }
+
+    private static void printUsage() {
+        System.err.println("""
+                Usage: VoltixCli <command> [options]
+
+                Commands:
+                  rebuild-rollups                  Recompute the monthly consumption rollup table from all invoices
+                  import-customers <file.csv>      Import customers (columns: name, address, email, phone)
+                  import-consumptions <file.csv> [--from=yyyy-MM-dd --to=yyyy-MM-dd]
+                                                   Import consumptions and bill them
+                                                   (columns: customerId, kWh[, startDate, endDate];
+                                                   --from/--to apply to rows without dates)
+                  export-invoices <file> [--from=yyyy-MM-dd] [--to=yyyy-MM-dd] [--customer=id,id...] [--gzip]
+                                                   Stream invoices with customer and consumption data
+                                                   to CSV (gzip-compressed with --gzip or a .gz name)
+                  render-invoices <dir> [--from=...] [--to=...] [--customer=...] [--template=file]
+                                  [--threads=N] [--writers=N] [--queue=N]
+                                                   Render one document per invoice in parallel
+                                                   (built-in HTML template unless --template is given)
+                """);
+    }
+}
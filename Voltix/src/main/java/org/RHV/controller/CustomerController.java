@@ -26,22 +26,22 @@ public class CustomerController {
      */
     public void createCustomer(String name, String address, String email, String phone) {
 
-        logger.info("Creating new customer: " + name);
+        logger.info(() -> "Creating new customer: " + name);
 
         Customer customer = new Customer(name, address, email, phone);
 
         customerService.registerCustomer(customer);
 
-        logger.info("Customer created successfully with ID: " + customer.getId());
+        logger.info(() -> "Customer created successfully with ID: " + customer.getId());
     }
 
     /**
      * Agrega un cliente ya construido (usado por controladores internos).
      */
     public void addCustomer(Customer customer) {
-        logger.info("Adding customer: " + customer.getName());
+        logger.info(() -> "Adding customer: " + customer.getName());
         customerService.registerCustomer(customer);
-        logger.info("Customer added successfully with ID: " + customer.getId());
+        logger.info(() -> "Customer added successfully with ID: " + customer.getId());
     }
 
     /**
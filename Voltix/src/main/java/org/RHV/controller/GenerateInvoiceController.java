@@ -1,16 +1,21 @@
 package org.RHV.controller;
 
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import org.RHV.model.Customer;
 import org.RHV.service.CustomerService;
 import org.RHV.service.InvoiceService;
+import org.RHV.ui.BackgroundTasks;
+import org.RHV.ui.RefreshableView;
+
+import java.util.List;
 
 /**
  * Controlador encargado de la pantalla de generación de facturas.
  * Conecta la UI con los servicios.
  */
-public class GenerateInvoiceController {
+public class GenerateInvoiceController implements RefreshableView {
 
     @FXML private ComboBox<Customer> comboCustomers;
     @FXML private TextField txtKwh;
@@ -21,6 +26,9 @@ public class GenerateInvoiceController {
     private CustomerService customerService;
     private InvoiceService invoiceService;
 
+    // Carga de clientes en curso (para cancelarla si se vuelve a pedir)
+    private Task<List<Customer>> customersTask;
+
     @FXML
     public void initialize() {
 
@@ -28,8 +36,9 @@ public class GenerateInvoiceController {
         customerService = new CustomerService();
         invoiceService = new InvoiceService();
 
-        // Cargar clientes desde MySQL
-        comboCustomers.getItems().addAll(customerService.getAllCustomers());
+        // Los clientes se cargan al mostrar la vista (ver refresh)
+        comboCustomers.setDisable(true);
+        comboCustomers.setPromptText("Loading customers...");
 
         // Mostrar solo el nombre del cliente en el ComboBox
         comboCustomers.setCellFactory(listView -> new ListCell<>() {
@@ -52,40 +61,85 @@ public class GenerateInvoiceController {
         btnGenerate.setOnAction(e -> generateInvoice());
     }
 
+    /**
+     * Se llama cada vez que se muestra la vista (ViewRegistry), también la
+     * primera: cargar los clientes por si se registró alguno nuevo. El
+     * formulario conserva lo escrito.
+     */
+    @Override
+    public void refresh() {
+        loadCustomers();
+    }
+
+    /**
+     * Rellena el ComboBox con los clientes (consulta en segundo plano),
+     * manteniendo el cliente seleccionado si sigue existiendo.
+     */
+    private void loadCustomers() {
+        BackgroundTasks.cancel(customersTask);
+        customersTask = BackgroundTasks.run(customerService::getAllCustomers,
+                customers -> {
+                    Customer selected = comboCustomers.getValue();
+                    comboCustomers.getItems().setAll(customers);
+                    if (selected != null) {
+                        customers.stream()
+                                .filter(c -> c.getId() == selected.getId())
+                                .findFirst()
+                                .ifPresent(comboCustomers::setValue);
+                    }
+                    comboCustomers.setPromptText("Select Customer");
+                    comboCustomers.setDisable(false);
+                },
+                error -> comboCustomers.setPromptText("Could not load customers"));
+    }
+
     /**
      * Lógica para generar una factura desde la UI.
+     * Las validaciones se hacen en el hilo de JavaFX y el guardado en MySQL
+     * en segundo plano; el botón queda deshabilitado mientras tanto.
      */
     private void generateInvoice() {
+        Customer customer = comboCustomers.getValue();
+        String kwhText = txtKwh.getText();
+        var startDate = dateIssue.getValue();
+        var endDate = dateDue.getValue();
+
+        // Validaciones básicas
+        if (customer == null || kwhText.isBlank() || startDate == null || endDate == null) {
+            showAlert("All fields are required");
+            return;
+        }
+
+        double kwh;
         try {
-            Customer customer = comboCustomers.getValue();
-            String kwhText = txtKwh.getText();
-            var startDate = dateIssue.getValue();
-            var endDate = dateDue.getValue();
-
-            // Validaciones básicas
-            if (customer == null || kwhText.isBlank() || startDate == null || endDate == null) {
-                showAlert("All fields are required");
-                return;
-            }
+            kwh = Double.parseDouble(kwhText);
+        } catch (NumberFormatException ex) {
+            showAlert("kWh must be a valid number");
+            return;
+        }
 
-            double kwh = Double.parseDouble(kwhText);
+        btnGenerate.setDisable(true);
 
-            // Generar factura
-            invoiceService.generateInvoice(customer, kwh, startDate, endDate);
+        // Generar factura fuera del hilo de JavaFX
+        BackgroundTasks.run(() -> invoiceService.generateInvoice(customer, kwh, startDate, endDate),
+                invoice -> {
+                    btnGenerate.setDisable(false);
 
-            showAlert("Invoice generated successfully");
+                    // Los KPIs del dashboard deben reflejar la nueva factura
+                    MainControllers.dashboardService().invalidate();
 
-            // Limpiar formulario
-            txtKwh.clear();
-            dateIssue.setValue(null);
-            dateDue.setValue(null);
-            comboCustomers.getSelectionModel().clearSelection();
+                    showAlert("Invoice generated successfully");
 
-        } catch (NumberFormatException ex) {
-            showAlert("kWh must be a valid number");
-        } catch (Exception ex) {
-            showAlert("Error: " + ex.getMessage());
-        }
+                    // Limpiar formulario
+                    txtKwh.clear();
+                    dateIssue.setValue(null);
+                    dateDue.setValue(null);
+                    comboCustomers.getSelectionModel().clearSelection();
+                },
+                error -> {
+                    btnGenerate.setDisable(false);
+                    showAlert("Error: " + error.getMessage());
+                });
     }
 
     private void showAlert(String msg) {
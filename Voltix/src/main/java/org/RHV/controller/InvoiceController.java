@@ -69,7 +69,7 @@ public class InvoiceController {
         Invoice invoice = invoiceService.generateInvoice(customer, consumption);
 
         // Confirmación en logs
-        logger.info("Invoice created successfully with ID: " + invoice.getInvoiceId());
+        logger.info(() -> "Invoice created successfully with ID: " + invoice.getInvoiceId());
     }
 
     /**
@@ -80,4 +80,12 @@ public class InvoiceController {
         logger.info("Request to list all invoices");
         return invoiceService.getAllInvoices();
     }
+
+    /**
+     * Devuelve el servicio de facturación usado por este controlador.
+     * ListInvoicesController lo usa para paginar la tabla de facturas.
+     */
+    public InvoiceService getInvoiceService() {
+        return invoiceService;
+    }
 }
@@ -1,19 +1,26 @@
 package org.RHV.controller;
 
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
+import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
 import org.RHV.model.Customer;
+import org.RHV.repository.CachingCustomerRepository;
 import org.RHV.repository.CustomerRepository;
+import org.RHV.ui.BackgroundTasks;
+import org.RHV.ui.RefreshableView;
+
+import java.util.List;
 
 /**
  * Controlador encargado de mostrar la lista de clientes en la UI.
  * Se conecta al CustomerRepository para obtener los datos desde MySQL
  * y los carga en una TableView.
  */
-public class ListCustomersController {
+public class ListCustomersController implements RefreshableView {
 
     // Tabla principal donde se mostrarán los clientes
     @FXML private TableView<Customer> tableCustomers;
@@ -25,12 +32,16 @@ public class ListCustomersController {
     @FXML private TableColumn<Customer, String> colEmail;
     @FXML private TableColumn<Customer, String> colPhone;
 
-    // Repositorio encargado de obtener los clientes desde MySQL
-    private final CustomerRepository repo = new CustomerRepository();
+    // Repositorio encargado de obtener los clientes (caché compartida delante de MySQL)
+    private final CustomerRepository repo = CachingCustomerRepository.shared();
+
+    // Carga en curso (para cancelarla si se vuelve a pedir)
+    private Task<List<Customer>> loadTask;
 
     /**
      * Método llamado automáticamente por JavaFX al cargar el FXML.
-     * Configura las columnas y carga los datos desde la base de datos.
+     * Configura las columnas y carga los datos desde la base de datos
+     * sin bloquear el hilo de JavaFX.
      */
     public void initialize() {
 
@@ -44,7 +55,30 @@ public class ListCustomersController {
         colEmail.setCellValueFactory(new PropertyValueFactory<>("email"));
         colPhone.setCellValueFactory(new PropertyValueFactory<>("phone"));
 
-        // Cargar los clientes desde MySQL y mostrarlos en la tabla
-        tableCustomers.getItems().setAll(repo.getAll());
+        // Los clientes se cargan al mostrar la vista (ver refresh)
+        tableCustomers.setPlaceholder(new Label("Loading customers..."));
+    }
+
+    /**
+     * Se llama cada vez que se muestra la vista (ViewRegistry), también la
+     * primera: cargar la lista por si se registraron clientes mientras tanto.
+     */
+    @Override
+    public void refresh() {
+        loadCustomers();
+    }
+
+    /**
+     * Consulta los clientes en segundo plano; si había una carga anterior
+     * en curso se cancela.
+     */
+    private void loadCustomers() {
+        BackgroundTasks.cancel(loadTask);
+        loadTask = BackgroundTasks.run(repo::getAll,
+                customers -> {
+                    tableCustomers.setPlaceholder(new Label("No customers found"));
+                    tableCustomers.getItems().setAll(customers);
+                },
+                error -> tableCustomers.setPlaceholder(new Label("Could not load customers")));
     }
 }
@@ -1,19 +1,25 @@
 package org.RHV.controller;
 
-import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
+import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import org.RHV.model.Invoice;
+import org.RHV.service.InvoiceService;
+import org.RHV.ui.BackgroundTasks;
+import org.RHV.ui.PagedInvoiceList;
+import org.RHV.ui.RefreshableView;
 
 import java.util.logging.Logger;
 
 /**
  * Controlador encargado de mostrar la lista de facturas en la interfaz gráfica.
  * Se conecta al InvoiceController para obtener los datos desde MySQL y los
- * muestra en una TableView con columnas personalizadas.
+ * muestra en una TableView con columnas personalizadas. Las filas se cargan
+ * por páginas a medida que se desplaza la tabla (ver PagedInvoiceList).
  */
-public class ListInvoicesController {
+public class ListInvoicesController implements RefreshableView {
 
     // Tabla principal donde se mostrarán las facturas
     @FXML private TableView<Invoice> tableInvoices;
@@ -29,6 +35,9 @@ public class ListInvoicesController {
 
     private static final Logger logger = Logger.getLogger(ListInvoicesController.class.getName());
 
+    // COUNT en curso (para cancelarlo si se vuelve a pedir)
+    private Task<Integer> countTask;
+
     /**
      * Método llamado automáticamente por JavaFX al cargar el FXML.
      * Configura las columnas de la tabla y carga las facturas desde MySQL.
@@ -40,20 +49,21 @@ public class ListInvoicesController {
         tableInvoices.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
 
         // Obtener el controlador principal que contiene el InvoiceController compartido
-        invoiceController = MainControllers.invoiceController;
+        invoiceController = MainControllers.invoiceController();
 
         logger.info("Initializing ListInvoicesController");
 
         // Configurar columna: nombre del cliente
         colCustomer.setCellValueFactory(cell ->
                 new javafx.beans.property.SimpleStringProperty(
-                        cell.getValue().getCustomer().getName()
+                        cell.getValue() == null ? null : cell.getValue().getCustomer().getName()
                 )
         );
 
         // Configurar columna: periodo de consumo (inicio → fin)
         colPeriod.setCellValueFactory(cell ->
                 new javafx.beans.property.SimpleStringProperty(
+                        cell.getValue() == null ? null :
                         cell.getValue().getConsumption().getStartDate()
                                 + " → " +
                                 cell.getValue().getConsumption().getEndDate()
@@ -62,6 +72,7 @@ public class ListInvoicesController {
 
         // Configurar columna: kWh consumidos
         colKwh.setCellValueFactory(cell ->
+                cell.getValue() == null ? null :
                 new javafx.beans.property.SimpleDoubleProperty(
                         cell.getValue().getConsumption().getKWh()
                 ).asObject()
@@ -69,29 +80,50 @@ public class ListInvoicesController {
 
         // Configurar columna: total a pagar
         colTotal.setCellValueFactory(cell ->
+                cell.getValue() == null ? null :
                 new javafx.beans.property.SimpleDoubleProperty(
-                        cell.getValue().getTotalToPay()
+                        cell.getValue().getTotalToPay().doubleValue()
                 ).asObject()
         );
 
-        // Cargar las facturas desde MySQL
+        // La tabla se carga por páginas: ordenar en el cliente obligaría a leerla entera
+        tableInvoices.getColumns().forEach(col -> col.setSortable(false));
+
+        // Las facturas se cargan al mostrar la vista (ver refresh)
+    }
+
+    /**
+     * Se llama cada vez que se muestra la vista (ViewRegistry), también la
+     * primera: contar las facturas y empezar con una lista paginada nueva.
+     */
+    @Override
+    public void refresh() {
         loadInvoices();
     }
 
     /**
-     * Carga todas las facturas desde el servicio y las muestra en la tabla.
+     * Asigna a la tabla una lista paginada de facturas. Solo se consultan
+     * a MySQL las páginas visibles (más un margen de precarga) a medida
+     * que el usuario se desplaza.
      * También registra información en logs para depuración.
      */
     private void loadInvoices() {
-        var invoices = invoiceController.getAllInvoices();
-
-        if (invoices.isEmpty()) {
-            logger.info("No invoices found to display");
-        } else {
-            logger.info("Loaded " + invoices.size() + " invoices");
-        }
-
-        // Convertir la lista en un ObservableList y asignarla a la tabla
-        tableInvoices.setItems(FXCollections.observableArrayList(invoices));
+        InvoiceService invoiceService = invoiceController.getInvoiceService();
+        tableInvoices.setPlaceholder(new Label("Loading invoices..."));
+
+        // El COUNT se hace en segundo plano; las páginas se piden al mostrarse
+        BackgroundTasks.cancel(countTask);
+        countTask = BackgroundTasks.run(invoiceService::countInvoices,
+                total -> {
+                    if (total == 0) {
+                        logger.info("No invoices found to display");
+                    } else {
+                        logger.info("Showing " + total + " invoices (loaded on demand)");
+                    }
+
+                    tableInvoices.setPlaceholder(new Label("No invoices found"));
+                    tableInvoices.setItems(new PagedInvoiceList(invoiceService, total));
+                },
+                error -> tableInvoices.setPlaceholder(new Label("Could not load invoices")));
     }
 }
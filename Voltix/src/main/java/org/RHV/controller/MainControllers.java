@@ -1,43 +1,60 @@
 package org.RHV.controller;
 
+import org.RHV.metrics.StartupTimer;
 import org.RHV.service.CustomerService;
+import org.RHV.service.DashboardService;
 import org.RHV.service.InvoiceService;
+import org.RHV.ui.BackgroundTasks;
 
 import java.util.logging.Logger;
 
 /**
- * Clase centralizadora que inicializa y expone instancias únicas (singleton)
+ * Clase centralizadora que expone instancias únicas (singleton)
  * de los controladores principales de la aplicación.
  *
  * Su propósito es permitir que cualquier pantalla o controlador de JavaFX
  * pueda acceder a los mismos servicios y controladores sin duplicarlos.
  *
- * Esta clase NO se instancia. Todo se maneja mediante un bloque estático.
+ * Los servicios se crean de forma perezosa la primera vez que se piden
+ * (idiom "holder": la JVM inicializa la clase Holder una sola vez y de forma
+ * segura entre hilos). Así no retrasan la primera pantalla; Main llama a
+ * warmUp() después de dibujarla para crearlos en segundo plano.
+ *
+ * Esta clase NO se instancia.
  */
 public class MainControllers {
 
     private static final Logger logger = Logger.getLogger(MainControllers.class.getName());
 
-    // Controladores accesibles globalmente en la aplicación
-    public static final CustomerController customerController;
-    public static final InvoiceController invoiceController;
-
     /**
-     * Bloque estático ejecutado una sola vez cuando la clase se carga.
-     * Aquí se inicializan los servicios y controladores compartidos.
+     * Se inicializa al primer acceso a cualquiera de sus campos.
      */
-    static {
-        logger.info("Initializing services and controllers...");
+    private static final class Holder {
+
+        // Controladores accesibles globalmente en la aplicación
+        static final CustomerController customerController;
+        static final InvoiceController invoiceController;
+
+        // Indicadores del dashboard (con caché de corta duración)
+        static final DashboardService dashboardService;
 
-        // Crear servicios conectados a MySQL
-        CustomerService customerService = new CustomerService();
-        InvoiceService invoiceService = new InvoiceService();
+        static {
+            logger.info("Initializing services and controllers...");
 
-        // Crear controladores usando los servicios creados
-        customerController = new CustomerController(customerService);
-        invoiceController = new InvoiceController(invoiceService);
+            // Crear servicios conectados a MySQL
+            CustomerService customerService = new CustomerService();
+            InvoiceService invoiceService = new InvoiceService();
 
-        logger.info("MainControllers initialized successfully.");
+            // Crear controladores usando los servicios creados
+            customerController = new CustomerController(customerService);
+            invoiceController = new InvoiceController(invoiceService);
+
+            // Servicio de KPIs compartido por el dashboard
+            dashboardService = new DashboardService(customerService, invoiceService);
+
+            StartupTimer.mark("services");
+            logger.info("MainControllers initialized successfully.");
+        }
     }
 
     /**
@@ -47,4 +64,25 @@ public class MainControllers {
     private MainControllers() {
         // Evitar instanciación
     }
+
+    public static CustomerController customerController() {
+        return Holder.customerController;
+    }
+
+    public static InvoiceController invoiceController() {
+        return Holder.invoiceController;
+    }
+
+    public static DashboardService dashboardService() {
+        return Holder.dashboardService;
+    }
+
+    /**
+     * Crea los servicios en un hilo en segundo plano (carga de clases de
+     * servicios, repositorios y pool incluida) para que la primera acción
+     * del usuario no la pague.
+     */
+    public static void warmUp() {
+        BackgroundTasks.execute(MainControllers::customerController, null, null);
+    }
 }
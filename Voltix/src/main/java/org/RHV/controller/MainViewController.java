@@ -3,8 +3,8 @@ package org.RHV.controller;
 import javafx.animation.FadeTransition;
 import javafx.animation.Interpolator;
 import javafx.animation.TranslateTransition;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.chart.*;
 import javafx.scene.control.Button;
@@ -14,12 +14,20 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.util.Duration;
-
-import java.time.format.TextStyle;
+import org.RHV.jfr.ChartLoadEvent;
+import org.RHV.jfr.ViewLoadEvent;
+import org.RHV.service.DashboardService;
+import org.RHV.service.InvoiceService;
+import org.RHV.ui.BackgroundTasks;
+import org.RHV.ui.RefreshableView;
+import org.RHV.ui.ViewRegistry;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 /**
  * Controlador principal de la vista MainView.
@@ -30,7 +38,17 @@ import java.util.stream.Collectors;
  *  - Animaciones de transición
  *  - Acciones del sidebar y header
  */
-public class MainViewController {
+public class MainViewController implements RefreshableView {
+
+    // Vistas que se cargan en el área central desde el sidebar
+    private static final String REGISTER_CUSTOMER_VIEW = "/org/RHV/register-customer.fxml";
+    private static final String LIST_CUSTOMERS_VIEW = "/org/RHV/list-customers.fxml";
+    private static final String GENERATE_INVOICE_VIEW = "/org/RHV/generate-invoice.fxml";
+    private static final String LIST_INVOICES_VIEW = "/org/RHV/list-invoices.fxml";
+
+    // Se precargan en segundo plano al arrancar (ver Main)
+    public static final List<String> CENTER_VIEWS = List.of(
+            LIST_CUSTOMERS_VIEW, LIST_INVOICES_VIEW, GENERATE_INVOICE_VIEW, REGISTER_CUSTOMER_VIEW);
 
     // Contenedor donde se cargan dinámicamente las vistas (FXML)
     @FXML private StackPane contentArea;
@@ -61,6 +79,13 @@ public class MainViewController {
 
     private static final Logger logger = Logger.getLogger(MainViewController.class.getName());
 
+    // Cargas en curso (se cancelan si se vuelven a pedir antes de terminar)
+    private Task<DashboardService.KpiSnapshot> kpiTask;
+    private Task<ChartData> chartTask;
+
+    // Etiqueta del eje X del gráfico mensual, por ejemplo "Dec 2025"
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMM yyyy", Locale.ENGLISH);
+
     /**
      * Método llamado automáticamente por JavaFX al cargar el FXML.
      * Configura navegación, dashboard, logo y gráficos.
@@ -76,10 +101,10 @@ public class MainViewController {
         } catch (Exception ignored) {}
 
         // Configurar navegación del sidebar
-        btnRegisterCustomer.setOnAction(e -> loadCenterView("/org/RHV/register-customer.fxml"));
-        btnListCustomers.setOnAction(e -> loadCenterView("/org/RHV/list-customers.fxml"));
-        btnGenerateInvoice.setOnAction(e -> loadCenterView("/org/RHV/generate-invoice.fxml"));
-        btnListInvoices.setOnAction(e -> loadCenterView("/org/RHV/list-invoices.fxml"));
+        btnRegisterCustomer.setOnAction(e -> loadCenterView(REGISTER_CUSTOMER_VIEW));
+        btnListCustomers.setOnAction(e -> loadCenterView(LIST_CUSTOMERS_VIEW));
+        btnGenerateInvoice.setOnAction(e -> loadCenterView(GENERATE_INVOICE_VIEW));
+        btnListInvoices.setOnAction(e -> loadCenterView(LIST_INVOICES_VIEW));
 
         // NUEVO: volver al dashboard desde el sidebar
         labelVoltix.setOnMouseClicked(e -> showDashboard());
@@ -87,27 +112,65 @@ public class MainViewController {
         // NUEVO: volver al dashboard desde el header
         labelVoltixHeader.setOnMouseClicked(e -> showDashboard());
 
-        // Cargar números del dashboard
-        try {
-            lblTotalCustomers.setText(String.valueOf(MainControllers.customerController.getAllCustomers().size()));
-            lblTotalInvoices.setText(String.valueOf(MainControllers.invoiceController.getAllInvoices().size()));
-        } catch (Exception e) {
-            lblTotalCustomers.setText("0");
-            lblTotalInvoices.setText("0");
-        }
-
-        lblPending.setText("0"); // Placeholder para futuras funcionalidades
+        // Los datos del dashboard se piden después del primer frame (ver loadDashboardData)
+        lblTotalCustomers.setText("...");
+        lblTotalInvoices.setText("...");
+        lblPending.setText("...");
+    }
 
-        // Cargar gráficos del dashboard
+    /**
+     * Carga números y gráficos del dashboard en segundo plano.
+     * Main la llama cuando la ventana ya se dibujó, para que crear los
+     * servicios y conectar a MySQL no retrase la primera pantalla.
+     */
+    public void loadDashboardData() {
+        loadKpis();
         loadCharts();
     }
 
+    /**
+     * Al volver a esta vista desde AppNavigator se muestra el dashboard actualizado.
+     */
+    @Override
+    public void refresh() {
+        showDashboard();
+    }
+
     /**
      * Muestra nuevamente el dashboard principal.
      */
     private void showDashboard() {
         contentArea.getChildren().setAll(dashboardRoot);
         animateView(dashboardRoot);
+
+        // Actualizar las tarjetas (si la foto de KPIs sigue vigente no consulta MySQL)
+        loadKpis();
+    }
+
+    /**
+     * Carga los números del dashboard (conteos en MySQL, con caché corta)
+     * sin bloquear el hilo de JavaFX. Mientras tanto las tarjetas muestran "...".
+     */
+    private void loadKpis() {
+        // Primera carga: mostrar "..." en lugar del 0 del FXML
+        if (kpiTask == null) {
+            lblTotalCustomers.setText("...");
+            lblTotalInvoices.setText("...");
+            lblPending.setText("...");
+        }
+
+        BackgroundTasks.cancel(kpiTask);
+        kpiTask = BackgroundTasks.run(() -> MainControllers.dashboardService().getKpis(),
+                kpis -> {
+                    lblTotalCustomers.setText(String.valueOf(kpis.totalCustomers()));
+                    lblTotalInvoices.setText(String.valueOf(kpis.totalInvoices()));
+                    lblPending.setText(String.valueOf(kpis.pendingPayments()));
+                },
+                error -> {
+                    lblTotalCustomers.setText("0");
+                    lblTotalInvoices.setText("0");
+                    lblPending.setText("0");
+                });
     }
 
     /**
@@ -115,16 +178,25 @@ public class MainViewController {
      * @param fxmlPath ruta del archivo FXML a cargar
      */
     private void loadCenterView(String fxmlPath) {
+        ViewLoadEvent event = new ViewLoadEvent();
+        event.fxml = fxmlPath;
+        event.target = "center";
+        event.cached = ViewRegistry.isLoaded(fxmlPath);
+        event.begin();
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent view = loader.load();
+            // La vista se parsea solo la primera vez; después se reutiliza y se refresca
+            Parent view = ViewRegistry.show(fxmlPath).root();
+            ViewRegistry.detach(view);
 
             contentArea.getChildren().setAll(view);
+            event.success = true;
 
             animateView(view);
 
         } catch (Exception ex) {
             logger.severe("Error loading view: " + fxmlPath + " | " + ex.getMessage());
+        } finally {
+            event.commit();
         }
     }
 
@@ -149,69 +221,86 @@ public class MainViewController {
 
     /**
      * Carga los gráficos del dashboard usando datos reales desde MySQL.
+     * Las agregaciones se leen de la tabla de totales mensuales, por lo que
+     * solo se transfiere una fila por cliente o por mes. Las consultas se
+     * hacen en segundo plano.
      * Incluye:
      *  - Consumo por cliente (barras)
      *  - Consumo mensual (líneas)
      *  - Cantidad de facturas por cliente (pie)
      */
     private void loadCharts() {
-        try {
-            var invoices = MainControllers.invoiceController.getAllInvoices();
-
-            // Limpiar gráficos antes de recargar
-            chartConsumptionByCustomer.getData().clear();
-            chartMonthlyConsumption.getData().clear();
-            chartInvoicesByCustomer.getData().clear();
-
-            // --- GRÁFICO DE BARRAS: Consumo por cliente ---
-            XYChart.Series<String, Number> series = new XYChart.Series<>();
-            series.setName("kWh");
-
-            Map<String, Double> consumptionByCustomer = invoices.stream()
-                    .collect(Collectors.groupingBy(
-                            inv -> inv.getCustomer().getName(),
-                            Collectors.summingDouble(inv -> inv.getConsumption().getKWh())
-                    ));
-
-            consumptionByCustomer.forEach((customer, kwh) ->
-                    series.getData().add(new XYChart.Data<>(customer, kwh))
-            );
-
-            chartConsumptionByCustomer.getData().add(series);
-
-            // --- GRÁFICO DE LÍNEAS: Consumo mensual ---
-            XYChart.Series<String, Number> lineSeries = new XYChart.Series<>();
-            lineSeries.setName("Monthly kWh");
-
-            Map<String, Double> monthly = invoices.stream()
-                    .collect(Collectors.groupingBy(
-                            inv -> inv.getConsumption().getStartDate()
-                                    .getMonth()
-                                    .getDisplayName(TextStyle.SHORT, Locale.ENGLISH),
-                            Collectors.summingDouble(inv -> inv.getConsumption().getKWh())
-                    ));
-
-            monthly.forEach((month, kwh) ->
-                    lineSeries.getData().add(new XYChart.Data<>(month, kwh))
-            );
-
-            chartMonthlyConsumption.getData().add(lineSeries);
-
-            // --- GRÁFICO DE PIE: Facturas por cliente ---
-            Map<String, Long> invoicesByCustomer = invoices.stream()
-                    .collect(Collectors.groupingBy(
-                            inv -> inv.getCustomer().getName(),
-                            Collectors.counting()
-                    ));
-
-            invoicesByCustomer.forEach((customer, count) ->
-                    chartInvoicesByCustomer.getData().add(
-                            new PieChart.Data(customer, count)
-                    )
-            );
+        BackgroundTasks.cancel(chartTask);
 
-        } catch (Exception ex) {
-            logger.warning("Error loading charts: " + ex.getMessage());
-        }
+        // Consultas en segundo plano; los gráficos se rellenan en el hilo de JavaFX
+        chartTask = BackgroundTasks.run(
+                () -> queryChartData(MainControllers.invoiceController().getInvoiceService()),
+                this::renderCharts,
+                error -> logger.warning("Error loading charts: " + error.getMessage()));
+    }
+
+    /**
+     * Consulta los datos de los tres gráficos (hilo en segundo plano).
+     * Se registra como evento JFR para verlo junto a las consultas a MySQL.
+     */
+    private static ChartData queryChartData(InvoiceService invoiceService) {
+        ChartLoadEvent event = new ChartLoadEvent();
+        event.begin();
+
+        ChartData data = new ChartData(
+                invoiceService.getKwhByCustomer(),
+                invoiceService.getKwhByYearMonth(),
+                invoiceService.getInvoiceCountByCustomer());
+
+        event.customers = data.kwhByCustomer().size();
+        event.months = data.kwhByMonth().size();
+        event.commit();
+        return data;
+    }
+
+    /**
+     * Rellena los tres gráficos con los datos ya agregados.
+     */
+    private void renderCharts(ChartData data) {
+
+        // Limpiar gráficos antes de recargar
+        chartConsumptionByCustomer.getData().clear();
+        chartMonthlyConsumption.getData().clear();
+        chartInvoicesByCustomer.getData().clear();
+
+        // --- GRÁFICO DE BARRAS: Consumo por cliente ---
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        series.setName("kWh");
+
+        data.kwhByCustomer().forEach((customer, kwh) ->
+                series.getData().add(new XYChart.Data<>(customer, kwh))
+        );
+
+        chartConsumptionByCustomer.getData().add(series);
+
+        // --- GRÁFICO DE LÍNEAS: Consumo mensual ---
+        XYChart.Series<String, Number> lineSeries = new XYChart.Series<>();
+        lineSeries.setName("Monthly kWh");
+
+        data.kwhByMonth().forEach((month, kwh) ->
+                lineSeries.getData().add(new XYChart.Data<>(MONTH_LABEL.format(month), kwh))
+        );
+
+        chartMonthlyConsumption.getData().add(lineSeries);
+
+        // --- GRÁFICO DE PIE: Facturas por cliente ---
+        data.invoicesByCustomer().forEach((customer, count) ->
+                chartInvoicesByCustomer.getData().add(
+                        new PieChart.Data(customer, count)
+                )
+        );
+    }
+
+    /**
+     * Resultados de las consultas de agregación del dashboard.
+     */
+    private record ChartData(Map<String, Double> kwhByCustomer,
+                             Map<YearMonth, Double> kwhByMonth,
+                             Map<String, Long> invoicesByCustomer) {
     }
 }
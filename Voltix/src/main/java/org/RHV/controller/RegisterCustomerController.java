@@ -1,9 +1,11 @@
 package org.RHV.controller;
 
 import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.TextField;
 import org.RHV.model.Customer;
+import org.RHV.ui.BackgroundTasks;
 
 /**
  * Controlador encargado del formulario de registro de clientes.
@@ -32,7 +34,7 @@ public class RegisterCustomerController {
     public void initialize() {
 
         // Obtener el controlador global compartido
-        customerController = MainControllers.customerController;
+        customerController = MainControllers.customerController();
 
         // Acción del botón: guardar cliente
         btnSave.setOnAction(e -> saveCustomer());
@@ -40,8 +42,8 @@ public class RegisterCustomerController {
 
     /**
      * Crea un nuevo cliente usando los datos ingresados en el formulario
-     * y lo envía al CustomerController para guardarlo en la base de datos.
-     * Luego limpia los campos del formulario.
+     * y lo envía al CustomerController para guardarlo en la base de datos
+     * (en segundo plano). Si se guarda bien, limpia los campos del formulario.
      */
     private void saveCustomer() {
 
@@ -59,13 +61,32 @@ public class RegisterCustomerController {
                 txtPhone.getText()
         );
 
-        // Guardar el cliente mediante el controlador principal
-        customerController.addCustomer(customer);
+        // Guardar el cliente en segundo plano mediante el controlador principal
+        btnSave.setDisable(true);
 
-        // Limpiar los campos del formulario
-        txtName.clear();
-        txtAddress.clear();
-        txtEmail.clear();
-        txtPhone.clear();
+        BackgroundTasks.execute(() -> customerController.addCustomer(customer),
+                () -> {
+                    btnSave.setDisable(false);
+
+                    // Los KPIs del dashboard deben reflejar el nuevo cliente
+                    MainControllers.dashboardService().invalidate();
+
+                    // Limpiar los campos del formulario
+                    txtName.clear();
+                    txtAddress.clear();
+                    txtEmail.clear();
+                    txtPhone.clear();
+                },
+                error -> {
+                    btnSave.setDisable(false);
+                    showAlert("Error: " + error.getMessage());
+                });
+    }
+
+    private void showAlert(String msg) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setHeaderText(null);
+        alert.setContentText(msg);
+        alert.showAndWait();
     }
 }
@@ -0,0 +1,14 @@
+package org.RHV.database;
+
+/**
+ * Excepción no comprobada que envuelve los errores de acceso a datos (SQLException)
+ * para que los servicios puedan propagarlos sin declarar "throws SQLException".
+ */
+public class DataAccessException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DataAccessException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
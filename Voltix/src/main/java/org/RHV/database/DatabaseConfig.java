@@ -0,0 +1,201 @@
+package org.RHV.database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Configuración de la conexión a la base de datos y del pool de conexiones.
+ *
+ * Los valores se cargan en este orden (cada fuente sobrescribe a la anterior):
+ *  1. database.properties incluido en el classpath (valores por defecto)
+ *  2. Archivo externo indicado con -Dvoltix.db.config=/ruta/archivo.properties,
+ *     o config/database.properties en el directorio de trabajo si existe
+ *  3. Propiedades del sistema con el mismo nombre (por ejemplo -Ddb.url=...)
+ *
+ * Las claves que empiezan por "db.driver." se pasan tal cual al driver JDBC
+ * (por ejemplo la caché de sentencias preparadas de MySQL).
+ */
+public class DatabaseConfig {
+
+    private static final Logger logger = Logger.getLogger(DatabaseConfig.class.getName());
+
+    // Propiedad del sistema que apunta a un archivo de configuración externo
+    public static final String CONFIG_PROPERTY = "voltix.db.config";
+
+    // Prefijo de las propiedades que se envían directamente al driver JDBC
+    public static final String DRIVER_PREFIX = "db.driver.";
+
+    private static final String CLASSPATH_FILE = "/database.properties";
+    private static final Path DEFAULT_EXTERNAL_FILE = Path.of("config", "database.properties");
+
+    private final Properties properties;
+
+    private DatabaseConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Carga la configuración combinando classpath, archivo externo y
+     * propiedades del sistema.
+     */
+    public static DatabaseConfig load() {
+        Properties props = new Properties();
+
+        // 1. Valores por defecto empaquetados con la aplicación
+        try (InputStream in = DatabaseConfig.class.getResourceAsStream(CLASSPATH_FILE)) {
+            if (in != null) {
+                props.load(in);
+            }
+        } catch (IOException e) {
+            logger.warning("Could not read " + CLASSPATH_FILE + ": " + e.getMessage());
+        }
+
+        // 2. Archivo externo (opcional)
+        String external = System.getProperty(CONFIG_PROPERTY);
+        Path file = external != null ? Path.of(external) : DEFAULT_EXTERNAL_FILE;
+        if (Files.isReadable(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                props.load(reader);
+                logger.info("Database configuration loaded from " + file.toAbsolutePath());
+            } catch (IOException e) {
+                logger.warning("Could not read " + file + ": " + e.getMessage());
+            }
+        } else if (external != null) {
+            logger.warning("Database configuration file not found: " + file.toAbsolutePath());
+        }
+
+        // 3. Propiedades del sistema "db.*"
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("db.")) {
+                props.setProperty(name, System.getProperty(name));
+            }
+        }
+
+        return new DatabaseConfig(props);
+    }
+
+    /**
+     * Crea una configuración a partir de un conjunto de propiedades ya armado.
+     * Útil para herramientas que apuntan a otra base de datos.
+     */
+    public static DatabaseConfig of(Properties properties) {
+        Properties copy = new Properties();
+        copy.putAll(properties);
+        return new DatabaseConfig(copy);
+    }
+
+    public String getUrl() {
+        return properties.getProperty("db.url", "jdbc:mysql://localhost:3306/voltix");
+    }
+
+    public String getUser() {
+        return properties.getProperty("db.user", "root");
+    }
+
+    public String getPassword() {
+        return properties.getProperty("db.password", "");
+    }
+
+    // Conexiones mínimas que el pool mantiene abiertas aunque estén inactivas
+    public int getMinIdle() {
+        return getInt("db.pool.minIdle", 2);
+    }
+
+    // Tamaño máximo del pool
+    public int getMaxSize() {
+        return getInt("db.pool.maxSize", 10);
+    }
+
+    // Tiempo máximo de espera al pedir una conexión al pool
+    public long getConnectionTimeoutMs() {
+        return getLong("db.pool.connectionTimeoutMs", 5_000);
+    }
+
+    // Tiempo tras el cual una conexión inactiva (por encima de minIdle) se cierra
+    public long getIdleTimeoutMs() {
+        return getLong("db.pool.idleTimeoutMs", 300_000);
+    }
+
+    // Vida máxima de una conexión; debe ser menor que wait_timeout de MySQL
+    public long getMaxLifetimeMs() {
+        return getLong("db.pool.maxLifetimeMs", 1_800_000);
+    }
+
+    // Tiempo máximo para validar una conexión antes de entregarla
+    public long getValidationTimeoutMs() {
+        return getLong("db.pool.validationTimeoutMs", 2_000);
+    }
+
+    // Intervalo de "ping" a conexiones inactivas para evitar que el servidor las cierre
+    public long getKeepaliveMs() {
+        return getLong("db.pool.keepaliveMs", 120_000);
+    }
+
+    // Filas por lote en las inserciones masivas (saveAll / saveInvoices)
+    public int getBatchSize() {
+        return getInt("db.batchSize", 500);
+    }
+
+    // Lotes que un proceso masivo (facturación, importación) usa a la vez contra MySQL.
+    // Por defecto deja 2 conexiones del pool libres para la UI y el dashboard.
+    public int getBatchMaxConcurrency() {
+        return Math.max(1, getInt("db.batch.maxConcurrency", getMaxSize() - 2));
+    }
+
+    // Fetch size de las lecturas en streaming; Integer.MIN_VALUE = fila a fila en MySQL
+    public int getStreamFetchSize() {
+        return getInt("db.streamFetchSize", Integer.MIN_VALUE);
+    }
+
+    /**
+     * Devuelve las propiedades que se pasan al driver JDBC, sin el prefijo "db.driver.".
+     */
+    public Properties getDriverProperties() {
+        Properties driver = new Properties();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(DRIVER_PREFIX)) {
+                driver.setProperty(name.substring(DRIVER_PREFIX.length()), properties.getProperty(name));
+            }
+        }
+        return driver;
+    }
+
+    /**
+     * Acceso genérico a cualquier propiedad de la configuración.
+     */
+    public String get(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warning("Invalid integer for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warning("Invalid number for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+}
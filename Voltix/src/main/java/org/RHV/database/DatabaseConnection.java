@@ -1,23 +1,56 @@
 package org.RHV.database;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.RHV.metrics.Counter;
+import org.RHV.metrics.Metrics;
+import org.RHV.metrics.Timer;
+
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToIntFunction;
 
 /**
  * Clase encargada de gestionar la conexión a la base de datos MySQL.
  * Proporciona un método estático para obtener conexiones reutilizables
  * desde cualquier parte del sistema (repositorios, servicios, etc.).
  *
+ * Las conexiones provienen de un pool (HikariCP) configurado desde
+ * database.properties (ver DatabaseConfig). Cerrar la conexión obtenida
+ * la devuelve al pool en lugar de cerrar el socket, por lo que los
+ * repositorios pueden seguir usando try-with-resources sin cambios.
+ *
  * Esta clase actúa como un "Database Provider" centralizado.
  */
 public class DatabaseConnection {
 
-    // URL de conexión a MySQL (base de datos 'voltix' en localhost)
-    private static final String URL = "jdbc:mysql://localhost:3306/voltix";
+    // Pool creado de forma perezosa en la primera petición de conexión
+    private static volatile HikariDataSource dataSource;
+
+    // Configuración con la que se creó el pool
+    private static volatile DatabaseConfig config;
+
+    // Métricas de adquisición de conexiones y estado del pool
+    private static final Timer ACQUIRE_TIMER = Metrics.timer("db.connection.acquire");
+    private static final Counter ACQUIRE_FAILURES = Metrics.counter("db.connection.failures");
+
+    // Acciones a ejecutar cuando configure() cambia de base de datos
+    private static final List<Runnable> reconfigureListeners = new CopyOnWriteArrayList<>();
+
+    static {
+        poolGauge("db.pool.active", HikariPoolMXBean::getActiveConnections);
+        poolGauge("db.pool.idle", HikariPoolMXBean::getIdleConnections);
+        poolGauge("db.pool.total", HikariPoolMXBean::getTotalConnections);
+        poolGauge("db.pool.pending", HikariPoolMXBean::getThreadsAwaitingConnection);
+    }
 
-    // Usuario y contraseña de MySQL
-    private static final String USER = "root";
-    private static final String PASSWORD = "admin";
+    private DatabaseConnection() {
+        // Evitar instanciación
+    }
 
     /**
      * Devuelve una conexión activa a la base de datos.
@@ -27,8 +60,8 @@ public class DatabaseConnection {
      */
     public static Connection getConnection() {
         try {
-            // Intentar conectar usando DriverManager
-            return DriverManager.getConnection(URL, USER, PASSWORD);
+            // Pedir una conexión al pool (espera como máximo connectionTimeoutMs)
+            return acquire(getDataSource());
 
         } catch (Exception e) {
             // Mostrar error en consola para depuración
@@ -36,4 +69,136 @@ public class DatabaseConnection {
             return null;
         }
     }
+
+    /**
+     * Pide una conexión al DataSource midiendo el tiempo de espera
+     * (métrica db.connection.acquire) y contando los fallos.
+     */
+    public static Connection acquire(DataSource ds) throws SQLException {
+        long startNanos = ACQUIRE_TIMER.start();
+        try {
+            return ds.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            ACQUIRE_TIMER.error();
+            ACQUIRE_FAILURES.increment();
+            throw e;
+        } finally {
+            ACQUIRE_TIMER.stop(startNanos);
+        }
+    }
+
+    /**
+     * Devuelve el DataSource con pool compartido por toda la aplicación.
+     * Lo crea la primera vez usando la configuración de DatabaseConfig.
+     */
+    public static DataSource getDataSource() {
+        HikariDataSource ds = dataSource;
+        if (ds == null) {
+            synchronized (DatabaseConnection.class) {
+                ds = dataSource;
+                if (ds == null) {
+                    ds = createDataSource(getConfig());
+                    dataSource = ds;
+                }
+            }
+        }
+        return ds;
+    }
+
+    /**
+     * Devuelve la configuración de base de datos en uso.
+     * Se carga una sola vez desde DatabaseConfig.load().
+     */
+    public static DatabaseConfig getConfig() {
+        DatabaseConfig cfg = config;
+        if (cfg == null) {
+            synchronized (DatabaseConnection.class) {
+                cfg = config;
+                if (cfg == null) {
+                    cfg = DatabaseConfig.load();
+                    config = cfg;
+                }
+            }
+        }
+        return cfg;
+    }
+
+    /**
+     * Reemplaza la configuración del pool. Si ya existía un pool,
+     * se cierra y el siguiente getConnection() crea uno nuevo.
+     *
+     * La nueva base de datos puede ser otra: al terminar se avisa a los
+     * listeners registrados con onReconfigure() para que olviden lo que
+     * sabían de la anterior.
+     */
+    public static synchronized void configure(DatabaseConfig newConfig) {
+        shutdown();
+        config = newConfig;
+        dataSource = createDataSource(newConfig);
+
+        for (Runnable listener : reconfigureListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Registra una acción que se ejecuta cada vez que configure() cambia de
+     * base de datos (p. ej. para olvidar el estado de una tabla).
+     */
+    public static void onReconfigure(Runnable listener) {
+        reconfigureListeners.add(listener);
+    }
+
+    /**
+     * Cierra el pool y todas sus conexiones. Se llama al salir de la aplicación.
+     */
+    public static synchronized void shutdown() {
+        HikariDataSource ds = dataSource;
+        dataSource = null;
+        if (ds != null) {
+            ds.close();
+        }
+    }
+
+    /**
+     * Construye el pool a partir de la configuración.
+     */
+    private static HikariDataSource createDataSource(DatabaseConfig cfg) {
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName("voltix-pool");
+        hikari.setJdbcUrl(cfg.getUrl());
+        hikari.setUsername(cfg.getUser());
+        hikari.setPassword(cfg.getPassword());
+
+        // Límites del pool
+        hikari.setMinimumIdle(cfg.getMinIdle());
+        hikari.setMaximumPoolSize(cfg.getMaxSize());
+
+        // Timeouts: adquisición, expulsión de inactivas, reciclado y validación
+        hikari.setConnectionTimeout(cfg.getConnectionTimeoutMs());
+        hikari.setIdleTimeout(cfg.getIdleTimeoutMs());
+        hikari.setMaxLifetime(cfg.getMaxLifetimeMs());
+        hikari.setValidationTimeout(cfg.getValidationTimeoutMs());
+        hikari.setKeepaliveTime(cfg.getKeepaliveMs());
+
+        // No fallar al arrancar si MySQL aún no está disponible;
+        // el error se reporta en la primera petición de conexión.
+        hikari.setInitializationFailTimeout(-1);
+
+        // Propiedades del driver (caché de sentencias preparadas, etc.)
+        hikari.setDataSourceProperties(cfg.getDriverProperties());
+
+        return new HikariDataSource(hikari);
+    }
+
+    /**
+     * Registra un gauge que lee el pool actual (0 si todavía no se ha creado).
+     */
+    private static void poolGauge(String name, ToIntFunction<HikariPoolMXBean> reader) {
+        Metrics.gauge(name, () -> {
+            HikariDataSource ds = dataSource;
+            HikariPoolMXBean pool = ds != null ? ds.getHikariPoolMXBean() : null;
+            return pool != null ? reader.applyAsInt(pool) : 0;
+        });
+    }
 }
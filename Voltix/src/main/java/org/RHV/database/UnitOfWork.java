@@ -0,0 +1,98 @@
+package org.RHV.database;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Ejecuta un bloque de trabajo sobre una única conexión y en una única transacción.
+ *
+ * Permite que un servicio realice varias operaciones de distintos repositorios
+ * (por ejemplo guardar consumo + factura) con una sola conexión del pool y un
+ * solo COMMIT. Si cualquier paso falla, se hace ROLLBACK y no queda ningún
+ * registro a medias en la base de datos.
+ *
+ * Uso:
+ * <pre>
+ *     Invoice invoice = unitOfWork.execute(conn -> {
+ *         consumptionRepository.save(conn, consumption);
+ *         invoiceRepository.saveInvoice(conn, invoice);
+ *         return invoice;
+ *     });
+ * </pre>
+ */
+public class UnitOfWork {
+
+    /**
+     * Trabajo a ejecutar dentro de la transacción.
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+
+    // Origen de conexiones; si es null se usa el pool de DatabaseConnection
+    private final DataSource dataSource;
+
+    /**
+     * Constructor por defecto: usa el pool compartido de la aplicación.
+     */
+    public UnitOfWork() {
+        this.dataSource = null;
+    }
+
+    /**
+     * Constructor alternativo para usar otro DataSource (pruebas, herramientas).
+     */
+    public UnitOfWork(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Ejecuta el trabajo en una transacción y devuelve su resultado.
+     *
+     * Flujo:
+     *  1. Obtener una conexión del pool y desactivar autocommit.
+     *  2. Ejecutar el trabajo.
+     *  3. COMMIT si todo salió bien, ROLLBACK si hubo una excepción.
+     *  4. Restaurar autocommit y devolver la conexión al pool.
+     *
+     * @throws DataAccessException si falla la base de datos.
+     */
+    public <T> T execute(Work<T> work) {
+
+        try (Connection conn = openConnection()) {
+
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            try {
+                T result = work.execute(conn);
+                conn.commit();
+                return result;
+
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+
+        } catch (SQLException e) {
+            throw new DataAccessException("Transaction failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Variante sin valor de retorno.
+     */
+    public void run(Work<Void> work) {
+        execute(work);
+    }
+
+    private Connection openConnection() throws SQLException {
+        DataSource ds = dataSource != null ? dataSource : DatabaseConnection.getDataSource();
+        return DatabaseConnection.acquire(ds);
+    }
+}
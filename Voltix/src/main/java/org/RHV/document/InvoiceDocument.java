@@ -0,0 +1,27 @@
+package org.RHV.document;
+
+import org.RHV.util.Money;
+
+import java.time.LocalDate;
+
+/**
+ * Datos de una factura listos para imprimirse en un documento.
+ *
+ * Se construye a partir de una fila de InvoiceRepository.scanInvoiceRecords,
+ * sin pasar por Invoice/Customer/Consumption, y se usa solo para renderizar.
+ *
+ * @param issueDate Fecha de emisión que se imprime en el documento.
+ */
+public record InvoiceDocument(int invoiceId,
+                              int customerId,
+                              String customerName,
+                              String customerAddress,
+                              String customerEmail,
+                              String customerPhone,
+                              double kWh,
+                              LocalDate startDate,
+                              LocalDate endDate,
+                              Money rate,
+                              Money total,
+                              LocalDate issueDate) {
+}
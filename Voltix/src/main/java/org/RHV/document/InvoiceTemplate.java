@@ -0,0 +1,202 @@
+package org.RHV.document;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Plantilla de documento de factura, compilada una sola vez y reutilizable
+ * desde varios hilos a la vez (es inmutable).
+ *
+ * Sintaxis: el texto se copia tal cual y cada {{campo}} se reemplaza por el
+ * valor de la factura. Campos disponibles: ver {@link Field}.
+ * <pre>
+ *     &lt;h1&gt;Invoice #{{invoiceId}}&lt;/h1&gt;
+ *     &lt;p&gt;{{customerName}} — {{kWh}} kWh&lt;/p&gt;
+ * </pre>
+ *
+ * Compilar la plantilla la convierte en dos arreglos (textos fijos y campos
+ * intercalados), de modo que renderizar una factura es solo concatenar: no
+ * se vuelve a buscar ni a interpretar nada por documento. Un campo
+ * desconocido es un error al compilar, no al renderizar la factura número 10.000.
+ */
+public final class InvoiceTemplate {
+
+    // Plantilla incluida en la aplicación
+    public static final String DEFAULT_TEMPLATE = "/org/RHV/invoice-template.html";
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    /**
+     * Campos que pueden usarse en la plantilla.
+     */
+    public enum Field {
+        INVOICE_ID("invoiceId", false, d -> Integer.toString(d.invoiceId())),
+        CUSTOMER_ID("customerId", false, d -> Integer.toString(d.customerId())),
+        CUSTOMER_NAME("customerName", true, InvoiceDocument::customerName),
+        CUSTOMER_ADDRESS("customerAddress", true, InvoiceDocument::customerAddress),
+        CUSTOMER_EMAIL("customerEmail", true, InvoiceDocument::customerEmail),
+        CUSTOMER_PHONE("customerPhone", true, InvoiceDocument::customerPhone),
+        KWH("kWh", false, d -> BigDecimal.valueOf(d.kWh()).toPlainString()),
+        START_DATE("startDate", false, d -> String.valueOf(d.startDate())),
+        END_DATE("endDate", false, d -> String.valueOf(d.endDate())),
+        RATE("rate", false, d -> String.valueOf(d.rate())),
+        TOTAL("total", false, d -> String.valueOf(d.total())),
+        ISSUE_DATE("issueDate", false, d -> String.valueOf(d.issueDate()));
+
+        private final String placeholder;
+        private final boolean text;
+        private final Function<InvoiceDocument, String> value;
+
+        Field(String placeholder, boolean text, Function<InvoiceDocument, String> value) {
+            this.placeholder = placeholder;
+            this.text = text;
+            this.value = value;
+        }
+
+        public String placeholder() {
+            return placeholder;
+        }
+
+        private static Field of(String placeholder) {
+            for (Field field : values()) {
+                if (field.placeholder.equals(placeholder)) {
+                    return field;
+                }
+            }
+            return null;
+        }
+    }
+
+    // literals[i] va antes de fields[i]; el último literal cierra el documento
+    private final String[] literals;
+    private final Field[] fields;
+    private final boolean escapeHtml;
+    private final int literalLength;
+
+    private InvoiceTemplate(String[] literals, Field[] fields, boolean escapeHtml) {
+        this.literals = literals;
+        this.fields = fields;
+        this.escapeHtml = escapeHtml;
+
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compila una plantilla.
+     *
+     * @param source     Texto de la plantilla.
+     * @param escapeHtml true para escapar &amp; &lt; &gt; " ' en los datos del cliente
+     *                   (plantillas HTML).
+     * @throws IllegalArgumentException si hay un campo desconocido o sin cerrar.
+     */
+    public static InvoiceTemplate compile(String source, boolean escapeHtml) {
+        List<String> literals = new ArrayList<>();
+        List<Field> fields = new ArrayList<>();
+
+        int from = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, from);
+            if (open < 0) {
+                literals.add(source.substring(from));
+                break;
+            }
+
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0)
+                throw new IllegalArgumentException("Unclosed placeholder at offset " + open);
+
+            String name = source.substring(open + OPEN.length(), close).strip();
+            Field field = Field.of(name);
+            if (field == null)
+                throw new IllegalArgumentException("Unknown template field: {{" + name + "}}");
+
+            literals.add(source.substring(from, open));
+            fields.add(field);
+            from = close + CLOSE.length();
+        }
+
+        return new InvoiceTemplate(literals.toArray(new String[0]), fields.toArray(new Field[0]), escapeHtml);
+    }
+
+    /**
+     * Carga y compila una plantilla desde un archivo. Se escapa HTML si el
+     * archivo termina en .html o .htm.
+     */
+    public static InvoiceTemplate load(Path file) throws IOException {
+        return compile(Files.readString(file, StandardCharsets.UTF_8), isHtml(file.getFileName().toString()));
+    }
+
+    /**
+     * Carga y compila la plantilla incluida en la aplicación.
+     */
+    public static InvoiceTemplate loadDefault() throws IOException {
+        try (InputStream in = InvoiceTemplate.class.getResourceAsStream(DEFAULT_TEMPLATE)) {
+            if (in == null)
+                throw new IOException("Template not found on classpath: " + DEFAULT_TEMPLATE);
+            return compile(new String(in.readAllBytes(), StandardCharsets.UTF_8), true);
+        }
+    }
+
+    /**
+     * Renderiza una factura.
+     */
+    public String render(InvoiceDocument document) {
+        StringBuilder out = new StringBuilder(literalLength + fields.length * 24);
+
+        for (int i = 0; i < fields.length; i++) {
+            out.append(literals[i]);
+
+            String value = fields[i].value.apply(document);
+            if (value == null) {
+                continue;
+            }
+            if (escapeHtml && fields[i].text) {
+                appendEscaped(out, value);
+            } else {
+                out.append(value);
+            }
+        }
+        out.append(literals[fields.length]);
+
+        return out.toString();
+    }
+
+    /**
+     * true si la plantilla escapa HTML (el documento es una página HTML).
+     */
+    public boolean isHtml() {
+        return escapeHtml;
+    }
+
+    private static boolean isHtml(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        return name.endsWith(".html") || name.endsWith(".htm");
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package org.RHV.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Consulta de los datos de los gráficos del dashboard (en segundo plano).
+ */
+@Name("org.RHV.ChartLoad")
+@Label("Dashboard Chart Load")
+@Category({"Voltix", "UI"})
+@Description("Aggregations behind the dashboard charts")
+public class ChartLoadEvent extends Event {
+
+    @Label("Customers")
+    @Description("Points in the per-customer charts")
+    public int customers;
+
+    @Label("Months")
+    @Description("Points in the monthly chart")
+    public int months;
+}
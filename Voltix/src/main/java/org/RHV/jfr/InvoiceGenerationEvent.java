@@ -0,0 +1,28 @@
+package org.RHV.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Generación de una factura (InvoiceService.generateInvoice):
+ * validación, cálculo y la transacción completa.
+ */
+@Name("org.RHV.InvoiceGeneration")
+@Label("Invoice Generation")
+@Category({"Voltix", "Billing"})
+@Description("Validation, rating and transaction for one invoice")
+public class InvoiceGenerationEvent extends Event {
+
+    @Label("Customer ID")
+    public int customerId;
+
+    @Label("kWh")
+    public double kwh;
+
+    @Label("Invoice ID")
+    @Description("ID assigned by the database, 0 if generation failed")
+    public int invoiceId;
+}
@@ -0,0 +1,53 @@
+package org.RHV.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Llamada de un repositorio a MySQL (una consulta o un lote de escrituras).
+ *
+ * Uso:
+ * <pre>
+ *     RepositoryQueryEvent event = RepositoryQueryEvent.begin("invoice.listInvoices", "SELECT");
+ *     try {
+ *         ...
+ *         event.rows = list.size();
+ *     } finally {
+ *         event.commit();
+ *     }
+ * </pre>
+ */
+@Name("org.RHV.RepositoryQuery")
+@Label("Repository Query")
+@Category({"Voltix", "Database"})
+@Description("Repository call to the database, with SQL kind and affected rows")
+@StackTrace(false)
+public class RepositoryQueryEvent extends Event {
+
+    @Label("Operation")
+    @Description("Repository and method, e.g. invoice.listInvoices")
+    public String operation;
+
+    @Label("SQL Kind")
+    @Description("SELECT, INSERT, UPDATE, DELETE...")
+    public String sqlKind;
+
+    @Label("Rows")
+    @Description("Rows read or written")
+    public long rows;
+
+    /**
+     * Crea el evento y empieza a medir.
+     */
+    public static RepositoryQueryEvent begin(String operation, String sqlKind) {
+        RepositoryQueryEvent event = new RepositoryQueryEvent();
+        event.operation = operation;
+        event.sqlKind = sqlKind;
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,32 @@
+package org.RHV.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Cambio de pantalla: obtener la vista (de ViewRegistry o parseando el FXML)
+ * y colocarla en la ventana.
+ */
+@Name("org.RHV.ViewLoad")
+@Label("View Load")
+@Category({"Voltix", "UI"})
+@Description("FXML view loaded by AppNavigator or MainViewController")
+public class ViewLoadEvent extends Event {
+
+    @Label("FXML")
+    public String fxml;
+
+    @Label("Target")
+    @Description("stage (whole window) or center (dashboard content area)")
+    public String target;
+
+    @Label("Cached")
+    @Description("View was already loaded by ViewRegistry (no FXML parsing)")
+    public boolean cached;
+
+    @Label("Success")
+    public boolean success;
+}
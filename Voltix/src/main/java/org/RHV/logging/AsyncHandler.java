@@ -0,0 +1,369 @@
+package org.RHV.logging;
+
+import org.RHV.metrics.Counter;
+import org.RHV.metrics.Metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+
+/**
+ * Handler de java.util.logging que escribe en segundo plano.
+ *
+ * El hilo que llama a logger.info(...) solo encola el LogRecord en una cola
+ * circular sin bloqueos (RingBuffer); un hilo "voltix-log-writer" la vacía
+ * por lotes y entrega los registros a los handlers reales (consola, archivo),
+ * de modo que la E/S y el formateo no frenan a servicios ni repositorios.
+ *
+ * Configuración en logging.properties:
+ * <pre>
+ *     handlers = org.RHV.logging.AsyncHandler
+ *     org.RHV.logging.AsyncHandler.handlers  = java.util.logging.ConsoleHandler, java.util.logging.FileHandler
+ *     org.RHV.logging.AsyncHandler.capacity  = 8192
+ *     org.RHV.logging.AsyncHandler.batchSize = 256
+ *     org.RHV.logging.AsyncHandler.overflow  = DROP   (DROP o BLOCK)
+ *     org.RHV.logging.AsyncHandler.level     = ALL
+ * </pre>
+ *
+ * Cola llena:
+ *  - DROP: se descartan los registros INFO o menores y se cuentan (métrica
+ *    logging.dropped); el hilo escritor avisa con un WARNING de cuántos se
+ *    perdieron. WARNING y SEVERE nunca se descartan: esperan como con BLOCK.
+ *  - BLOCK: el hilo que registra espera a que haya sitio.
+ *
+ * El hilo escritor no puede esperarse a sí mismo: lo que él registra con la
+ * cola llena se escribe directamente (si no se puede descartar).
+ *
+ * Al cerrar (LogManager lo hace al salir de la JVM) se escriben todos los
+ * registros pendientes antes de cerrar los handlers reales.
+ *
+ * La clase es final y el hilo escritor se arranca al final del constructor,
+ * con el nivel ya asignado, para que no vea un objeto a medio construir.
+ */
+public final class AsyncHandler extends Handler {
+
+    /**
+     * Qué hacer cuando la cola está llena.
+     */
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    private static final String PREFIX = AsyncHandler.class.getName();
+
+    public static final int DEFAULT_CAPACITY = 8192;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    // Espera máxima del hilo escritor cuando no hay nada que hacer
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    // Tiempo máximo que flush() y close() esperan a que se vacíe la cola
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private static final Counter DROPPED = Metrics.counter("logging.dropped");
+
+    private final RingBuffer<LogRecord> queue;
+    private final Handler[] targets;
+    private final OverflowPolicy overflow;
+    private final int batchSize;
+    private final Thread writer;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private long droppedReported;
+
+    // Solo lo usa el hilo escritor (ver writeInline)
+    private boolean writingInline;
+
+    private volatile boolean writerIdle;
+    private volatile boolean closed;
+
+    /**
+     * Constructor usado por LogManager: lee la configuración de logging.properties.
+     */
+    public AsyncHandler() {
+        this(createTargets(property("handlers", "java.util.logging.ConsoleHandler")),
+                intProperty("capacity", DEFAULT_CAPACITY),
+                intProperty("batchSize", DEFAULT_BATCH_SIZE),
+                overflowProperty(),
+                levelProperty());
+    }
+
+    public AsyncHandler(Handler[] targets, int capacity, int batchSize, OverflowPolicy overflow) {
+        this(targets, capacity, batchSize, overflow, Level.ALL);
+    }
+
+    private AsyncHandler(Handler[] targets, int capacity, int batchSize, OverflowPolicy overflow, Level level) {
+        setLevel(level);
+        this.targets = targets.clone();
+        this.queue = new RingBuffer<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.overflow = overflow;
+
+        Metrics.gauge("logging.queue.size", queue::size);
+
+        this.writer = new Thread(this::writeLoop, "voltix-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Encola el registro. No hace E/S ni formatea en el hilo que llama.
+     */
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+
+        // Resolver clase y método de origen ahora: más tarde, en el hilo
+        // escritor, la pila ya no es la de quien registró el mensaje.
+        record.getSourceClassName();
+
+        if (queue.offer(record)) {
+            wakeWriter();
+            return;
+        }
+
+        if (overflow == OverflowPolicy.DROP && !isImportant(record)) {
+            dropped.incrementAndGet();
+            DROPPED.increment();
+            return;
+        }
+
+        // El propio hilo escritor nunca espera (un handler real que registra
+        // algo se quedaría esperándose a sí mismo): escribe el registro ya.
+        if (Thread.currentThread() == writer) {
+            writeInline(record);
+            return;
+        }
+
+        while (!queue.offer(record)) {
+            if (closed) {
+                return;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(50_000);
+        }
+        wakeWriter();
+    }
+
+    /**
+     * Espera a que se escriba todo lo encolado hasta ahora y vacía los handlers reales.
+     */
+    @Override
+    public void flush() {
+        if (Thread.currentThread() != writer) {
+            awaitDrained(queue.tailPosition());
+        }
+        for (Handler target : targets) {
+            target.flush();
+        }
+    }
+
+    /**
+     * Escribe los registros pendientes y cierra los handlers reales.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+
+        try {
+            writer.join(TimeUnit.NANOSECONDS.toMillis(DRAIN_TIMEOUT_NANOS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (Handler target : targets) {
+            target.close();
+        }
+    }
+
+    /**
+     * Registros descartados por cola llena desde el arranque.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Registros esperando a ser escritos.
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    // ============================
+    //   HILO ESCRITOR
+    // ============================
+
+    /**
+     * Flujo:
+     *  1. Sacar de la cola hasta batchSize registros.
+     *  2. Entregarlos a cada handler real y vaciarlos una vez por lote.
+     *  3. Si no había nada, dormir hasta que un productor lo despierte.
+     *  4. Al cerrar, vaciar la cola por completo y terminar.
+     */
+    private void writeLoop() {
+        List<LogRecord> batch = new ArrayList<>(batchSize);
+
+        while (true) {
+            batch.clear();
+            int n = queue.drainTo(batch, batchSize);
+
+            if (n > 0) {
+                write(batch);
+                continue;
+            }
+
+            reportDropped();
+
+            if (closed && queue.isEmpty()) {
+                return;
+            }
+
+            writerIdle = true;
+            if (queue.isEmpty() && !closed) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            writerIdle = false;
+        }
+    }
+
+    private void write(List<LogRecord> batch) {
+        for (Handler target : targets) {
+            for (LogRecord record : batch) {
+                try {
+                    target.publish(record);
+                } catch (RuntimeException e) {
+                    reportError("Target handler failed", e, ErrorManager.WRITE_FAILURE);
+                }
+            }
+            target.flush();
+        }
+    }
+
+    /**
+     * Avisa por los handlers reales de los registros perdidos desde el último aviso.
+     */
+    private void reportDropped() {
+        long total = dropped.get();
+        long lost = total - droppedReported;
+        if (lost == 0) {
+            return;
+        }
+        droppedReported = total;
+
+        LogRecord warning = new LogRecord(Level.WARNING,
+                lost + " log records dropped because the async log queue was full");
+        warning.setLoggerName(PREFIX);
+        write(List.of(warning));
+    }
+
+    /**
+     * WARNING y SEVERE nunca se descartan por cola llena.
+     */
+    private static boolean isImportant(LogRecord record) {
+        return record.getLevel().intValue() >= Level.WARNING.intValue();
+    }
+
+    /**
+     * Escribe un registro desde el propio hilo escritor, saltándose la cola.
+     * Si un handler real vuelve a registrar algo mientras tanto, se descarta
+     * para no entrar en una recursión sin fin.
+     */
+    private void writeInline(LogRecord record) {
+        if (writingInline) {
+            dropped.incrementAndGet();
+            DROPPED.increment();
+            return;
+        }
+        writingInline = true;
+        try {
+            write(List.of(record));
+        } finally {
+            writingInline = false;
+        }
+    }
+
+    private void wakeWriter() {
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void awaitDrained(long position) {
+        long deadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (queue.headPosition() < position && writer.isAlive()) {
+            if (System.nanoTime() - deadline > 0) {
+                return;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    // ============================
+    //   CONFIGURACIÓN
+    // ============================
+
+    /**
+     * Crea los handlers reales a partir de una lista de clases separadas por comas.
+     * Si uno falla (p. ej. la carpeta del FileHandler no existe) se avisa por
+     * System.err y se sigue con el resto.
+     */
+    private static Handler[] createTargets(String classNames) {
+        List<Handler> handlers = new ArrayList<>();
+        for (String name : classNames.split("[,\\s]+")) {
+            if (name.isBlank()) {
+                continue;
+            }
+            try {
+                Class<?> type = ClassLoader.getSystemClassLoader().loadClass(name);
+                handlers.add((Handler) type.getDeclaredConstructor().newInstance());
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                System.err.println("AsyncHandler: could not create " + name + ": " + cause);
+            }
+        }
+        return handlers.toArray(new Handler[0]);
+    }
+
+    private static String property(String key, String defaultValue) {
+        String value = LogManager.getLogManager().getProperty(PREFIX + "." + key);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    private static int intProperty(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(property(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static Level levelProperty() {
+        try {
+            return Level.parse(property("level", "ALL"));
+        } catch (IllegalArgumentException e) {
+            return Level.ALL;
+        }
+    }
+
+    private static OverflowPolicy overflowProperty() {
+        try {
+            return OverflowPolicy.valueOf(property("overflow", "DROP").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return OverflowPolicy.DROP;
+        }
+    }
+}
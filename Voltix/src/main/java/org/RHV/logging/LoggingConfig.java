@@ -0,0 +1,79 @@
+package org.RHV.logging;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.logging.LogManager;
+
+/**
+ * Carga la configuración de java.util.logging incluida en la aplicación
+ * (resources/logging.properties).
+ *
+ * Si se arranca con -Djava.util.logging.config.file=... o
+ * -Djava.util.logging.config.class=... se respeta esa configuración.
+ */
+public final class LoggingConfig {
+
+    private static final String CLASSPATH_FILE = "/logging.properties";
+
+    private static volatile boolean initialized;
+
+    private LoggingConfig() {
+        // Evitar instanciación
+    }
+
+    /**
+     * Aplica logging.properties una sola vez. Llamar al inicio de main().
+     *
+     * Flujo:
+     *  1. Salir si ya se aplicó o si hay configuración externa.
+     *  2. Crear la carpeta de logs del FileHandler.
+     *  3. Cargar el archivo en LogManager.
+     */
+    public static synchronized void init() {
+        if (initialized) {
+            return;
+        }
+        initialized = true;
+
+        if (System.getProperty("java.util.logging.config.file") != null
+                || System.getProperty("java.util.logging.config.class") != null) {
+            return;
+        }
+
+        try (InputStream in = LoggingConfig.class.getResourceAsStream(CLASSPATH_FILE)) {
+            if (in == null) {
+                return;
+            }
+
+            byte[] content = in.readAllBytes();
+            createLogDirectory(content);
+            LogManager.getLogManager().readConfiguration(new ByteArrayInputStream(content));
+
+        } catch (IOException e) {
+            System.err.println("Could not load " + CLASSPATH_FILE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * FileHandler no crea la carpeta de su patrón (logs/app-%u-%g.log);
+     * se crea aquí para que el log a archivo funcione desde el primer arranque.
+     */
+    private static void createLogDirectory(byte[] content) throws IOException {
+        Properties props = new Properties();
+        props.load(new ByteArrayInputStream(content));
+
+        String pattern = props.getProperty("java.util.logging.FileHandler.pattern");
+        if (pattern == null || pattern.contains("%t") || pattern.contains("%h")) {
+            return;
+        }
+
+        Path parent = Path.of(pattern).toAbsolutePath().getParent();
+        if (parent != null && !parent.toString().contains("%")) {
+            Files.createDirectories(parent);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.RHV.logging;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cola circular acotada sin bloqueos: muchos productores, un solo consumidor.
+ *
+ * Cada casilla guarda un número de secuencia que indica si está libre para
+ * el productor de la vuelta actual o ya tiene un elemento para el consumidor.
+ * Los productores compiten con un CAS sobre "tail"; el consumidor avanza
+ * "head" sin competencia.
+ */
+final class RingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> items;
+    private final AtomicLongArray sequences;
+
+    // Siguiente posición a reservar por un productor
+    private final AtomicLong tail = new AtomicLong();
+
+    // Siguiente posición a leer; solo la escribe el consumidor
+    private volatile long head;
+
+    /**
+     * @param requestedCapacity Capacidad mínima; se redondea a potencia de dos.
+     */
+    RingBuffer(int requestedCapacity) {
+        int cap = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+        this.capacity = cap;
+        this.mask = cap - 1;
+        this.items = new AtomicReferenceArray<>(cap);
+        this.sequences = new AtomicLongArray(cap);
+        for (int i = 0; i < cap; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Intenta encolar sin esperar.
+     *
+     * @return false si la cola está llena.
+     */
+    boolean offer(E element) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+
+            if (diff == 0) {
+                // Casilla libre en esta vuelta: reservarla
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items.set(index, element);
+                    sequences.set(index, pos + 1); // publicar al consumidor
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                // El consumidor todavía no liberó la casilla de la vuelta anterior
+                return false;
+            } else {
+                // Otro productor se adelantó
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Saca hasta max elementos. Solo debe llamarlo el hilo consumidor.
+     *
+     * @return Número de elementos añadidos a batch.
+     */
+    int drainTo(List<? super E> batch, int max) {
+        long pos = head;
+        int drained = 0;
+
+        while (drained < max) {
+            int index = (int) (pos & mask);
+            if (sequences.get(index) != pos + 1) {
+                break; // vacía (o el productor aún no terminó de escribir)
+            }
+            batch.add(items.get(index));
+            items.set(index, null);
+            sequences.set(index, pos + capacity); // libre para la siguiente vuelta
+            pos++;
+            drained++;
+        }
+
+        head = pos;
+        return drained;
+    }
+
+    /**
+     * Elementos pendientes (aproximado si hay productores activos).
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Posición del último elemento reservado; sirve para esperar a que
+     * el consumidor procese todo lo encolado hasta ahora.
+     */
+    long tailPosition() {
+        return tail.get();
+    }
+
+    long headPosition() {
+        return head;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
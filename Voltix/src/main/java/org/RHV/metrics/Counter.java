@@ -0,0 +1,29 @@
+package org.RHV.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador que solo crece (eventos, filas procesadas, fallos...).
+ */
+public class Counter implements CounterMXBean {
+
+    private final LongAdder value = new LongAdder();
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long n) {
+        value.add(n);
+    }
+
+    @Override
+    public long getCount() {
+        return value.sum();
+    }
+
+    @Override
+    public void reset() {
+        value.reset();
+    }
+}
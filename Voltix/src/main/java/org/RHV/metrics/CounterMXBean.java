@@ -0,0 +1,11 @@
+package org.RHV.metrics;
+
+/**
+ * Vista JMX de un Counter.
+ */
+public interface CounterMXBean {
+
+    long getCount();
+
+    void reset();
+}
@@ -0,0 +1,26 @@
+package org.RHV.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Valor instantáneo que se calcula al consultarlo (conexiones activas,
+ * tamaño de una caché...).
+ */
+public class Gauge implements GaugeMXBean {
+
+    private final DoubleSupplier supplier;
+
+    public Gauge(DoubleSupplier supplier) {
+        this.supplier = supplier;
+    }
+
+    @Override
+    public double getValue() {
+        try {
+            return supplier.getAsDouble();
+        } catch (RuntimeException e) {
+            // Una métrica nunca debe romper a quien la consulta
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.RHV.metrics;
+
+/**
+ * Vista JMX de un Gauge.
+ */
+public interface GaugeMXBean {
+
+    double getValue();
+}
@@ -0,0 +1,153 @@
+package org.RHV.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de valores enteros no negativos (por ejemplo latencias en
+ * nanosegundos o tamaños de lote) con memoria fija.
+ *
+ * Los valores se agrupan en cubetas log-lineales: cada potencia de dos se
+ * divide en 8 cubetas, así que los percentiles tienen un error máximo del
+ * 12.5 %. Registrar un valor no crea objetos ni usa bloqueos, por lo que
+ * puede llamarse desde cualquier hilo en el camino crítico.
+ */
+public class Histogram implements HistogramMXBean {
+
+    // Valores menores que 16 tienen su propia cubeta; después, 8 por potencia de dos
+    private static final int LINEAR = 16;
+    private static final int SUB_BUCKETS = 8;
+    private static final int BUCKETS = LINEAR + (63 - 4) * SUB_BUCKETS;
+
+    /**
+     * Valores calculados en un instante.
+     */
+    public record Snapshot(long count, long sum, long max, long p50, long p95, long p99) {
+
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+    }
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Registra un valor. Los negativos se cuentan como 0.
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+
+        buckets.incrementAndGet(bucketOf(v));
+        count.increment();
+        sum.add(v);
+
+        long current = max.get();
+        while (v > current && !max.compareAndSet(current, v)) {
+            current = max.get();
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+
+        long maxValue = max.get();
+        return new Snapshot(total, sum.sum(), maxValue,
+                percentile(counts, total, 0.50, maxValue),
+                percentile(counts, total, 0.95, maxValue),
+                percentile(counts, total, 0.99, maxValue));
+    }
+
+    /**
+     * Vuelve a cero todos los contadores.
+     */
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    // --- HistogramMXBean ---
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    @Override
+    public long getMax() {
+        return max.get();
+    }
+
+    @Override
+    public long get50thPercentile() {
+        return snapshot().p50();
+    }
+
+    @Override
+    public long get95thPercentile() {
+        return snapshot().p95();
+    }
+
+    @Override
+    public long get99thPercentile() {
+        return snapshot().p99();
+    }
+
+    // --- Cubetas ---
+
+    private static int bucketOf(long v) {
+        if (v < LINEAR) {
+            return (int) v;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Mayor valor que cae en la cubeta indicada.
+     */
+    private static long upperBound(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR) / SUB_BUCKETS + 4;
+        int sub = (bucket - LINEAR) % SUB_BUCKETS;
+        long width = 1L << (exponent - 3);
+        return ((SUB_BUCKETS + sub) * width) + width - 1;
+    }
+
+    private static long percentile(long[] counts, long total, double p, long maxValue) {
+        if (total == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(p * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperBound(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+}
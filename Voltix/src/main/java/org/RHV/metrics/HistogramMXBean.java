@@ -0,0 +1,21 @@
+package org.RHV.metrics;
+
+/**
+ * Vista JMX de un Histogram (valores en la unidad registrada).
+ */
+public interface HistogramMXBean {
+
+    long getCount();
+
+    double getMean();
+
+    long getMax();
+
+    long get50thPercentile();
+
+    long get95thPercentile();
+
+    long get99thPercentile();
+
+    void reset();
+}
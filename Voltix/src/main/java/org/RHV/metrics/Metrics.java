@@ -0,0 +1,116 @@
+package org.RHV.metrics;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Registro central de métricas de la aplicación.
+ *
+ * Cada métrica tiene un nombre con puntos ("repository.invoice.listInvoices")
+ * y se publica como MBean en JMX bajo org.RHV:type=Timer|Counter|Gauge|Histogram,name=...
+ * (visible con JConsole o VisualVM). Opcionalmente MetricsFileReporter
+ * escribe todas las métricas en un archivo cada cierto tiempo.
+ *
+ * Las métricas se crean la primera vez que se piden y después se reutilizan;
+ * lo normal es guardarlas en un campo static final de la clase que las usa:
+ * <pre>
+ *     private static final Timer SAVE_TIMER = Metrics.timer("repository.customer.save");
+ * </pre>
+ */
+public final class Metrics {
+
+    private static final Logger logger = Logger.getLogger(Metrics.class.getName());
+
+    public static final String JMX_DOMAIN = "org.RHV";
+
+    private static final ConcurrentMap<String, Object> registry = new ConcurrentHashMap<>();
+
+    private Metrics() {
+        // Evitar instanciación
+    }
+
+    public static Timer timer(String name) {
+        return get(name, Timer.class, "Timer", Timer::new);
+    }
+
+    public static Counter counter(String name) {
+        return get(name, Counter.class, "Counter", Counter::new);
+    }
+
+    public static Histogram histogram(String name) {
+        return get(name, Histogram.class, "Histogram", Histogram::new);
+    }
+
+    /**
+     * Registra un gauge. Si ya existe uno con ese nombre se conserva el primero.
+     */
+    public static Gauge gauge(String name, DoubleSupplier supplier) {
+        return get(name, Gauge.class, "Gauge", () -> new Gauge(supplier));
+    }
+
+    /**
+     * Nombre del timer de carga de una vista FXML:
+     * "/org/RHV/list-invoices.fxml" → "ui.view.load.list-invoices".
+     */
+    public static String viewLoadName(String fxmlPath) {
+        String name = fxmlPath.substring(fxmlPath.lastIndexOf('/') + 1);
+        if (name.endsWith(".fxml")) {
+            name = name.substring(0, name.length() - ".fxml".length());
+        }
+        return "ui.view.load." + name;
+    }
+
+    /**
+     * Todas las métricas registradas, ordenadas por nombre.
+     */
+    public static Map<String, Object> all() {
+        return new TreeMap<>(registry);
+    }
+
+    private static <T> T get(String name, Class<T> type, String jmxType, Supplier<T> factory) {
+        Object metric = registry.computeIfAbsent(name, n -> {
+            T created = factory.get();
+            register(jmxType, n, created);
+            return created;
+        });
+
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric '" + name + "' is already registered as "
+                    + metric.getClass().getSimpleName());
+        }
+        return type.cast(metric);
+    }
+
+    /**
+     * Publica la métrica en JMX. Si JMX no está disponible la métrica sigue
+     * funcionando (y aparece en el reporte a archivo).
+     */
+    private static void register(String jmxType, String name, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + jmxType + ",name=" + quoteIfNeeded(name));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (Exception | LinkageError e) {
+            logger.warning("Could not register metric '" + name + "' in JMX: " + e.getMessage());
+        }
+    }
+
+    private static String quoteIfNeeded(String value) {
+        for (char c : value.toCharArray()) {
+            if (c == ',' || c == '=' || c == ':' || c == '"' || c == '*' || c == '?' || c == '\\' || c == '\n') {
+                return ObjectName.quote(value);
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,128 @@
+package org.RHV.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Escribe periódicamente todas las métricas en un archivo de texto
+ * (se agrega al final, un bloque por reporte).
+ *
+ * Se activa con propiedades del sistema:
+ *  - voltix.metrics.file=ruta/metrics.log
+ *  - voltix.metrics.intervalSeconds=60 (opcional)
+ *
+ * Se crea con start(...), que programa el reporte una vez construido el
+ * objeto. Al cerrar (close) se escribe un último reporte.
+ */
+public final class MetricsFileReporter implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger(MetricsFileReporter.class.getName());
+
+    public static final String FILE_PROPERTY = "voltix.metrics.file";
+    public static final String INTERVAL_PROPERTY = "voltix.metrics.intervalSeconds";
+
+    private final Path file;
+    private final ScheduledExecutorService scheduler;
+
+    private MetricsFileReporter(Path file) {
+        this.file = file;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "voltix-metrics-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Crea un reporter y programa sus reportes periódicos.
+     *
+     * @param file     Archivo al que se agregan los reportes.
+     * @param interval Tiempo entre reportes (mínimo 1 s).
+     * @return El reporter en marcha.
+     */
+    public static MetricsFileReporter start(Path file, Duration interval) {
+        MetricsFileReporter reporter = new MetricsFileReporter(file);
+
+        long seconds = Math.max(1, interval.toSeconds());
+        reporter.scheduler.scheduleAtFixedRate(reporter::report, seconds, seconds, TimeUnit.SECONDS);
+        logger.info("Writing metrics to " + file.toAbsolutePath() + " every " + seconds + " s");
+        return reporter;
+    }
+
+    /**
+     * Arranca el reporte si está configurado en las propiedades del sistema.
+     *
+     * @return El reporter en marcha, o null si no se pidió.
+     */
+    public static MetricsFileReporter startFromSystemProperties() {
+        String path = System.getProperty(FILE_PROPERTY);
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        long interval = Long.getLong(INTERVAL_PROPERTY, 60);
+        return start(Path.of(path), Duration.ofSeconds(interval));
+    }
+
+    /**
+     * Escribe un bloque con el valor actual de todas las métricas.
+     */
+    public void report() {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+
+                out.write("# " + Instant.now() + System.lineSeparator());
+                for (Map.Entry<String, Object> entry : Metrics.all().entrySet()) {
+                    out.write(format(entry.getKey(), entry.getValue()));
+                    out.write(System.lineSeparator());
+                }
+                out.write(System.lineSeparator());
+            }
+        } catch (IOException e) {
+            logger.warning("Could not write metrics to " + file + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        report();
+    }
+
+    private static String format(String name, Object metric) {
+        if (metric instanceof Timer t) {
+            Histogram.Snapshot s = t.snapshot();
+            return String.format("timer     %-45s count=%d errors=%d mean=%.3fms p50=%.3fms p95=%.3fms p99=%.3fms max=%.3fms",
+                    name, s.count(), t.getErrors(), s.mean() / 1e6,
+                    s.p50() / 1e6, s.p95() / 1e6, s.p99() / 1e6, s.max() / 1e6);
+        }
+        if (metric instanceof Histogram h) {
+            Histogram.Snapshot s = h.snapshot();
+            return String.format("histogram %-45s count=%d mean=%.1f p50=%d p95=%d p99=%d max=%d",
+                    name, s.count(), s.mean(), s.p50(), s.p95(), s.p99(), s.max());
+        }
+        if (metric instanceof Counter c) {
+            return String.format("counter   %-45s count=%d", name, c.getCount());
+        }
+        if (metric instanceof Gauge g) {
+            return String.format("gauge     %-45s value=%s", name, g.getValue());
+        }
+        return name + " " + metric;
+    }
+}
@@ -0,0 +1,113 @@
+package org.RHV.metrics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Mide el arranque de la aplicación por fases.
+ *
+ * Cada llamada a mark("fase") guarda el instante en que terminó esa fase;
+ * report() escribe en el log una tabla con el tiempo de cada fase y el
+ * acumulado desde que arrancó la JVM:
+ * <pre>
+ *     Startup timing (ms since JVM start):
+ *       main            112.0   +112.0
+ *       logging         131.5    +19.5
+ *       toolkit         402.8   +271.3
+ *       ...
+ * </pre>
+ *
+ * Las fases también quedan como gauges startup.&lt;fase&gt; (ms desde el arranque).
+ */
+public final class StartupTimer {
+
+    private static final Logger logger = Logger.getLogger(StartupTimer.class.getName());
+
+    /**
+     * Fase terminada: instante (desde el arranque de la JVM) y duración desde la fase anterior.
+     */
+    public record Phase(String name, long atNanos, long durationNanos) {
+
+        public double atMillis() {
+            return atNanos / 1e6;
+        }
+
+        public double durationMillis() {
+            return durationNanos / 1e6;
+        }
+    }
+
+    // Instante de arranque de la JVM en la escala de System.nanoTime()
+    private static final long originNanos;
+
+    private static final List<Phase> phases = new ArrayList<>();
+    private static long lastNanos;
+    private static boolean reported;
+
+    static {
+        long now = System.nanoTime();
+        long sinceJvmStart = ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, Instant.now()).toNanos())
+                .orElse(0L);
+        originNanos = now - Math.max(0, sinceJvmStart);
+        lastNanos = originNanos;
+    }
+
+    private StartupTimer() {
+        // Evitar instanciación
+    }
+
+    /**
+     * Registra el final de una fase. Puede llamarse desde cualquier hilo;
+     * las fases posteriores a report() se ignoran.
+     */
+    public static synchronized void mark(String phase) {
+        if (reported) {
+            return;
+        }
+        long now = System.nanoTime();
+        phases.add(new Phase(phase, now - originNanos, now - lastNanos));
+        lastNanos = now;
+    }
+
+    /**
+     * Fases registradas hasta ahora, en orden.
+     */
+    public static synchronized List<Phase> phases() {
+        return List.copyOf(phases);
+    }
+
+    /**
+     * Tiempo desde el arranque de la JVM hasta el final de la fase, o -1 si no se registró.
+     */
+    public static synchronized double millisUntil(String phase) {
+        for (Phase p : phases) {
+            if (p.name().equals(phase)) {
+                return p.atMillis();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Escribe la tabla de fases en el log (solo la primera vez).
+     */
+    public static synchronized void report() {
+        if (reported) {
+            return;
+        }
+        reported = true;
+
+        StringBuilder table = new StringBuilder("Startup timing (ms since JVM start):");
+        for (Phase p : phases) {
+            table.append(String.format("%n  %-14s %8.1f  %+8.1f", p.name(), p.atMillis(), p.durationMillis()));
+
+            double at = p.atMillis();
+            Metrics.gauge("startup." + p.name(), () -> at);
+        }
+        logger.info(table.toString());
+    }
+}
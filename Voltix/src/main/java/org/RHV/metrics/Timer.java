@@ -0,0 +1,103 @@
+package org.RHV.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mide la duración de una operación: número de llamadas, errores,
+ * tiempo total y percentiles de latencia (Histogram en nanosegundos).
+ *
+ * Uso:
+ * <pre>
+ *     long start = TIMER.start();
+ *     try {
+ *         ...
+ *     } finally {
+ *         TIMER.stop(start);
+ *     }
+ * </pre>
+ */
+public class Timer implements TimerMXBean {
+
+    private final Histogram histogram = new Histogram();
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Marca de tiempo de inicio, para pasar a stop().
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Registra el tiempo transcurrido desde start.
+     */
+    public void stop(long startNanos) {
+        histogram.record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Registra una duración ya medida.
+     */
+    public void record(long nanos) {
+        histogram.record(nanos);
+    }
+
+    /**
+     * Cuenta una llamada que terminó con error (la duración se registra aparte con stop()).
+     */
+    public void error() {
+        errors.increment();
+    }
+
+    public Histogram.Snapshot snapshot() {
+        return histogram.snapshot();
+    }
+
+    // --- TimerMXBean ---
+
+    @Override
+    public long getCount() {
+        return histogram.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getTotalMillis() {
+        return histogram.snapshot().sum() / 1e6;
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return histogram.getMean() / 1e6;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return histogram.getMax() / 1e6;
+    }
+
+    @Override
+    public double get50thPercentileMillis() {
+        return histogram.get50thPercentile() / 1e6;
+    }
+
+    @Override
+    public double get95thPercentileMillis() {
+        return histogram.get95thPercentile() / 1e6;
+    }
+
+    @Override
+    public double get99thPercentileMillis() {
+        return histogram.get99thPercentile() / 1e6;
+    }
+
+    @Override
+    public void reset() {
+        histogram.reset();
+        errors.reset();
+    }
+}
@@ -0,0 +1,25 @@
+package org.RHV.metrics;
+
+/**
+ * Vista JMX de un Timer (tiempos en milisegundos).
+ */
+public interface TimerMXBean {
+
+    long getCount();
+
+    long getErrors();
+
+    double getTotalMillis();
+
+    double getMeanMillis();
+
+    double getMaxMillis();
+
+    double get50thPercentileMillis();
+
+    double get95thPercentileMillis();
+
+    double get99thPercentileMillis();
+
+    void reset();
+}
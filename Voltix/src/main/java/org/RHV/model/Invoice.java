@@ -1,9 +1,14 @@
 package org.RHV.model;
 
+import org.RHV.util.Money;
+
 /**
  * Representa una factura generada para un cliente.
  * Contiene: cliente, consumo asociado, tarifa aplicada y total a pagar.
  * El ID es generado automáticamente por MySQL.
+ *
+ * La tarifa y el total son importes en punto fijo (Money), sin errores
+ * de redondeo de double.
  */
 public class Invoice {
 
@@ -17,16 +22,16 @@ public class Invoice {
     private final Consumption consumption;
 
     // Tarifa aplicada según el consumo
-    private final double appliedRate;
+    private final Money appliedRate;
 
     // Total a pagar calculado
-    private final double totalToPay;
+    private final Money totalToPay;
 
     /**
      * Constructor usado cuando se genera una nueva factura desde la UI.
      * El ID será asignado después de guardar en MySQL.
      */
-    public Invoice(Customer customer, Consumption consumption, double appliedRate, double totalToPay) {
+    public Invoice(Customer customer, Consumption consumption, Money appliedRate, Money totalToPay) {
         this.customer = customer;
         this.consumption = consumption;
         this.appliedRate = appliedRate;
@@ -36,7 +41,7 @@ public class Invoice {
     /**
      * Constructor usado al cargar facturas desde MySQL.
      */
-    public Invoice(int invoiceId, Customer customer, Consumption consumption, double appliedRate, double totalToPay) {
+    public Invoice(int invoiceId, Customer customer, Consumption consumption, Money appliedRate, Money totalToPay) {
         this.invoiceId = invoiceId;
         this.customer = customer;
         this.consumption = consumption;
@@ -61,11 +66,11 @@ public class Invoice {
         return consumption;
     }
 
-    public double getAppliedRate() {
+    public Money getAppliedRate() {
         return appliedRate;
     }
 
-    public double getTotalToPay() {
+    public Money getTotalToPay() {
         return totalToPay;
     }
 }
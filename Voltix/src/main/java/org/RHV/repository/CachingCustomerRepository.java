@@ -0,0 +1,298 @@
+package org.RHV.repository;
+
+import org.RHV.database.DataAccessException;
+import org.RHV.metrics.Metrics;
+import org.RHV.model.Customer;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Caché de lectura (read-through) delante de CustomerRepository.
+ *
+ * Las pantallas y servicios piden la lista de clientes muchas veces
+ * (listado, combo de facturación, dashboard). Con esta caché solo la primera
+ * lectura va a MySQL; las siguientes se resuelven en memoria.
+ *
+ *  - Búsqueda por ID y por lotes de IDs, con expulsión LRU al superar maxSize.
+ *  - La lista completa se guarda solo si cabe en maxSize clientes, y caduca
+ *    tras un tiempo corto (TTL): otros procesos (p. ej. la importación por
+ *    línea de comandos) pueden agregar clientes sin pasar por esta caché.
+ *  - save() guarda en MySQL y actualiza la caché con el ID generado.
+ *  - Estadísticas de aciertos, fallos y expulsiones (getStats()).
+ *
+ * Es segura para varios hilos. La instancia compartida por la aplicación
+ * se obtiene con shared().
+ */
+public class CachingCustomerRepository extends CustomerRepository {
+
+    private static final Logger logger = Logger.getLogger(CachingCustomerRepository.class.getName());
+
+    // Clientes en memoria por defecto
+    public static final int DEFAULT_MAX_SIZE = 10_000;
+
+    // Vigencia por defecto de la lista completa (y del conteo)
+    public static final Duration DEFAULT_LIST_TTL = Duration.ofSeconds(30);
+
+    private static final CachingCustomerRepository SHARED = new CachingCustomerRepository(DEFAULT_MAX_SIZE);
+
+    static {
+        // Métricas de la instancia compartida
+        Metrics.gauge("cache.customer.hitRatio", () -> SHARED.getStats().hitRatio());
+        Metrics.gauge("cache.customer.size", () -> SHARED.getStats().size());
+        Metrics.gauge("cache.customer.evictions", () -> SHARED.getStats().evictions());
+    }
+
+    /**
+     * Estadísticas de uso de la caché.
+     */
+    public record CacheStats(long hits, long misses, long evictions, int size) {
+
+        public double hitRatio() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    private final int maxSize;
+    private final Duration listTtl;
+
+    // Clientes por ID en orden de último acceso (LRU); protegido por "this"
+    private final LinkedHashMap<Integer, Customer> byId;
+
+    // Lista completa en el orden de MySQL, o null si no está cargada; protegida por "this"
+    private List<Customer> all;
+
+    // Momento en que se leyó la lista completa de MySQL; protegido por "this"
+    private Instant allLoadedAt;
+
+    // Cambia con cada save/invalidate; evita guardar una lista leída antes de un cambio
+    private long version;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingCustomerRepository(int maxSize) {
+        this(maxSize, DEFAULT_LIST_TTL);
+    }
+
+    public CachingCustomerRepository(int maxSize, Duration listTtl) {
+        this.maxSize = Math.max(1, maxSize);
+        this.listTtl = listTtl;
+        this.byId = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Customer> eldest) {
+                if (size() > CachingCustomerRepository.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Instancia compartida por servicios y pantallas.
+     */
+    public static CachingCustomerRepository shared() {
+        return SHARED;
+    }
+
+    /**
+     * Guarda el cliente en MySQL y, si se guardó, lo agrega a la caché.
+     */
+    @Override
+    public boolean save(Customer customer) {
+        boolean saved = super.save(customer);
+
+        if (saved) {
+            synchronized (this) {
+                version++;
+                byId.put(customer.getId(), customer);
+
+                if (all != null) {
+                    if (all.size() < maxSize) {
+                        List<Customer> updated = new ArrayList<>(all);
+                        updated.add(customer);
+                        all = updated;
+                    } else {
+                        all = null;
+                    }
+                }
+            }
+        }
+
+        return saved;
+    }
+
+    /**
+     * Inserción masiva: no se agregan a la caché (pueden ser millones);
+     * solo se descarta la lista completa, que quedaría desactualizada.
+     */
+    @Override
+    public int saveAll(Connection conn, List<Customer> customers, int batchSize) throws SQLException {
+        int saved = super.saveAll(conn, customers, batchSize);
+
+        synchronized (this) {
+            version++;
+            all = null;
+        }
+
+        return saved;
+    }
+
+    /**
+     * Devuelve todos los clientes, desde memoria si la lista ya está cargada.
+     * Se devuelve siempre una copia que el llamador puede modificar.
+     *
+     * Si la lectura falla se devuelve una lista vacía, como en
+     * CustomerRepository, pero no se guarda: el siguiente intento vuelve a MySQL.
+     */
+    @Override
+    public List<Customer> getAll() {
+        long readVersion;
+        synchronized (this) {
+            if (hasFreshList()) {
+                hits.increment();
+                return new ArrayList<>(all);
+            }
+            readVersion = version;
+        }
+
+        misses.increment();
+        List<Customer> loaded;
+        try {
+            loaded = super.loadAll();
+        } catch (DataAccessException e) {
+            System.out.println("Error loading customers: " + e.getMessage());
+            return new ArrayList<>();
+        }
+
+        synchronized (this) {
+            for (Customer c : loaded) {
+                byId.put(c.getId(), c);
+            }
+
+            // Solo se guarda la lista si cabe entera y nadie la cambió mientras se leía
+            if (readVersion == version && loaded.size() <= maxSize) {
+                all = List.copyOf(loaded);
+                allLoadedAt = Instant.now();
+            }
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public Customer findById(int id) {
+        synchronized (this) {
+            Customer cached = byId.get(id);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+
+        misses.increment();
+        Customer loaded = super.findByIds(List.of(id)).get(id);
+
+        if (loaded != null) {
+            synchronized (this) {
+                byId.put(id, loaded);
+            }
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Busca varios clientes: los que están en memoria se devuelven directamente
+     * y el resto se consulta a MySQL en una sola pasada.
+     */
+    @Override
+    public Map<Integer, Customer> findByIds(Collection<Integer> ids) {
+        Map<Integer, Customer> result = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+
+        synchronized (this) {
+            for (Integer id : new LinkedHashSet<>(ids)) {
+                Customer cached = byId.get(id);
+                if (cached != null) {
+                    result.put(id, cached);
+                } else {
+                    missing.add(id);
+                }
+            }
+        }
+
+        hits.add(result.size());
+        misses.add(missing.size());
+
+        if (!missing.isEmpty()) {
+            Map<Integer, Customer> loaded = super.findByIds(missing);
+
+            synchronized (this) {
+                byId.putAll(loaded);
+            }
+            result.putAll(loaded);
+        }
+
+        return result;
+    }
+
+    /**
+     * Cuenta los clientes en memoria si la lista completa está cargada.
+     */
+    @Override
+    public int count() {
+        synchronized (this) {
+            if (hasFreshList()) {
+                hits.increment();
+                return all.size();
+            }
+        }
+
+        misses.increment();
+        return super.count();
+    }
+
+    /**
+     * Vacía la caché; la siguiente lectura irá a MySQL.
+     * Se usa si los clientes se modifican fuera de la aplicación.
+     */
+    public synchronized void invalidate() {
+        version++;
+        byId.clear();
+        all = null;
+        logger.fine("Customer cache invalidated");
+    }
+
+    /**
+     * true si la lista completa está cargada y no ha caducado; si caducó se descarta.
+     * Llamar con el monitor de "this".
+     */
+    private boolean hasFreshList() {
+        if (all == null) {
+            return false;
+        }
+        if (allLoadedAt.plus(listTtl).isBefore(Instant.now())) {
+            all = null;
+            return false;
+        }
+        return true;
+    }
+
+    public CacheStats getStats() {
+        int size;
+        synchronized (this) {
+            size = byId.size();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+}
@@ -1,9 +1,14 @@
 package org.RHV.repository;
 
 import org.RHV.database.DatabaseConnection;
+import org.RHV.database.UnitOfWork;
+import org.RHV.jfr.RepositoryQueryEvent;
+import org.RHV.metrics.Metrics;
+import org.RHV.metrics.Timer;
 import org.RHV.model.Consumption;
 
 import java.sql.*;
+import java.util.List;
 
 /**
  * Repositorio encargado de realizar operaciones relacionadas con la tabla
@@ -14,6 +19,10 @@ import java.sql.*;
  */
 public class ConsumptionRepository {
 
+    // Métricas (ver org.RHV.metrics.Metrics)
+    private static final Timer SAVE_TIMER = Metrics.timer("repository.consumption.save");
+    private static final Timer SAVE_ALL_TIMER = Metrics.timer("repository.consumption.saveAll");
+
     /**
      * Guarda un consumo en la base de datos y devuelve el ID generado.
      *
@@ -29,25 +38,10 @@ public class ConsumptionRepository {
      */
     public int save(Consumption c) {
 
-        // Sentencia SQL para insertar un nuevo consumo
-        String sql = "INSERT INTO consumptions (kwh, start_date, end_date) VALUES (?, ?, ?)";
-
-        // try-with-resources: cierra automáticamente la conexión y el statement
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            // Asignar valores a los parámetros del INSERT
-            stmt.setDouble(1, c.getKWh());
-            stmt.setDate(2, Date.valueOf(c.getStartDate()));
-            stmt.setDate(3, Date.valueOf(c.getEndDate()));
+        // try-with-resources: cierra automáticamente la conexión (la devuelve al pool)
+        try (Connection conn = DatabaseConnection.getConnection()) {
 
-            // Ejecutar la inserción
-            stmt.executeUpdate();
-
-            // Obtener el ID generado por MySQL
-            ResultSet rs = stmt.getGeneratedKeys();
-            if (rs.next())
-                return rs.getInt(1); // Devuelve el ID autogenerado
+            return save(conn, c);
 
         } catch (Exception e) {
             // Imprimir error en consola para depuración
@@ -57,4 +51,131 @@ public class ConsumptionRepository {
         // Si algo falla, devolver -1
         return -1;
     }
+
+    /**
+     * Guarda un consumo usando una conexión existente (por ejemplo dentro de
+     * una UnitOfWork). No confirma la transacción y propaga los errores.
+     *
+     * @return ID autogenerado por MySQL.
+     */
+    public int save(Connection conn, Consumption c) throws SQLException {
+        long startNanos = SAVE_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("consumption.save", "INSERT");
+        try {
+
+            // Sentencia SQL para insertar un nuevo consumo
+            String sql = "INSERT INTO consumptions (kwh, start_date, end_date) VALUES (?, ?, ?)";
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+                // Asignar valores a los parámetros del INSERT
+                stmt.setDouble(1, c.getKWh());
+                stmt.setDate(2, Date.valueOf(c.getStartDate()));
+                stmt.setDate(3, Date.valueOf(c.getEndDate()));
+
+                // Ejecutar la inserción
+                stmt.executeUpdate();
+                event.rows = 1;
+
+                // Obtener el ID generado por MySQL
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    if (rs.next())
+                        return rs.getInt(1); // Devuelve el ID autogenerado
+                }
+            }
+
+            throw new SQLException("No generated key returned for consumption");
+        } finally {
+            SAVE_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * Guarda varios consumos usando lotes JDBC y asigna a cada objeto
+     * el ID generado por MySQL. Usa el tamaño de lote configurado (db.batchSize).
+     *
+     * @param consumptions Consumos a insertar.
+     * @return Número de filas insertadas, o 0 si ocurre un error.
+     */
+    public int saveAll(List<Consumption> consumptions) {
+        return saveAll(consumptions, DatabaseConnection.getConfig().getBatchSize());
+    }
+
+    /**
+     * Guarda varios consumos en lotes de como máximo batchSize filas.
+     * Todo el lote se ejecuta en una sola transacción: si un trozo falla,
+     * no se guarda ninguno (los IDs asignados a los objetos dejan de ser válidos).
+     *
+     * @param consumptions Consumos a insertar.
+     * @param batchSize    Filas por executeBatch().
+     * @return Número de filas insertadas, o 0 si ocurre un error.
+     */
+    public int saveAll(List<Consumption> consumptions, int batchSize) {
+
+        if (consumptions.isEmpty())
+            return 0;
+
+        try {
+            return new UnitOfWork().execute(conn -> saveAll(conn, consumptions, batchSize));
+
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        return 0;
+    }
+
+    /**
+     * Inserta los consumos sobre una conexión existente, sin confirmar la transacción.
+     *
+     * Flujo:
+     *  1. Agregar cada fila al lote con addBatch().
+     *  2. Cada batchSize filas, ejecutar el lote (el driver lo reescribe
+     *     como un único INSERT multi-fila con rewriteBatchedStatements).
+     *  3. Leer las claves generadas en el mismo orden y asignarlas a cada objeto.
+     */
+    public int saveAll(Connection conn, List<Consumption> consumptions, int batchSize) throws SQLException {
+        long startNanos = SAVE_ALL_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("consumption.saveAll", "INSERT");
+        try {
+
+            String sql = "INSERT INTO consumptions (kwh, start_date, end_date) VALUES (?, ?, ?)";
+            int chunk = Math.max(1, batchSize);
+            int saved = 0;
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+                for (int from = 0; from < consumptions.size(); from += chunk) {
+                    List<Consumption> part = consumptions.subList(from, Math.min(from + chunk, consumptions.size()));
+
+                    for (Consumption c : part) {
+                        stmt.setDouble(1, c.getKWh());
+                        stmt.setDate(2, Date.valueOf(c.getStartDate()));
+                        stmt.setDate(3, Date.valueOf(c.getEndDate()));
+                        stmt.addBatch();
+                    }
+
+                    stmt.executeBatch();
+
+                    // Las claves llegan en el mismo orden en que se agregaron las filas
+                    try (ResultSet rs = stmt.getGeneratedKeys()) {
+                        int i = 0;
+                        while (rs.next() && i < part.size()) {
+                            part.get(i++).setId(rs.getInt(1));
+                        }
+                        GeneratedKeys.check(i, part.size());
+                    }
+
+                    saved += part.size();
+                }
+            }
+
+            event.rows = saved;
+            return saved;
+        } finally {
+            SAVE_ALL_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
 }
@@ -1,11 +1,14 @@
 package org.RHV.repository;
 
+import org.RHV.jfr.RepositoryQueryEvent;
+import org.RHV.metrics.Metrics;
+import org.RHV.metrics.Timer;
 import org.RHV.model.Customer;
+import org.RHV.database.DataAccessException;
 import org.RHV.database.DatabaseConnection;
 
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * Repositorio encargado de gestionar todas las operaciones relacionadas
@@ -18,44 +21,151 @@ import java.util.List;
  */
 public class CustomerRepository {
 
+    // IDs máximos por sentencia "WHERE id IN (...)"
+    private static final int IN_CHUNK = 500;
+
+    // Métricas (ver org.RHV.metrics.Metrics)
+    private static final Timer SAVE_TIMER = Metrics.timer("repository.customer.save");
+    private static final Timer SAVE_ALL_TIMER = Metrics.timer("repository.customer.saveAll");
+    private static final Timer GET_ALL_TIMER = Metrics.timer("repository.customer.getAll");
+    private static final Timer FIND_BY_IDS_TIMER = Metrics.timer("repository.customer.findByIds");
+    private static final Timer COUNT_TIMER = Metrics.timer("repository.customer.count");
+
     /**
-     * Guarda un nuevo cliente en la base de datos.
+     * Guarda un nuevo cliente en la base de datos y le asigna el ID generado por MySQL.
      *
      * @param customer Objeto Customer con los datos ingresados desde la UI.
+     * @return true si el cliente se guardó, false si ocurrió un error.
      *
      * Flujo:
      *  1. Crear sentencia SQL parametrizada.
      *  2. Abrir conexión a MySQL.
      *  3. Asignar valores a los parámetros.
      *  4. Ejecutar el INSERT.
+     *  5. Asignar al cliente el ID autogenerado.
+     */
+    public boolean save(Customer customer) {
+        long startNanos = SAVE_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("customer.save", "INSERT");
+        try {
+
+            // Sentencia SQL para insertar un nuevo cliente
+            String sql = "INSERT INTO customers (name, address, email, phone) VALUES (?, ?, ?, ?)";
+
+            // try-with-resources: cierra automáticamente conexión y statement
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+                // Asignar valores a los parámetros del INSERT
+                stmt.setString(1, customer.getName());
+                stmt.setString(2, customer.getAddress());
+                stmt.setString(3, customer.getEmail());
+                stmt.setString(4, customer.getPhone());
+
+                // Ejecutar la inserción
+                stmt.executeUpdate();
+                event.rows = 1;
+
+                // Reemplazar el ID temporal por el asignado por MySQL
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        customer.setId(rs.getInt(1));
+                    }
+                }
+
+                return true;
+
+            } catch (Exception e) {
+                SAVE_TIMER.error();
+                System.out.println("Error saving customer: " + e.getMessage());
+            }
+
+            return false;
+        } finally {
+            SAVE_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * Inserta varios clientes sobre una conexión existente, sin confirmar la transacción.
+     * Usado por la importación masiva (CsvImportService).
+     *
+     * Flujo:
+     *  1. Agregar cada fila al lote con addBatch().
+     *  2. Cada batchSize filas, ejecutar el lote (el driver lo reescribe
+     *     como un único INSERT multi-fila con rewriteBatchedStatements).
+     *  3. Leer las claves generadas en el mismo orden y asignarlas a cada objeto.
+     *
+     * @return Número de filas insertadas.
      */
-    public void save(Customer customer) {
+    public int saveAll(Connection conn, List<Customer> customers, int batchSize) throws SQLException {
+        long startNanos = SAVE_ALL_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("customer.saveAll", "INSERT");
+        try {
+
+            String sql = "INSERT INTO customers (name, address, email, phone) VALUES (?, ?, ?, ?)";
+            int chunk = Math.max(1, batchSize);
+            int saved = 0;
 
-        // Sentencia SQL para insertar un nuevo cliente
-        String sql = "INSERT INTO customers (name, address, email, phone) VALUES (?, ?, ?, ?)";
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-        // try-with-resources: cierra automáticamente conexión y statement
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (int from = 0; from < customers.size(); from += chunk) {
+                    List<Customer> part = customers.subList(from, Math.min(from + chunk, customers.size()));
 
-            // Asignar valores a los parámetros del INSERT
-            stmt.setString(1, customer.getName());
-            stmt.setString(2, customer.getAddress());
-            stmt.setString(3, customer.getEmail());
-            stmt.setString(4, customer.getPhone());
+                    for (Customer c : part) {
+                        stmt.setString(1, c.getName());
+                        stmt.setString(2, c.getAddress());
+                        stmt.setString(3, c.getEmail());
+                        stmt.setString(4, c.getPhone());
+                        stmt.addBatch();
+                    }
 
-            // Ejecutar la inserción
-            stmt.executeUpdate();
+                    stmt.executeBatch();
 
-        } catch (Exception e) {
-            System.out.println("Error saving customer: " + e.getMessage());
+                    // Las claves llegan en el mismo orden en que se agregaron las filas
+                    try (ResultSet rs = stmt.getGeneratedKeys()) {
+                        int i = 0;
+                        while (rs.next() && i < part.size()) {
+                            part.get(i++).setId(rs.getInt(1));
+                        }
+                        GeneratedKeys.check(i, part.size());
+                    }
+
+                    saved += part.size();
+                }
+            }
+
+            event.rows = saved;
+            return saved;
+        } finally {
+            SAVE_ALL_TIMER.stop(startNanos);
+            event.commit();
         }
     }
 
     /**
      * Obtiene todos los clientes almacenados en la base de datos.
+     * Si falla la consulta, muestra el error y devuelve una lista vacía.
      *
      * @return Lista de objetos Customer.
+     */
+    public List<Customer> getAll() {
+        try {
+            return loadAll();
+        } catch (DataAccessException e) {
+            System.out.println("Error loading customers: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Igual que getAll(), pero informa los errores en lugar de devolver una
+     * lista vacía, de modo que quien guarda el resultado (p. ej. una caché)
+     * puede distinguir "no hay clientes" de "no se pudo leer".
+     *
+     * @return Lista de objetos Customer.
+     * @throws DataAccessException si falla la consulta.
      *
      * Flujo:
      *  1. Ejecutar SELECT * FROM customers
@@ -63,34 +173,139 @@ public class CustomerRepository {
      *  3. Crear objetos Customer por cada fila
      *  4. Agregarlos a una lista
      */
-    public List<Customer> getAll() {
+    public List<Customer> loadAll() {
+        long startNanos = GET_ALL_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("customer.getAll", "SELECT");
+        try {
 
-        List<Customer> list = new ArrayList<>();
-        String sql = "SELECT * FROM customers";
+            List<Customer> list = new ArrayList<>();
+            String sql = "SELECT * FROM customers";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
 
-            // Recorrer cada fila del resultado
-            while (rs.next()) {
+                // Recorrer cada fila del resultado
+                while (rs.next()) {
 
-                // Crear objeto Customer con los datos de la fila
-                Customer c = new Customer(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("address"),
-                        rs.getString("email"),
-                        rs.getString("phone")
-                );
+                    // Crear objeto Customer con los datos de la fila
+                    list.add(mapCustomer(rs));
+                }
 
-                list.add(c);
+            } catch (SQLException | RuntimeException e) {
+                GET_ALL_TIMER.error();
+                throw new DataAccessException(e.getMessage(), e);
             }
 
-        } catch (Exception e) {
-            System.out.println("Error loading customers: " + e.getMessage());
+            event.rows = list.size();
+            return list;
+        } finally {
+            GET_ALL_TIMER.stop(startNanos);
+            event.commit();
         }
+    }
+
+    /**
+     * Busca un cliente por su ID.
+     *
+     * @return El cliente, o null si no existe o si ocurre un error.
+     */
+    public Customer findById(int id) {
+        return findByIds(List.of(id)).get(id);
+    }
+
+    /**
+     * Busca varios clientes por ID con consultas "WHERE id IN (...)".
+     * Los IDs se envían en grupos para no generar sentencias demasiado largas.
+     *
+     * @param ids IDs a buscar (los repetidos se consultan una sola vez).
+     * @return Mapa ID → cliente con los clientes encontrados.
+     */
+    public Map<Integer, Customer> findByIds(Collection<Integer> ids) {
+        long startNanos = FIND_BY_IDS_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("customer.findByIds", "SELECT");
+        try {
+
+            Map<Integer, Customer> result = new HashMap<>();
+            List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+
+            try (Connection conn = DatabaseConnection.getConnection()) {
+
+                for (int from = 0; from < distinct.size(); from += IN_CHUNK) {
+                    List<Integer> part = distinct.subList(from, Math.min(from + IN_CHUNK, distinct.size()));
+                    String placeholders = String.join(", ", Collections.nCopies(part.size(), "?"));
+                    String sql = "SELECT * FROM customers WHERE id IN (" + placeholders + ")";
+
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        for (int i = 0; i < part.size(); i++) {
+                            stmt.setInt(i + 1, part.get(i));
+                        }
+
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                Customer c = mapCustomer(rs);
+                                result.put(c.getId(), c);
+                            }
+                        }
+                    }
+                }
+
+            } catch (Exception e) {
+                FIND_BY_IDS_TIMER.error();
+                System.out.println("Error loading customers: " + e.getMessage());
+            }
 
-        return list;
+            event.rows = result.size();
+            return result;
+        } finally {
+            FIND_BY_IDS_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * Devuelve el número de clientes registrados sin cargarlos en memoria.
+     *
+     * @return Cantidad de filas en 'customers', o 0 si ocurre un error.
+     */
+    public int count() {
+        long startNanos = COUNT_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("customer.count", "SELECT");
+        try {
+
+            String sql = "SELECT COUNT(*) FROM customers";
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
+
+                if (rs.next()) {
+                    event.rows = 1;
+                    return rs.getInt(1);
+                }
+
+            } catch (Exception e) {
+                COUNT_TIMER.error();
+                System.out.println("Error counting customers: " + e.getMessage());
+            }
+
+            return 0;
+        } finally {
+            COUNT_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * Crea un Customer a partir de la fila actual del ResultSet.
+     */
+    private Customer mapCustomer(ResultSet rs) throws SQLException {
+        return new Customer(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getString("address"),
+                rs.getString("email"),
+                rs.getString("phone")
+        );
     }
 }
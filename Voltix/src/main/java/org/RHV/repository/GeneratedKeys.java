@@ -0,0 +1,27 @@
+package org.RHV.repository;
+
+import java.sql.SQLException;
+
+/**
+ * Comprobaciones sobre las claves generadas por los INSERT por lotes.
+ */
+final class GeneratedKeys {
+
+    private GeneratedKeys() {
+        // Evitar instanciación
+    }
+
+    /**
+     * Falla si el driver devolvió menos claves que filas insertadas: los
+     * objetos sin clave quedarían con ID 0 y las filas que dependen de ellos
+     * (p. ej. la factura de un consumo) apuntarían a un registro inexistente.
+     *
+     * @param received Claves leídas.
+     * @param expected Filas insertadas.
+     * @throws SQLException si faltan claves (el llamador deshace la transacción).
+     */
+    static void check(int received, int expected) throws SQLException {
+        if (received < expected)
+            throw new SQLException("Expected " + expected + " generated keys but the driver returned " + received);
+    }
+}
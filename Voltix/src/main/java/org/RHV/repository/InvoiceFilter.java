@@ -0,0 +1,32 @@
+package org.RHV.repository;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Filtro de facturas por periodo de consumo y por cliente.
+ *
+ * Una factura pasa el filtro si su periodo empieza en o después de "from"
+ * y termina en o antes de "to". Los campos null (o el conjunto vacío)
+ * no filtran.
+ *
+ * @param from        Primer día del rango, o null.
+ * @param to          Último día del rango, o null.
+ * @param customerIds Clientes a incluir; vacío para todos.
+ */
+public record InvoiceFilter(LocalDate from, LocalDate to, Set<Integer> customerIds) {
+
+    public InvoiceFilter {
+        if (from != null && to != null && to.isBefore(from))
+            throw new IllegalArgumentException("End date cannot be before start date.");
+
+        customerIds = customerIds == null ? Set.of() : Set.copyOf(customerIds);
+    }
+
+    /**
+     * Filtro que deja pasar todas las facturas.
+     */
+    public static InvoiceFilter all() {
+        return new InvoiceFilter(null, null, Set.of());
+    }
+}
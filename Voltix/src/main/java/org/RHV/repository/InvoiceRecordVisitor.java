@@ -0,0 +1,34 @@
+package org.RHV.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Recibe los valores de cada factura con los datos de su cliente y su consumo,
+ * sin construir objetos Invoice, Customer ni Consumption.
+ *
+ * Lo usa InvoiceRepository.scanInvoiceRecords() para exportaciones masivas:
+ * a diferencia de InvoiceRowMapper, no guarda nada entre filas, de modo que
+ * la memoria usada no crece con el número de facturas ni de clientes.
+ */
+@FunctionalInterface
+public interface InvoiceRecordVisitor {
+
+    /**
+     * @param invoiceId     ID de la factura
+     * @param customerId    ID del cliente
+     * @param name          Nombre del cliente
+     * @param address       Dirección del cliente
+     * @param email         Email del cliente
+     * @param phone         Teléfono del cliente
+     * @param consumptionId ID del consumo
+     * @param kwh           Energía consumida
+     * @param startDate     Inicio del periodo
+     * @param endDate       Fin del periodo
+     * @param rate          Tarifa aplicada, tal como está en la base de datos
+     * @param total         Total a pagar, tal como está en la base de datos
+     */
+    void visit(int invoiceId, int customerId, String name, String address, String email, String phone,
+               int consumptionId, double kwh, LocalDate startDate, LocalDate endDate,
+               BigDecimal rate, BigDecimal total);
+}
@@ -1,13 +1,21 @@
 package org.RHV.repository;
 
+import org.RHV.database.DataAccessException;
 import org.RHV.database.DatabaseConnection;
-import org.RHV.model.Consumption;
-import org.RHV.model.Customer;
+import org.RHV.jfr.RepositoryQueryEvent;
+import org.RHV.metrics.Metrics;
+import org.RHV.metrics.Timer;
 import org.RHV.model.Invoice;
 
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Repositorio encargado de gestionar todas las operaciones relacionadas
@@ -20,6 +28,34 @@ import java.util.List;
  */
 public class InvoiceRepository {
 
+    // Columnas que devuelven las consultas de facturas (factura + cliente + consumo)
+    private static final String INVOICE_COLUMNS = """
+            SELECT i.id AS invoice_id,
+                   c.id AS customer_id, c.name, c.address, c.email, c.phone,
+                   con.id AS consumption_id, con.kwh, con.start_date, con.end_date,
+                   i.rate, i.total
+            """;
+
+    // Consulta SQL con JOIN para obtener toda la información relacionada
+    private static final String SELECT_INVOICES = INVOICE_COLUMNS + """
+            FROM invoices i
+            JOIN customers c ON i.customer_id = c.id
+            JOIN consumptions con ON i.consumption_id = con.id
+            """;
+
+    // Métricas (ver org.RHV.metrics.Metrics)
+    private static final Timer SAVE_TIMER = Metrics.timer("repository.invoice.saveInvoice");
+    private static final Timer SAVE_BATCH_TIMER = Metrics.timer("repository.invoice.saveInvoices");
+    private static final Timer LIST_TIMER = Metrics.timer("repository.invoice.listInvoices");
+    private static final Timer FOR_EACH_TIMER = Metrics.timer("repository.invoice.forEachInvoice");
+    private static final Timer SCAN_RECORDS_TIMER = Metrics.timer("repository.invoice.scanInvoiceRecords");
+    private static final Timer PAGE_AFTER_TIMER = Metrics.timer("repository.invoice.listInvoicesAfter");
+    private static final Timer PAGE_OFFSET_TIMER = Metrics.timer("repository.invoice.listInvoicesPage");
+    private static final Timer COUNT_TIMER = Metrics.timer("repository.invoice.countInvoices");
+    private static final Timer SUM_KWH_BY_CUSTOMER_TIMER = Metrics.timer("repository.invoice.sumKwhByCustomer");
+    private static final Timer SUM_KWH_BY_MONTH_TIMER = Metrics.timer("repository.invoice.sumKwhByYearMonth");
+    private static final Timer COUNT_BY_CUSTOMER_TIMER = Metrics.timer("repository.invoice.countInvoicesByCustomer");
+
     /**
      * Guarda una factura en la base de datos y asigna el ID generado por MySQL.
      *
@@ -35,29 +71,106 @@ public class InvoiceRepository {
      */
     public void saveInvoice(Invoice invoice) {
 
-        String sql = "INSERT INTO invoices (customer_id, consumption_id, rate, total) VALUES (?, ?, ?, ?)";
+        // try-with-resources: cierra automáticamente la conexión (la devuelve al pool)
+        try (Connection conn = DatabaseConnection.getConnection()) {
+
+            saveInvoice(conn, invoice);
+
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Guarda una factura usando una conexión existente (por ejemplo dentro de
+     * una UnitOfWork). No confirma la transacción y propaga los errores.
+     */
+    public void saveInvoice(Connection conn, Invoice invoice) throws SQLException {
+        long startNanos = SAVE_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("invoice.saveInvoice", "INSERT");
+        try {
+
+            String sql = "INSERT INTO invoices (customer_id, consumption_id, rate, total) VALUES (?, ?, ?, ?)";
 
-        // try-with-resources: cierra automáticamente conexión y statement
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            // Asignar valores a los parámetros del INSERT
-            stmt.setInt(1, invoice.getCustomer().getId());
-            stmt.setInt(2, invoice.getConsumption().getId());
-            stmt.setDouble(3, invoice.getAppliedRate());
-            stmt.setDouble(4, invoice.getTotalToPay());
+                // Asignar valores a los parámetros del INSERT
+                stmt.setInt(1, invoice.getCustomer().getId());
+                stmt.setInt(2, invoice.getConsumption().getId());
+                stmt.setBigDecimal(3, invoice.getAppliedRate().toBigDecimal());
+                stmt.setBigDecimal(4, invoice.getTotalToPay().toBigDecimal());
 
-            // Ejecutar la inserción
-            stmt.executeUpdate();
+                // Ejecutar la inserción
+                stmt.executeUpdate();
+                event.rows = 1;
 
-            // Obtener el ID generado por MySQL
-            ResultSet rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                invoice.setInvoiceId(rs.getInt(1));
+                // Obtener el ID generado por MySQL
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    if (rs.next()) {
+                        invoice.setInvoiceId(rs.getInt(1));
+                    }
+                }
             }
+        } finally {
+            SAVE_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+    /**
+     * Inserta las facturas sobre una conexión existente, sin confirmar la transacción.
+     * Cada trozo de batchSize filas viaja como un INSERT multi-fila y las claves
+     * generadas se asignan a las facturas en el mismo orden.
+     *
+     * Los consumos de cada factura deben estar guardados previamente
+     * (ver ConsumptionRepository.saveAll) para tener su ID. La tabla de totales
+     * no se actualiza aquí: el llamador lo hace en la misma transacción
+     * (ver BillingRunService y RollupRepository.addInvoices).
+     *
+     * @throws SQLException si falla el INSERT o faltan claves generadas.
+     */
+    public int saveInvoices(Connection conn, List<Invoice> invoices, int batchSize) throws SQLException {
+        long startNanos = SAVE_BATCH_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("invoice.saveInvoices", "INSERT");
+        try {
+
+            String sql = "INSERT INTO invoices (customer_id, consumption_id, rate, total) VALUES (?, ?, ?, ?)";
+            int chunk = Math.max(1, batchSize);
+            int saved = 0;
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+                for (int from = 0; from < invoices.size(); from += chunk) {
+                    List<Invoice> part = invoices.subList(from, Math.min(from + chunk, invoices.size()));
+
+                    for (Invoice invoice : part) {
+                        stmt.setInt(1, invoice.getCustomer().getId());
+                        stmt.setInt(2, invoice.getConsumption().getId());
+                        stmt.setBigDecimal(3, invoice.getAppliedRate().toBigDecimal());
+                        stmt.setBigDecimal(4, invoice.getTotalToPay().toBigDecimal());
+                        stmt.addBatch();
+                    }
+
+                    stmt.executeBatch();
+
+                    // Las claves llegan en el mismo orden en que se agregaron las filas
+                    try (ResultSet rs = stmt.getGeneratedKeys()) {
+                        int i = 0;
+                        while (rs.next() && i < part.size()) {
+                            part.get(i++).setInvoiceId(rs.getInt(1));
+                        }
+                        GeneratedKeys.check(i, part.size());
+                    }
+
+                    saved += part.size();
+                }
+            }
+
+            event.rows = saved;
+            return saved;
+        } finally {
+            SAVE_BATCH_TIMER.stop(startNanos);
+            event.commit();
         }
     }
 
@@ -65,69 +178,435 @@ public class InvoiceRepository {
      * Recupera todas las facturas almacenadas en la base de datos,
      * incluyendo sus clientes y consumos asociados mediante JOIN.
      *
+     * Carga toda la tabla en memoria: para tablas grandes usar
+     * forEachInvoice (streaming) o listInvoicesAfter (paginación).
+     *
      * @return Lista de objetos Invoice completamente construidos.
      *
      * Flujo:
      *  1. Ejecutar SELECT con JOIN a customers y consumptions.
      *  2. Recorrer el ResultSet.
-     *  3. Construir Customer, Consumption e Invoice por cada fila.
+     *  3. Construir cada Invoice con InvoiceRowMapper (clientes compartidos).
      *  4. Agregar cada factura a la lista final.
      */
     public List<Invoice> listInvoices() {
+        long startNanos = LIST_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("invoice.listInvoices", "SELECT");
+        try {
 
-        List<Invoice> list = new ArrayList<>();
+            List<Invoice> list = new ArrayList<>();
 
-        // Consulta SQL con JOIN para obtener toda la información relacionada
-        String sql = """
-            SELECT i.id AS invoice_id,
-                   c.id AS customer_id, c.name, c.address, c.email, c.phone,
-                   con.id AS consumption_id, con.kwh, con.start_date, con.end_date,
-                   i.rate, i.total
-            FROM invoices i
-            JOIN customers c ON i.customer_id = c.id
-            JOIN consumptions con ON i.consumption_id = con.id
-        """;
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
-
-            // Recorrer cada fila del resultado
-            while (rs.next()) {
-
-                // Construir Customer con los datos del JOIN
-                Customer customer = new Customer(
-                        rs.getString("name"),
-                        rs.getString("address"),
-                        rs.getString("email"),
-                        rs.getString("phone")
-                );
-                customer.setId(rs.getInt("customer_id"));
-
-                // Construir Consumption con los datos del JOIN
-                Consumption consumption = new Consumption(
-                        rs.getDouble("kwh"),
-                        rs.getDate("start_date").toLocalDate(),
-                        rs.getDate("end_date").toLocalDate()
-                );
-                consumption.setId(rs.getInt("consumption_id"));
-
-                // Construir Invoice con todos los datos
-                Invoice invoice = new Invoice(
-                        rs.getInt("invoice_id"),
-                        customer,
-                        consumption,
-                        rs.getDouble("rate"),
-                        rs.getDouble("total")
-                );
-
-                list.add(invoice);
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(SELECT_INVOICES);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                // Recorrer cada fila del resultado; cada cliente se construye una sola vez
+                InvoiceRowMapper mapper = new InvoiceRowMapper();
+                while (rs.next()) {
+                    list.add(mapper.map(rs));
+                }
+
+            } catch (Exception e) {
+                LIST_TIMER.error();
+                e.printStackTrace();
             }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+            event.rows = list.size();
+            return list;
+        } finally {
+            LIST_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * Recorre todas las facturas con un cursor de streaming y entrega cada una
+     * al consumidor sin acumularlas en memoria. El consumo de memoria es
+     * constante sin importar el tamaño de la tabla.
+     *
+     * El tamaño de fetch se toma de db.streamFetchSize. Con MySQL, el valor
+     * Integer.MIN_VALUE (por defecto) hace que el driver lea fila a fila del socket.
+     * Mientras dura el recorrido, la conexión queda ocupada por este cursor.
+     *
+     * @param action Acción a ejecutar con cada factura, en orden de ID.
+     * @return Número de facturas recorridas.
+     * @throws DataAccessException si falla la consulta.
+     */
+    public long forEachInvoice(Consumer<Invoice> action) {
+        long startNanos = FOR_EACH_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("invoice.forEachInvoice", "SELECT");
+        try {
+
+            String sql = SELECT_INVOICES + " ORDER BY i.id";
+            long count = 0;
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql,
+                         ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+                stmt.setFetchSize(DatabaseConnection.getConfig().getStreamFetchSize());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    // Sin caché de clientes ni fechas: la memoria no crece con la tabla
+                    InvoiceRowMapper mapper = InvoiceRowMapper.streaming();
+                    while (rs.next()) {
+                        action.accept(mapper.map(rs));
+                        count++;
+                    }
+                }
+
+            } catch (SQLException e) {
+                FOR_EACH_TIMER.error();
+                throw new DataAccessException("Error streaming invoices: " + e.getMessage(), e);
+            }
+
+            event.rows = count;
+            return count;
+        } finally {
+            FOR_EACH_TIMER.stop(startNanos);
+            event.commit();
         }
+    }
+
+    /**
+     * Recorre con un cursor de streaming las facturas que pasan el filtro,
+     * con los datos de su cliente y su consumo, entregando los valores de
+     * cada fila al visitante sin construir objetos ni guardarlos.
+     *
+     * Pensado para exportaciones: la memoria usada es constante sin importar
+     * cuántas facturas o clientes distintos se recorran.
+     *
+     * @param filter  Periodo y clientes a incluir.
+     * @param visitor Recibe los valores de cada factura, en orden de ID.
+     * @return Número de facturas recorridas.
+     * @throws DataAccessException si falla la consulta.
+     *
+     * Flujo:
+     *  1. Armar el WHERE con las condiciones del filtro.
+     *  2. Ejecutar el JOIN con el tamaño de fetch de streaming (db.streamFetchSize).
+     *  3. Entregar cada fila al visitante.
+     */
+    public long scanInvoiceRecords(InvoiceFilter filter, InvoiceRecordVisitor visitor) {
+        long startNanos = SCAN_RECORDS_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("invoice.scanInvoiceRecords", "SELECT");
+        try {
+
+            StringBuilder sql = new StringBuilder(SELECT_INVOICES).append(" WHERE 1 = 1");
+            List<Integer> customerIds = new ArrayList<>(filter.customerIds());
+
+            if (filter.from() != null)
+                sql.append(" AND con.start_date >= ?");
+
+            if (filter.to() != null)
+                sql.append(" AND con.end_date <= ?");
+
+            if (!customerIds.isEmpty())
+                sql.append(" AND i.customer_id IN (")
+                        .append(String.join(", ", Collections.nCopies(customerIds.size(), "?")))
+                        .append(")");
+
+            sql.append(" ORDER BY i.id");
+            long count = 0;
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql.toString(),
+                         ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+                int param = 1;
+                if (filter.from() != null)
+                    stmt.setDate(param++, Date.valueOf(filter.from()));
+                if (filter.to() != null)
+                    stmt.setDate(param++, Date.valueOf(filter.to()));
+                for (int id : customerIds)
+                    stmt.setInt(param++, id);
+
+                stmt.setFetchSize(DatabaseConnection.getConfig().getStreamFetchSize());
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        visitor.visit(
+                                rs.getInt(1),
+                                rs.getInt(2),
+                                rs.getString(3),
+                                rs.getString(4),
+                                rs.getString(5),
+                                rs.getString(6),
+                                rs.getInt(7),
+                                rs.getDouble(8),
+                                rs.getObject(9, LocalDate.class),
+                                rs.getObject(10, LocalDate.class),
+                                rs.getBigDecimal(11),
+                                rs.getBigDecimal(12)
+                        );
+                        count++;
+                    }
+                }
 
-        return list;
+            } catch (SQLException e) {
+                SCAN_RECORDS_TIMER.error();
+                throw new DataAccessException("Error exporting invoices: " + e.getMessage(), e);
+            }
+
+            event.rows = count;
+            return count;
+        } finally {
+            SCAN_RECORDS_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * Devuelve una página de facturas usando paginación por clave (keyset):
+     * las facturas con ID mayor que lastId, ordenadas por ID.
+     *
+     * A diferencia de LIMIT/OFFSET, el coste no crece con el número de página
+     * porque MySQL salta directamente a lastId usando la PRIMARY KEY.
+     *
+     * @param lastId ID de la última factura de la página anterior (0 para la primera).
+     * @param limit  Número máximo de facturas a devolver.
+     * @return Página de facturas; vacía cuando no hay más.
+     * @throws DataAccessException si falla la consulta (así una página
+     *         fallida no se confunde con el final de la tabla).
+     */
+    public List<Invoice> listInvoicesAfter(int lastId, int limit) {
+        long startNanos = PAGE_AFTER_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("invoice.listInvoicesAfter", "SELECT");
+        try {
+
+            List<Invoice> page = new ArrayList<>(Math.max(0, limit));
+            String sql = SELECT_INVOICES + " WHERE i.id > ? ORDER BY i.id LIMIT ?";
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, lastId);
+                stmt.setInt(2, limit);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    InvoiceRowMapper mapper = new InvoiceRowMapper();
+                    while (rs.next()) {
+                        page.add(mapper.map(rs));
+                    }
+                }
+
+            } catch (SQLException | RuntimeException e) {
+                PAGE_AFTER_TIMER.error();
+                throw new DataAccessException("Error loading invoice page: " + e.getMessage(), e);
+            }
+
+            event.rows = page.size();
+            return page;
+        } finally {
+            PAGE_AFTER_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * Devuelve una página de facturas por posición (offset), ordenadas por ID.
+     * Se usa cuando no se conoce el ID de la página anterior, por ejemplo al
+     * saltar con la barra de desplazamiento de una tabla.
+     *
+     * La subconsulta recorre solo el índice de la PRIMARY KEY para saltar las
+     * filas del offset, y el JOIN completo se hace únicamente para la página.
+     *
+     * @param offset Posición de la primera factura (0 = primera).
+     * @param limit  Número máximo de facturas a devolver.
+     * @throws DataAccessException si falla la consulta.
+     */
+    public List<Invoice> listInvoicesPage(int offset, int limit) {
+        long startNanos = PAGE_OFFSET_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("invoice.listInvoicesPage", "SELECT");
+        try {
+
+            List<Invoice> page = new ArrayList<>(Math.max(0, limit));
+            String sql = INVOICE_COLUMNS + """
+                    FROM (SELECT id FROM invoices ORDER BY id LIMIT ? OFFSET ?) p
+                    JOIN invoices i ON i.id = p.id
+                    JOIN customers c ON i.customer_id = c.id
+                    JOIN consumptions con ON i.consumption_id = con.id
+                    ORDER BY i.id
+                    """;
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, limit);
+                stmt.setInt(2, offset);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    InvoiceRowMapper mapper = new InvoiceRowMapper();
+                    while (rs.next()) {
+                        page.add(mapper.map(rs));
+                    }
+                }
+
+            } catch (SQLException | RuntimeException e) {
+                PAGE_OFFSET_TIMER.error();
+                throw new DataAccessException("Error loading invoice page: " + e.getMessage(), e);
+            }
+
+            event.rows = page.size();
+            return page;
+        } finally {
+            PAGE_OFFSET_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * Devuelve el número total de facturas.
+     *
+     * @return Cantidad de filas en 'invoices', o 0 si ocurre un error.
+     */
+    public int countInvoices() {
+        long startNanos = COUNT_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("invoice.countInvoices", "SELECT");
+        try {
+
+            String sql = "SELECT COUNT(*) FROM invoices";
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                if (rs.next()) {
+                    event.rows = 1;
+                    return rs.getInt(1);
+                }
+
+            } catch (Exception e) {
+                COUNT_TIMER.error();
+                e.printStackTrace();
+            }
+
+            return 0;
+        } finally {
+            COUNT_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * Suma los kWh facturados por cliente (GROUP BY en MySQL).
+     * Solo viaja una fila por cliente, no una por factura.
+     *
+     * @return Mapa nombre de cliente → kWh totales, ordenado por nombre.
+     */
+    public Map<String, Double> sumKwhByCustomer() {
+        long startNanos = SUM_KWH_BY_CUSTOMER_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("invoice.sumKwhByCustomer", "SELECT");
+        try {
+
+            Map<String, Double> result = new LinkedHashMap<>();
+            String sql = """
+                    SELECT c.name, SUM(con.kwh) AS kwh
+                    FROM invoices i
+                    JOIN customers c ON i.customer_id = c.id
+                    JOIN consumptions con ON i.consumption_id = con.id
+                    GROUP BY c.id, c.name
+                    ORDER BY c.name
+                    """;
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                // Clientes distintos con el mismo nombre se suman en una sola barra
+                while (rs.next()) {
+                    result.merge(rs.getString("name"), rs.getDouble("kwh"), Double::sum);
+                }
+
+            } catch (Exception e) {
+                SUM_KWH_BY_CUSTOMER_TIMER.error();
+                e.printStackTrace();
+            }
+
+            event.rows = result.size();
+            return result;
+        } finally {
+            SUM_KWH_BY_CUSTOMER_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * Suma los kWh facturados por año y mes de inicio del consumo (GROUP BY en MySQL).
+     *
+     * @return Mapa año-mes → kWh totales, en orden cronológico.
+     */
+    public Map<YearMonth, Double> sumKwhByYearMonth() {
+        long startNanos = SUM_KWH_BY_MONTH_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("invoice.sumKwhByYearMonth", "SELECT");
+        try {
+
+            Map<YearMonth, Double> result = new LinkedHashMap<>();
+            String sql = """
+                    SELECT YEAR(con.start_date) AS y, MONTH(con.start_date) AS m, SUM(con.kwh) AS kwh
+                    FROM invoices i
+                    JOIN consumptions con ON i.consumption_id = con.id
+                    GROUP BY YEAR(con.start_date), MONTH(con.start_date)
+                    ORDER BY y, m
+                    """;
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                while (rs.next()) {
+                    result.put(YearMonth.of(rs.getInt("y"), rs.getInt("m")), rs.getDouble("kwh"));
+                }
+
+            } catch (Exception e) {
+                SUM_KWH_BY_MONTH_TIMER.error();
+                e.printStackTrace();
+            }
+
+            event.rows = result.size();
+            return result;
+        } finally {
+            SUM_KWH_BY_MONTH_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * Cuenta las facturas de cada cliente (GROUP BY en MySQL).
+     *
+     * @return Mapa nombre de cliente → número de facturas, ordenado por nombre.
+     */
+    public Map<String, Long> countInvoicesByCustomer() {
+        long startNanos = COUNT_BY_CUSTOMER_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("invoice.countInvoicesByCustomer", "SELECT");
+        try {
+
+            Map<String, Long> result = new LinkedHashMap<>();
+            String sql = """
+                    SELECT c.name, COUNT(*) AS invoices
+                    FROM invoices i
+                    JOIN customers c ON i.customer_id = c.id
+                    GROUP BY c.id, c.name
+                    ORDER BY c.name
+                    """;
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                while (rs.next()) {
+                    result.merge(rs.getString("name"), rs.getLong("invoices"), Long::sum);
+                }
+
+            } catch (Exception e) {
+                COUNT_BY_CUSTOMER_TIMER.error();
+                e.printStackTrace();
+            }
+
+            event.rows = result.size();
+            return result;
+        } finally {
+            COUNT_BY_CUSTOMER_TIMER.stop(startNanos);
+            event.commit();
+        }
     }
 }
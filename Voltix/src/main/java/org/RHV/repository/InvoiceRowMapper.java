@@ -0,0 +1,144 @@
+package org.RHV.repository;
+
+import org.RHV.model.Consumption;
+import org.RHV.model.Customer;
+import org.RHV.model.Invoice;
+import org.RHV.util.Money;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Convierte las filas del JOIN factura + cliente + consumo en objetos Invoice.
+ *
+ * Cada instancia actúa como "identity map" de una consulta:
+ *  - Cada cliente se construye una sola vez (por customer_id) y se comparte
+ *    entre todas sus facturas; las columnas de texto del cliente ni siquiera
+ *    se leen cuando el cliente ya es conocido.
+ *  - Las fechas de los periodos se comparten igual: en una facturación
+ *    masiva miles de consumos tienen las mismas fechas de inicio y fin.
+ *
+ * Los consumos no se comparten porque cada factura tiene el suyo (relación 1:1).
+ *
+ * No es segura para varios hilos: se crea una instancia nueva por consulta,
+ * de modo que la memoria que usa crece con los clientes distintos de esa
+ * consulta y se libera al terminarla.
+ *
+ * Los recorridos en streaming usan {@link #streaming()}, que no guarda nada
+ * entre filas: en una tabla completa los mapas crecerían sin límite y la
+ * memoria dejaría de ser constante.
+ */
+public class InvoiceRowMapper {
+
+    // Clientes ya construidos en esta consulta (null en modo streaming)
+    private final Map<Integer, Customer> customers;
+
+    // Fechas ya construidas en esta consulta (null en modo streaming)
+    private final Map<LocalDate, LocalDate> dates;
+
+    // Posiciones de las columnas, resueltas en la primera fila
+    private int colInvoiceId;
+    private int colCustomerId;
+    private int colName;
+    private int colAddress;
+    private int colEmail;
+    private int colPhone;
+    private int colConsumptionId;
+    private int colKwh;
+    private int colStartDate;
+    private int colEndDate;
+    private int colRate;
+    private int colTotal;
+    private boolean columnsResolved;
+
+    /**
+     * Mapper para listas y páginas: comparte clientes y fechas entre filas.
+     */
+    public InvoiceRowMapper() {
+        this(true);
+    }
+
+    private InvoiceRowMapper(boolean shareInstances) {
+        this.customers = shareInstances ? new HashMap<>() : null;
+        this.dates = shareInstances ? new HashMap<>() : null;
+    }
+
+    /**
+     * Mapper para cursores de streaming: cada fila construye sus propios
+     * objetos y no se guarda ninguno, de modo que la memoria no crece con
+     * el número de filas recorridas.
+     */
+    public static InvoiceRowMapper streaming() {
+        return new InvoiceRowMapper(false);
+    }
+
+    /**
+     * Construye la factura de la fila actual del ResultSet.
+     */
+    public Invoice map(ResultSet rs) throws SQLException {
+
+        if (!columnsResolved) {
+            resolveColumns(rs);
+        }
+
+        // Cliente: se reutiliza si ya apareció en una fila anterior
+        int customerId = rs.getInt(colCustomerId);
+        Customer customer = customers == null ? null : customers.get(customerId);
+        if (customer == null) {
+            customer = new Customer(
+                    customerId,
+                    rs.getString(colName),
+                    rs.getString(colAddress),
+                    rs.getString(colEmail),
+                    rs.getString(colPhone)
+            );
+            if (customers != null) {
+                customers.put(customerId, customer);
+            }
+        }
+
+        // Consumo: uno por factura, con fechas compartidas
+        Consumption consumption = new Consumption(
+                rs.getInt(colConsumptionId),
+                rs.getDouble(colKwh),
+                date(rs, colStartDate),
+                date(rs, colEndDate)
+        );
+
+        return new Invoice(
+                rs.getInt(colInvoiceId),
+                customer,
+                consumption,
+                Money.of(rs.getBigDecimal(colRate), Money.RATE_SCALE),
+                Money.of(rs.getBigDecimal(colTotal), Money.TOTAL_SCALE)
+        );
+    }
+
+    private LocalDate date(ResultSet rs, int column) throws SQLException {
+        LocalDate value = rs.getObject(column, LocalDate.class);
+        if (value == null || dates == null) {
+            return value;
+        }
+        LocalDate shared = dates.putIfAbsent(value, value);
+        return shared != null ? shared : value;
+    }
+
+    private void resolveColumns(ResultSet rs) throws SQLException {
+        colInvoiceId = rs.findColumn("invoice_id");
+        colCustomerId = rs.findColumn("customer_id");
+        colName = rs.findColumn("name");
+        colAddress = rs.findColumn("address");
+        colEmail = rs.findColumn("email");
+        colPhone = rs.findColumn("phone");
+        colConsumptionId = rs.findColumn("consumption_id");
+        colKwh = rs.findColumn("kwh");
+        colStartDate = rs.findColumn("start_date");
+        colEndDate = rs.findColumn("end_date");
+        colRate = rs.findColumn("rate");
+        colTotal = rs.findColumn("total");
+        columnsResolved = true;
+    }
+}
@@ -0,0 +1,423 @@
+package org.RHV.repository;
+
+import org.RHV.database.DataAccessException;
+import org.RHV.database.DatabaseConnection;
+import org.RHV.database.UnitOfWork;
+import org.RHV.jfr.RepositoryQueryEvent;
+import org.RHV.metrics.Metrics;
+import org.RHV.metrics.Timer;
+import org.RHV.model.Invoice;
+import org.RHV.util.Money;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Repositorio de la tabla 'consumption_rollup', que guarda totales
+ * precalculados por cliente y por año-mes:
+ *  - kWh consumidos
+ *  - importe facturado (revenue)
+ *  - número de facturas
+ *
+ * La tabla se actualiza en la misma transacción en que se insertan las
+ * facturas (ver InvoiceService y BillingRunService), de modo que el dashboard
+ * y los informes leen una tabla que crece con clientes × meses y no con el
+ * número de facturas. El mes de cada factura es el de la fecha de inicio
+ * de su consumo.
+ *
+ * rebuild() recalcula la tabla completa desde 'invoices' y 'consumptions'
+ * (carga inicial o corrección de datos).
+ *
+ * Si la tabla no puede crearse o cargarse (p. ej. el usuario no tiene
+ * permisos de DDL), se avisa una sola vez en el log y se recuerda: las
+ * lecturas usan las consultas sobre 'invoices' y las facturas se guardan
+ * sin actualizar la tabla. rebuild() vuelve a intentarlo y la deja al día.
+ */
+public class RollupRepository {
+
+    private static final String CREATE_TABLE = """
+            CREATE TABLE IF NOT EXISTS consumption_rollup (
+                customer_id   INT            NOT NULL,
+                period_year   SMALLINT       NOT NULL,
+                period_month  TINYINT        NOT NULL,
+                kwh           DOUBLE         NOT NULL DEFAULT 0,
+                revenue       DECIMAL(15, 2) NOT NULL DEFAULT 0,
+                invoice_count INT            NOT NULL DEFAULT 0,
+                PRIMARY KEY (customer_id, period_year, period_month)
+            )
+            """;
+
+    // Suma los valores nuevos a la fila existente del cliente y mes
+    private static final String UPSERT = """
+            INSERT INTO consumption_rollup
+                (customer_id, period_year, period_month, kwh, revenue, invoice_count)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE
+                kwh = kwh + VALUES(kwh),
+                revenue = revenue + VALUES(revenue),
+                invoice_count = invoice_count + VALUES(invoice_count)
+            """;
+
+    // Carga la tabla (vacía) con los totales de todas las facturas existentes
+    private static final String BACKFILL = """
+            INSERT INTO consumption_rollup
+                (customer_id, period_year, period_month, kwh, revenue, invoice_count)
+            SELECT i.customer_id, YEAR(con.start_date), MONTH(con.start_date),
+                   SUM(con.kwh), SUM(i.total), COUNT(*)
+            FROM invoices i
+            JOIN consumptions con ON i.consumption_id = con.id
+            GROUP BY i.customer_id, YEAR(con.start_date), MONTH(con.start_date)
+            """;
+
+    private static final Logger logger = Logger.getLogger(RollupRepository.class.getName());
+
+    // Métricas (ver org.RHV.metrics.Metrics)
+    private static final Timer ADD_TIMER = Metrics.timer("repository.rollup.addInvoices");
+    private static final Timer REBUILD_TIMER = Metrics.timer("repository.rollup.rebuild");
+
+    /**
+     * Estado de la tabla en la base de datos actual.
+     */
+    private enum TableState { UNKNOWN, READY, UNAVAILABLE }
+
+    // La tabla se comprueba (y se crea o se carga) una sola vez por base de datos,
+    // la primera vez que se usa; cambiar de base de datos lo reinicia
+    private static volatile TableState tableState = TableState.UNKNOWN;
+
+    // Motivo por el que la tabla no está disponible (si tableState == UNAVAILABLE)
+    private static volatile SQLException unavailableCause;
+
+    static {
+        // Otra base de datos: la tabla puede no existir o estar vacía
+        DatabaseConnection.onReconfigure(RollupRepository::resetTableState);
+    }
+
+    /**
+     * Acumula una factura en el total de su cliente y mes.
+     * Usa la conexión (y la transacción) del llamador.
+     */
+    public void addInvoice(Connection conn, Invoice invoice) throws SQLException {
+        addInvoices(conn, List.of(invoice));
+    }
+
+    /**
+     * Acumula varias facturas. Primero se agrupan en memoria por cliente y mes,
+     * así cada combinación genera un único UPSERT. Las filas se actualizan
+     * siempre en el mismo orden (cliente, año, mes) para que dos transacciones
+     * concurrentes no se bloqueen mutuamente.
+     *
+     * El llamador debe llamar a isAvailable() antes de abrir su transacción:
+     * preparar la tabla usa otra conexión, que esperaría a las filas todavía
+     * sin confirmar de esa transacción. Si la tabla no está disponible, no se
+     * hace nada y la factura se guarda igual.
+     */
+    public void addInvoices(Connection conn, List<Invoice> invoices) throws SQLException {
+        long startNanos = ADD_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("rollup.addInvoices", "UPSERT");
+        try {
+
+            if (invoices.isEmpty() || !isAvailable())
+                return;
+
+            // Clave: cliente + año-mes; valor: acumulado de kWh, importe y facturas
+            SortedMap<RollupKey, Totals> totals = new TreeMap<>();
+            for (Invoice invoice : invoices) {
+                LocalDate start = invoice.getConsumption().getStartDate();
+                RollupKey key = new RollupKey(invoice.getCustomer().getId(), start.getYear(), start.getMonthValue());
+                Totals t = totals.computeIfAbsent(key, k -> new Totals());
+                t.kwh += invoice.getConsumption().getKWh();
+                t.revenueUnits = Money.addExact(t.revenueUnits,
+                        invoice.getTotalToPay().withScale(Money.TOTAL_SCALE).units());
+                t.invoices++;
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(UPSERT)) {
+                for (Map.Entry<RollupKey, Totals> entry : totals.entrySet()) {
+                    RollupKey key = entry.getKey();
+                    Totals t = entry.getValue();
+
+                    stmt.setInt(1, key.customerId());
+                    stmt.setInt(2, key.year());
+                    stmt.setInt(3, key.month());
+                    stmt.setDouble(4, t.kwh);
+                    stmt.setBigDecimal(5, BigDecimal.valueOf(t.revenueUnits, Money.TOTAL_SCALE));
+                    stmt.setInt(6, t.invoices);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                event.rows = totals.size();
+            }
+        } finally {
+            ADD_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * Recalcula toda la tabla a partir de las facturas existentes,
+     * en una única transacción. Si antes no se pudo preparar, se vuelve a intentar.
+     *
+     * @return Número de filas (cliente × mes) generadas.
+     * @throws DataAccessException si falla la base de datos.
+     */
+    public int rebuild() {
+        long startNanos = REBUILD_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("rollup.rebuild", "DELETE+INSERT");
+        try {
+
+            if (tableState == TableState.UNAVAILABLE) {
+                resetTableState();
+            }
+            ensureTable();
+
+            int rows = new UnitOfWork().execute(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.executeUpdate("DELETE FROM consumption_rollup");
+                    return stmt.executeUpdate(BACKFILL);
+                }
+            });
+            event.rows = rows;
+            return rows;
+        } finally {
+            REBUILD_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * kWh totales por cliente.
+     *
+     * @return Mapa nombre de cliente → kWh, ordenado por nombre.
+     */
+    public Map<String, Double> sumKwhByCustomer() {
+        Map<String, Double> result = new LinkedHashMap<>();
+        String sql = """
+                SELECT c.name, SUM(r.kwh) AS kwh
+                FROM consumption_rollup r
+                JOIN customers c ON r.customer_id = c.id
+                GROUP BY c.id, c.name
+                ORDER BY c.name
+                """;
+
+        query(sql, rs -> result.merge(rs.getString("name"), rs.getDouble("kwh"), Double::sum));
+        return result;
+    }
+
+    /**
+     * kWh totales por año-mes.
+     *
+     * @return Mapa año-mes → kWh, en orden cronológico.
+     */
+    public Map<YearMonth, Double> sumKwhByYearMonth() {
+        Map<YearMonth, Double> result = new LinkedHashMap<>();
+        String sql = """
+                SELECT period_year, period_month, SUM(kwh) AS kwh
+                FROM consumption_rollup
+                GROUP BY period_year, period_month
+                ORDER BY period_year, period_month
+                """;
+
+        query(sql, rs -> result.put(
+                YearMonth.of(rs.getInt("period_year"), rs.getInt("period_month")),
+                rs.getDouble("kwh")));
+        return result;
+    }
+
+    /**
+     * Número de facturas por cliente.
+     *
+     * @return Mapa nombre de cliente → número de facturas, ordenado por nombre.
+     */
+    public Map<String, Long> countInvoicesByCustomer() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        String sql = """
+                SELECT c.name, SUM(r.invoice_count) AS invoices
+                FROM consumption_rollup r
+                JOIN customers c ON r.customer_id = c.id
+                GROUP BY c.id, c.name
+                ORDER BY c.name
+                """;
+
+        query(sql, rs -> result.merge(rs.getString("name"), rs.getLong("invoices"), Long::sum));
+        return result;
+    }
+
+    /**
+     * Número total de facturas, sumando los contadores de la tabla de totales.
+     * El coste depende de clientes × meses, no del tamaño de 'invoices'.
+     */
+    public long totalInvoices() {
+        long[] total = new long[1];
+        query("SELECT COALESCE(SUM(invoice_count), 0) AS invoices FROM consumption_rollup",
+                rs -> total[0] = rs.getLong("invoices"));
+        return total[0];
+    }
+
+    /**
+     * Crea la tabla si todavía no existe y, si está vacía pero ya hay
+     * facturas (base de datos anterior a la tabla de totales), la carga
+     * con los totales de esas facturas. Se hace una sola vez por base de datos.
+     *
+     * Igual que isAvailable(), pero lanza una excepción si la tabla no puede usarse.
+     *
+     * @throws DataAccessException si no se pudo crear o cargar la tabla.
+     */
+    public void ensureTable() {
+        if (!isAvailable()) {
+            SQLException cause = unavailableCause;
+            throw new DataAccessException("consumption_rollup is not available"
+                    + (cause != null ? ": " + cause.getMessage() : ""), cause);
+        }
+    }
+
+    /**
+     * true si la tabla de totales puede usarse; false si no se pudo crear o
+     * cargar (el llamador usa las consultas sobre 'invoices').
+     *
+     * La primera llamada prepara la tabla; las siguientes solo leen el
+     * resultado guardado, sin volver a consultar MySQL ni repetir el aviso.
+     *
+     * Usa su propia conexión: en MySQL un CREATE TABLE confirma implícitamente
+     * la transacción en curso, así que no puede ejecutarse dentro de la
+     * transacción de una factura. Los servicios la llaman antes de abrir la
+     * suya (y los procesos masivos antes de repartir el trabajo).
+     *
+     * Flujo:
+     *  1. CREATE TABLE IF NOT EXISTS.
+     *  2. Si la tabla no tiene filas y 'invoices' sí, cargarla en una transacción.
+     *     Se hace bajo el mismo candado, de modo que ninguna factura nueva de
+     *     este proceso se suma antes de terminar la carga. Si otro proceso la
+     *     carga a la vez, el INSERT falla por clave duplicada y no se duplica nada.
+     *  3. Si algo falla, recordar que no está disponible y avisar una vez.
+     */
+    public boolean isAvailable() {
+        TableState state = tableState;
+        if (state == TableState.UNKNOWN) {
+            state = prepareTable();
+        }
+        return state == TableState.READY;
+    }
+
+    private static TableState prepareTable() {
+        synchronized (RollupRepository.class) {
+            if (tableState != TableState.UNKNOWN)
+                return tableState;
+
+            try (Connection conn = DatabaseConnection.getDataSource().getConnection()) {
+
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(CREATE_TABLE);
+                }
+
+                if (!hasRows(conn, "consumption_rollup") && hasRows(conn, "invoices")) {
+                    backfill(conn);
+                }
+
+                unavailableCause = null;
+                tableState = TableState.READY;
+
+            } catch (SQLException e) {
+                unavailableCause = e;
+                tableState = TableState.UNAVAILABLE;
+                logger.warning("consumption_rollup is not available; dashboard totals will be read from invoices "
+                        + "and new invoices will not update it until rebuild() succeeds: " + e.getMessage());
+            }
+            return tableState;
+        }
+    }
+
+    /**
+     * Olvida el estado de la tabla; el siguiente uso la vuelve a comprobar.
+     */
+    private static void resetTableState() {
+        synchronized (RollupRepository.class) {
+            tableState = TableState.UNKNOWN;
+            unavailableCause = null;
+        }
+    }
+
+    private static boolean hasRows(Connection conn, String table) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT 1 FROM " + table + " LIMIT 1")) {
+            return rs.next();
+        }
+    }
+
+    /**
+     * Carga la tabla vacía desde las facturas existentes en una sola transacción.
+     */
+    private static void backfill(Connection conn) throws SQLException {
+        long startNanos = REBUILD_TIMER.start();
+        RepositoryQueryEvent event = RepositoryQueryEvent.begin("rollup.backfill", "INSERT");
+        boolean autoCommit = conn.getAutoCommit();
+        try (Statement stmt = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            int rows = stmt.executeUpdate(BACKFILL);
+            conn.commit();
+
+            event.rows = rows;
+            logger.info("Backfilled consumption_rollup from existing invoices: " + rows + " customer-month rows");
+
+        } catch (SQLException e) {
+            REBUILD_TIMER.error();
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+            REBUILD_TIMER.stop(startNanos);
+            event.commit();
+        }
+    }
+
+    /**
+     * Ejecuta una consulta de lectura y pasa cada fila al manejador.
+     * Los errores se muestran en consola, igual que en los demás repositorios.
+     */
+    private void query(String sql, RowHandler handler) {
+        if (!isAvailable())
+            return;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                handler.handle(rs);
+            }
+
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Clave de la tabla: cliente + año + mes. Ordenable para fijar el orden de bloqueo.
+     */
+    private record RollupKey(int customerId, int year, int month) implements Comparable<RollupKey> {
+
+        @Override
+        public int compareTo(RollupKey o) {
+            int c = Integer.compare(customerId, o.customerId);
+            if (c == 0) c = Integer.compare(year, o.year);
+            if (c == 0) c = Integer.compare(month, o.month);
+            return c;
+        }
+    }
+
+    /**
+     * Acumulado de un cliente y mes; el importe en céntimos (Money.TOTAL_SCALE).
+     */
+    private static final class Totals {
+        double kwh;
+        long revenueUnits;
+        int invoices;
+    }
+}
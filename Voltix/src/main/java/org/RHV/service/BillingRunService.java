@@ -0,0 +1,370 @@
+package org.RHV.service;
+
+import org.RHV.database.DatabaseConnection;
+import org.RHV.database.UnitOfWork;
+import org.RHV.model.Consumption;
+import org.RHV.model.Customer;
+import org.RHV.model.Invoice;
+import org.RHV.repository.ConsumptionRepository;
+import org.RHV.repository.InvoiceRepository;
+import org.RHV.repository.RollupRepository;
+import org.RHV.util.Money;
+import org.RHV.util.TariffCalculator;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Servicio de facturación masiva ("billing run").
+ *
+ * Genera las facturas de un periodo para muchos clientes a la vez:
+ *  - Agrupa las lecturas en lotes de batchSize.
+ *  - Cada lote se tarifica con TariffCalculator y se guarda con inserciones
+ *    por lotes (consumos + facturas + totales mensuales) en una única transacción.
+ *  - Los lotes se procesan en hilos virtuales (Java 21); un semáforo limita
+ *    cuántos lotes usan la base de datos al mismo tiempo, de modo que nunca
+ *    se piden más conexiones de las que tiene el pool y quedan conexiones
+ *    libres para el resto de la aplicación.
+ *
+ * Un error en un cliente no detiene la facturación: se registra como fallo
+ * y el resto del lote se guarda igualmente.
+ */
+public class BillingRunService {
+
+    private static final Logger logger = Logger.getLogger(BillingRunService.class.getName());
+
+    /**
+     * Lectura de consumo de un cliente.
+     * Si startDate/endDate son null se usa el periodo de la facturación.
+     */
+    public record MeterReading(Customer customer, double kWh, LocalDate startDate, LocalDate endDate) {
+
+        /**
+         * Lectura para el periodo de la facturación.
+         */
+        public MeterReading(Customer customer, double kWh) {
+            this(customer, kWh, null, null);
+        }
+    }
+
+    /**
+     * Cliente que no pudo facturarse y el motivo.
+     */
+    public record Failure(Customer customer, String reason) {
+    }
+
+    /**
+     * Estado de avance de la facturación, enviado al listener tras cada lote.
+     */
+    public record Progress(int processed, int invoiced, int failed, double invoicesPerSecond) {
+    }
+
+    /**
+     * Resultado final de la facturación masiva.
+     */
+    public record Result(int invoiced, List<Failure> failures, Duration elapsed) {
+
+        /**
+         * Facturas generadas por segundo.
+         */
+        public double invoicesPerSecond() {
+            return ratePerSecond(invoiced, elapsed.toNanos());
+        }
+    }
+
+    // Repositorios y transacción usados para guardar cada lote
+    private final InvoiceRepository invoiceRepository;
+    private final ConsumptionRepository consumptionRepository;
+    private final RollupRepository rollupRepository;
+    private final UnitOfWork unitOfWork;
+
+    // Filas por lote y número máximo de lotes simultáneos contra MySQL
+    private final int batchSize;
+    private final int maxDbConcurrency;
+
+    /**
+     * Constructor por defecto: usa el tamaño de lote y la concurrencia de
+     * lotes (db.batch.maxConcurrency) configurados en database.properties,
+     * que deja conexiones libres para la UI mientras dura la facturación.
+     */
+    public BillingRunService() {
+        this(new InvoiceRepository(), new ConsumptionRepository(), new RollupRepository(), new UnitOfWork(),
+                DatabaseConnection.getConfig().getBatchSize(),
+                DatabaseConnection.getConfig().getBatchMaxConcurrency());
+    }
+
+    /**
+     * Constructor alternativo que permite inyección de dependencias.
+     */
+    public BillingRunService(InvoiceRepository invoiceRepository,
+                             ConsumptionRepository consumptionRepository,
+                             RollupRepository rollupRepository,
+                             UnitOfWork unitOfWork,
+                             int batchSize,
+                             int maxDbConcurrency) {
+        this.invoiceRepository = invoiceRepository;
+        this.consumptionRepository = consumptionRepository;
+        this.rollupRepository = rollupRepository;
+        this.unitOfWork = unitOfWork;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxDbConcurrency = Math.max(1, maxDbConcurrency);
+    }
+
+    /**
+     * Factura todas las lecturas para el periodo indicado.
+     *
+     * @param periodStart Fecha de inicio del periodo facturado; null si cada lectura trae sus fechas
+     * @param periodEnd   Fecha de fin del periodo facturado; null si cada lectura trae sus fechas
+     * @param readings    Lecturas a facturar (se recorren una sola vez)
+     * @param listener    Recibe el avance tras cada lote; puede ser null.
+     *                    Se invoca desde hilos de trabajo, no desde el hilo de JavaFX.
+     * @return Resumen con facturas generadas, fallos por cliente y rendimiento
+     *
+     * Flujo:
+     *  1. Validar el periodo.
+     *  2. Recorrer las lecturas y armar lotes de batchSize.
+     *  3. Esperar un permiso del semáforo (como mucho maxDbConcurrency lotes a la vez).
+     *  4. Procesar el lote en un hilo virtual.
+     *  5. Esperar a que terminen todos los lotes y devolver el resumen.
+     */
+    public Result run(LocalDate periodStart, LocalDate periodEnd,
+                      Iterable<MeterReading> readings, Consumer<Progress> listener) {
+
+        if ((periodStart == null) != (periodEnd == null))
+            throw new IllegalArgumentException("Billing period needs both start and end dates.");
+
+        if (periodStart != null && periodEnd.isBefore(periodStart))
+            throw new IllegalArgumentException("End date cannot be before start date.");
+
+        logger.info(periodStart == null
+                ? "Starting billing run with per-reading periods"
+                : "Starting billing run for period " + periodStart + " → " + periodEnd);
+
+        // Preparar la tabla de totales antes de repartir el trabajo entre hilos
+        // (si no se puede usar, las facturas se guardan igual sin actualizarla)
+        rollupRepository.isAvailable();
+
+        long startNanos = System.nanoTime();
+        RunState state = new RunState(startNanos, listener);
+        Semaphore dbPermits = new Semaphore(maxDbConcurrency);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            List<MeterReading> chunk = new ArrayList<>(batchSize);
+
+            for (MeterReading reading : readings) {
+                chunk.add(reading);
+
+                if (chunk.size() == batchSize) {
+                    submitChunk(executor, dbPermits, chunk, periodStart, periodEnd, state);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                submitChunk(executor, dbPermits, chunk, periodStart, periodEnd, state);
+            }
+
+            // Al cerrar el executor se espera a que terminen todos los lotes
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warning("Billing run interrupted; remaining readings were not billed");
+        }
+
+        Result result = new Result(state.invoiced.get(),
+                List.copyOf(state.failures),
+                Duration.ofNanos(System.nanoTime() - startNanos));
+
+        logger.info(String.format("Billing run finished: %d invoices, %d failures, %.1f invoices/s",
+                result.invoiced(), result.failures().size(), result.invoicesPerSecond()));
+
+        return result;
+    }
+
+    /**
+     * Espera un permiso de base de datos y envía el lote a un hilo virtual.
+     * Esperar aquí (en el hilo que recorre las lecturas) limita también la
+     * memoria: nunca hay más de maxDbConcurrency lotes pendientes.
+     */
+    private void submitChunk(ExecutorService executor, Semaphore dbPermits, List<MeterReading> chunk,
+                             LocalDate periodStart, LocalDate periodEnd, RunState state)
+            throws InterruptedException {
+
+        dbPermits.acquire();
+
+        executor.submit(() -> {
+            try {
+                processChunk(chunk, periodStart, periodEnd, state);
+            } catch (RuntimeException e) {
+                // Nunca debería llegar aquí, pero un lote no puede detener la facturación
+                for (MeterReading reading : chunk) {
+                    state.fail(reading == null ? null : reading.customer(), e.getMessage());
+                }
+            } finally {
+                dbPermits.release();
+                state.report(chunk.size());
+            }
+        });
+    }
+
+    /**
+     * Tarifica y guarda un lote completo.
+     * Si el guardado por lotes falla, se reintenta factura a factura para
+     * aislar a los clientes con errores y guardar el resto.
+     */
+    private void processChunk(List<MeterReading> chunk, LocalDate periodStart, LocalDate periodEnd,
+                              RunState state) {
+
+        List<MeterReading> valid = new ArrayList<>(chunk.size());
+        double[] kwh = new double[chunk.size()];
+
+        // --- VALIDAR ---
+        for (MeterReading reading : chunk) {
+            String error = validate(reading, periodStart, periodEnd);
+            if (error != null) {
+                state.fail(reading == null ? null : reading.customer(), error);
+                continue;
+            }
+            kwh[valid.size()] = reading.kWh();
+            valid.add(reading);
+        }
+
+        if (valid.isEmpty())
+            return;
+
+        // --- TARIFICAR EL LOTE EN UNA SOLA PASADA ---
+        int count = valid.size();
+        long[] rateUnits = new long[count];
+        long[] totalUnits = new long[count];
+        TariffCalculator.rateAll(kwh, rateUnits, totalUnits, 0, count);
+
+        List<Consumption> consumptions = new ArrayList<>(count);
+        List<Invoice> invoices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MeterReading reading = valid.get(i);
+            Consumption consumption = new Consumption(kwh[i],
+                    reading.startDate() != null ? reading.startDate() : periodStart,
+                    reading.endDate() != null ? reading.endDate() : periodEnd);
+            consumptions.add(consumption);
+            invoices.add(new Invoice(reading.customer(), consumption,
+                    Money.ofUnits(rateUnits[i], Money.RATE_SCALE),
+                    Money.ofUnits(totalUnits[i], Money.TOTAL_SCALE)));
+        }
+
+        // --- GUARDAR EL LOTE EN UNA TRANSACCIÓN ---
+        try {
+            unitOfWork.execute(conn -> {
+                consumptionRepository.saveAll(conn, consumptions, batchSize);
+                invoiceRepository.saveInvoices(conn, invoices, batchSize);
+                rollupRepository.addInvoices(conn, invoices);
+                return null;
+            });
+            state.invoiced.addAndGet(invoices.size());
+
+        } catch (RuntimeException batchError) {
+            logger.warning("Batch of " + invoices.size() + " invoices failed, retrying one by one: "
+                    + batchError.getMessage());
+            saveOneByOne(invoices, state);
+        }
+    }
+
+    /**
+     * Guarda cada factura en su propia transacción; las que fallan se registran como fallo.
+     */
+    private void saveOneByOne(List<Invoice> invoices, RunState state) {
+        for (Invoice invoice : invoices) {
+            try {
+                unitOfWork.execute(conn -> {
+                    invoice.getConsumption().setId(consumptionRepository.save(conn, invoice.getConsumption()));
+                    invoiceRepository.saveInvoice(conn, invoice);
+                    rollupRepository.addInvoice(conn, invoice);
+                    return null;
+                });
+                state.invoiced.incrementAndGet();
+
+            } catch (RuntimeException e) {
+                state.fail(invoice.getCustomer(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Aplica las mismas reglas que InvoiceService.generateInvoice.
+     *
+     * @return Mensaje de error, o null si la lectura es válida.
+     */
+    private static String validate(MeterReading reading, LocalDate periodStart, LocalDate periodEnd) {
+        if (reading == null || reading.customer() == null)
+            return "Customer cannot be null.";
+
+        if (reading.customer().getId() <= 0)
+            return "Customer has no database ID.";
+
+        if (!(reading.kWh() > 0))
+            return "kWh must be greater than zero.";
+
+        if (reading.kWh() > TariffCalculator.MAX_KWH)
+            return "kWh cannot exceed " + (long) TariffCalculator.MAX_KWH + ".";
+
+        LocalDate start = reading.startDate() != null ? reading.startDate() : periodStart;
+        LocalDate end = reading.endDate() != null ? reading.endDate() : periodEnd;
+
+        if (start == null || end == null)
+            return "Billing period dates are required.";
+
+        if (end.isBefore(start))
+            return "End date cannot be before start date.";
+
+        return null;
+    }
+
+    private static double ratePerSecond(int count, long nanos) {
+        return nanos <= 0 ? 0 : count / (nanos / 1_000_000_000.0);
+    }
+
+    /**
+     * Contadores compartidos por todos los hilos de una misma facturación.
+     */
+    private static final class RunState {
+
+        private final long startNanos;
+        private final Consumer<Progress> listener;
+
+        private final AtomicInteger processed = new AtomicInteger();
+        private final AtomicInteger invoiced = new AtomicInteger();
+        private final List<Failure> failures = Collections.synchronizedList(new ArrayList<>());
+
+        private RunState(long startNanos, Consumer<Progress> listener) {
+            this.startNanos = startNanos;
+            this.listener = listener;
+        }
+
+        private void fail(Customer customer, String reason) {
+            failures.add(new Failure(customer, reason));
+        }
+
+        private void report(int chunkSize) {
+            int done = processed.addAndGet(chunkSize);
+            if (listener == null)
+                return;
+
+            int ok = invoiced.get();
+            try {
+                listener.accept(new Progress(done, ok, failures.size(),
+                        ratePerSecond(ok, System.nanoTime() - startNanos)));
+            } catch (RuntimeException e) {
+                logger.warning("Billing progress listener failed: " + e.getMessage());
+            }
+        }
+    }
+}
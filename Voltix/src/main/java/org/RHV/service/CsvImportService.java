@@ -0,0 +1,495 @@
+package org.RHV.service;
+
+import org.RHV.database.DatabaseConnection;
+import org.RHV.database.UnitOfWork;
+import org.RHV.model.Customer;
+import org.RHV.repository.CachingCustomerRepository;
+import org.RHV.repository.CustomerRepository;
+import org.RHV.service.BillingRunService.MeterReading;
+import org.RHV.util.CsvReader;
+import org.RHV.util.TariffCalculator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Importación masiva de clientes y consumos desde archivos CSV.
+ *
+ * El archivo se lee en streaming con CsvReader (nunca se carga completo en
+ * memoria) y las filas se guardan en lotes de batchSize con inserciones JDBC
+ * por lotes. Igual que en BillingRunService, los lotes se guardan en hilos
+ * virtuales y un semáforo limita cuántos usan la base de datos a la vez.
+ *
+ * Las filas inválidas no detienen la importación: se rechazan con su número
+ * de línea y el motivo, y el resto se importa igualmente.
+ *
+ * Formatos (la primera fila es la cabecera; el orden de las columnas y las
+ * mayúsculas no importan, las columnas desconocidas se ignoran):
+ *  - Clientes: name, address, email, phone (un "id" se ignora: lo asigna MySQL).
+ *  - Consumos: customerId, kWh y opcionalmente startDate, endDate (yyyy-MM-dd).
+ *    Cada consumo se factura como en BillingRunService. El formato coincide
+ *    con el antiguo invoices.csv, que puede importarse tal cual.
+ */
+public class CsvImportService {
+
+    private static final Logger logger = Logger.getLogger(CsvImportService.class.getName());
+
+    // Rechazos guardados en el resultado; el resto solo se cuenta
+    public static final int MAX_REJECTIONS_KEPT = 1000;
+
+    // Cada cuántas filas se escribe el avance en el log
+    private static final long PROGRESS_EVERY_ROWS = 100_000;
+
+    /**
+     * Fila rechazada: línea del archivo (0 si no se conoce) y motivo.
+     */
+    public record Rejection(long line, String reason) {
+    }
+
+    /**
+     * Resultado de una importación.
+     */
+    public record Result(long rows, long imported, long rejected, List<Rejection> rejections, Duration elapsed) {
+
+        /**
+         * Filas del archivo procesadas por segundo.
+         */
+        public double rowsPerSecond() {
+            long nanos = elapsed.toNanos();
+            return nanos <= 0 ? 0 : rows / (nanos / 1_000_000_000.0);
+        }
+    }
+
+    private final CustomerRepository customerRepository;
+    private final BillingRunService billingRunService;
+    private final UnitOfWork unitOfWork;
+
+    // Filas por lote y número máximo de lotes simultáneos contra MySQL
+    private final int batchSize;
+    private final int maxDbConcurrency;
+
+    /**
+     * Constructor por defecto: usa la caché de clientes compartida y el
+     * tamaño de lote y la concurrencia de lotes (db.batch.maxConcurrency)
+     * configurados en database.properties.
+     */
+    public CsvImportService() {
+        this(CachingCustomerRepository.shared(), new BillingRunService(), new UnitOfWork(),
+                DatabaseConnection.getConfig().getBatchSize(),
+                DatabaseConnection.getConfig().getBatchMaxConcurrency());
+    }
+
+    /**
+     * Constructor alternativo que permite inyección de dependencias.
+     */
+    public CsvImportService(CustomerRepository customerRepository,
+                            BillingRunService billingRunService,
+                            UnitOfWork unitOfWork,
+                            int batchSize,
+                            int maxDbConcurrency) {
+        this.customerRepository = customerRepository;
+        this.billingRunService = billingRunService;
+        this.unitOfWork = unitOfWork;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxDbConcurrency = Math.max(1, maxDbConcurrency);
+    }
+
+    // ============================
+    //   CLIENTES
+    // ============================
+
+    /**
+     * Importa clientes desde un CSV.
+     *
+     * Flujo:
+     *  1. Leer la cabecera y ubicar las columnas.
+     *  2. Validar cada fila con las reglas de CustomerService.registerCustomer.
+     *  3. Agrupar las filas válidas en lotes de batchSize.
+     *  4. Guardar cada lote en un hilo virtual (como mucho maxDbConcurrency a la vez).
+     *  5. Si un lote falla, reintentar fila a fila para rechazar solo las que fallan.
+     *
+     * @throws IOException              si el archivo no puede leerse.
+     * @throws IllegalArgumentException si falta la cabecera o una columna obligatoria.
+     */
+    public Result importCustomers(Path file) throws IOException {
+        logger.info("Importing customers from " + file);
+
+        long startNanos = System.nanoTime();
+        ImportState state = new ImportState();
+        Semaphore dbPermits = new Semaphore(maxDbConcurrency);
+
+        try (CsvReader reader = CsvReader.open(file);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            Header header = readHeader(reader, file);
+            int name = header.require("name");
+            int address = header.require("address");
+            int email = header.require("email");
+            int phone = header.require("phone");
+
+            List<Customer> batch = new ArrayList<>(batchSize);
+            long[] lines = new long[batchSize];
+
+            String[] row;
+            while ((row = reader.next()) != null) {
+                state.row();
+
+                Customer customer = new Customer(
+                        field(row, name), field(row, address), field(row, email), field(row, phone));
+
+                String error = CustomerService.validate(customer);
+                if (error != null) {
+                    state.reject(reader.lineNumber(), error);
+                    continue;
+                }
+
+                lines[batch.size()] = reader.lineNumber();
+                batch.add(customer);
+
+                if (batch.size() == batchSize) {
+                    submitCustomers(executor, dbPermits, batch, lines, state);
+                    batch = new ArrayList<>(batchSize);
+                    lines = new long[batchSize];
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                submitCustomers(executor, dbPermits, batch, lines, state);
+            }
+
+            // Al cerrar el executor se espera a que terminen todos los lotes
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warning("Customer import interrupted; remaining rows were not imported");
+        }
+
+        return finish("Customer", state, startNanos);
+    }
+
+    /**
+     * Espera un permiso de base de datos y guarda el lote en un hilo virtual.
+     * Esperar aquí limita también la memoria: la lectura del archivo nunca
+     * adelanta más de maxDbConcurrency lotes a la base de datos.
+     */
+    private void submitCustomers(ExecutorService executor, Semaphore dbPermits,
+                                 List<Customer> batch, long[] lines, ImportState state)
+            throws InterruptedException {
+
+        dbPermits.acquire();
+
+        executor.submit(() -> {
+            try {
+                saveCustomers(batch, lines, state);
+            } finally {
+                dbPermits.release();
+            }
+        });
+    }
+
+    private void saveCustomers(List<Customer> batch, long[] lines, ImportState state) {
+        try {
+            unitOfWork.execute(conn -> customerRepository.saveAll(conn, batch, batchSize));
+            state.imported.addAndGet(batch.size());
+            return;
+
+        } catch (RuntimeException batchError) {
+            logger.warning("Batch of " + batch.size() + " customers failed, retrying one by one: "
+                    + batchError.getMessage());
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            List<Customer> single = List.of(batch.get(i));
+            try {
+                unitOfWork.execute(conn -> customerRepository.saveAll(conn, single, 1));
+                state.imported.incrementAndGet();
+
+            } catch (RuntimeException e) {
+                state.reject(lines[i], rootMessage(e));
+            }
+        }
+    }
+
+    // ============================
+    //   CONSUMOS
+    // ============================
+
+    /**
+     * Importa consumos desde un CSV y genera su factura.
+     *
+     * @param file        Archivo a importar.
+     * @param periodStart Periodo para las filas sin startDate/endDate; puede ser null
+     *                    si el archivo trae ambas columnas.
+     * @param periodEnd   Fin de ese periodo; null si periodStart es null.
+     *
+     * Flujo:
+     *  1. Leer la cabecera y ubicar las columnas.
+     *  2. Leer las filas de batchSize en batchSize, convirtiendo kWh y fechas.
+     *  3. Buscar los clientes de cada grupo con una sola consulta (findByIds).
+     *  4. Entregar las lecturas a BillingRunService, que tarifica y guarda por lotes.
+     *  5. Sumar los rechazos de lectura y los fallos de facturación.
+     *
+     * @throws IOException              si el archivo no puede leerse.
+     * @throws IllegalArgumentException si falta una columna obligatoria o el periodo.
+     */
+    public Result importConsumptions(Path file, LocalDate periodStart, LocalDate periodEnd) throws IOException {
+        logger.info("Importing consumptions from " + file);
+
+        long startNanos = System.nanoTime();
+        ImportState state = new ImportState();
+
+        try (CsvReader reader = CsvReader.open(file)) {
+
+            Header header = readHeader(reader, file);
+            int customerId = header.require("customerId");
+            int kwh = header.require("kWh");
+            int startDate = header.find("startDate");
+            int endDate = header.find("endDate");
+
+            if ((startDate < 0 || endDate < 0) && periodStart == null)
+                throw new IllegalArgumentException(
+                        "File has no startDate/endDate columns; a billing period is required.");
+
+            ReadingSource source = new ReadingSource(reader, state, customerId, kwh, startDate, endDate);
+
+            BillingRunService.Result billing;
+            try {
+                billing = billingRunService.run(periodStart, periodEnd, () -> source, null);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            state.imported.addAndGet(billing.invoiced());
+            for (BillingRunService.Failure failure : billing.failures()) {
+                Customer customer = failure.customer();
+                state.reject(0, (customer == null ? "" : "Customer " + customer.getId() + ": ") + failure.reason());
+            }
+        }
+
+        return finish("Consumption", state, startNanos);
+    }
+
+    /**
+     * Convierte las filas del archivo en lecturas a medida que BillingRunService las pide.
+     * Los clientes se buscan por grupos de batchSize filas; las filas con
+     * datos inválidos o clientes inexistentes se rechazan aquí con su línea.
+     */
+    private final class ReadingSource implements Iterator<MeterReading> {
+
+        private final CsvReader reader;
+        private final ImportState state;
+        private final int customerIdColumn;
+        private final int kwhColumn;
+        private final int startDateColumn;
+        private final int endDateColumn;
+
+        private final ArrayDeque<MeterReading> pending = new ArrayDeque<>();
+        private boolean exhausted;
+
+        private ReadingSource(CsvReader reader, ImportState state,
+                              int customerIdColumn, int kwhColumn, int startDateColumn, int endDateColumn) {
+            this.reader = reader;
+            this.state = state;
+            this.customerIdColumn = customerIdColumn;
+            this.kwhColumn = kwhColumn;
+            this.startDateColumn = startDateColumn;
+            this.endDateColumn = endDateColumn;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pending.isEmpty() && !exhausted) {
+                try {
+                    readGroup();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public MeterReading next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            return pending.poll();
+        }
+
+        private void readGroup() throws IOException {
+            List<ParsedRow> group = new ArrayList<>(batchSize);
+            List<Integer> ids = new ArrayList<>(batchSize);
+
+            String[] row;
+            while (group.size() < batchSize && (row = reader.next()) != null) {
+                state.row();
+                long line = reader.lineNumber();
+
+                try {
+                    int id = Integer.parseInt(field(row, customerIdColumn));
+                    double kWh = Double.parseDouble(field(row, kwhColumn));
+                    LocalDate start = startDateColumn < 0 ? null : parseDate(field(row, startDateColumn));
+                    LocalDate end = endDateColumn < 0 ? null : parseDate(field(row, endDateColumn));
+
+                    // Se comprueba aquí (y no solo al facturar) para informar la línea
+                    if (!(kWh > 0)) {
+                        state.reject(line, "kWh must be greater than zero.");
+                        continue;
+                    }
+                    if (kWh > TariffCalculator.MAX_KWH) {
+                        state.reject(line, "kWh cannot exceed " + (long) TariffCalculator.MAX_KWH + ".");
+                        continue;
+                    }
+                    if (start != null && end != null && end.isBefore(start)) {
+                        state.reject(line, "End date cannot be before start date.");
+                        continue;
+                    }
+
+                    group.add(new ParsedRow(line, id, kWh, start, end));
+                    ids.add(id);
+
+                } catch (NumberFormatException e) {
+                    state.reject(line, "Invalid number: " + e.getMessage());
+                } catch (DateTimeParseException e) {
+                    state.reject(line, "Invalid date: " + e.getParsedString());
+                }
+            }
+
+            if (group.size() < batchSize) {
+                exhausted = true;
+            }
+
+            if (group.isEmpty())
+                return;
+
+            Map<Integer, Customer> customers = customerRepository.findByIds(ids);
+
+            for (ParsedRow parsed : group) {
+                Customer customer = customers.get(parsed.customerId());
+                if (customer == null) {
+                    state.reject(parsed.line(), "Customer " + parsed.customerId() + " does not exist.");
+                    continue;
+                }
+                pending.add(new MeterReading(customer, parsed.kWh(), parsed.startDate(), parsed.endDate()));
+            }
+        }
+    }
+
+    private record ParsedRow(long line, int customerId, double kWh, LocalDate startDate, LocalDate endDate) {
+    }
+
+    // ============================
+    //   AUXILIARES
+    // ============================
+
+    private static Header readHeader(CsvReader reader, Path file) throws IOException {
+        String[] row = reader.next();
+        if (row == null)
+            throw new IllegalArgumentException("File is empty: " + file);
+        return new Header(row);
+    }
+
+    /**
+     * Valor recortado de una columna; "" si la fila es más corta.
+     */
+    private static String field(String[] row, int column) {
+        return column < row.length ? row[column].strip() : "";
+    }
+
+    /**
+     * Fecha yyyy-MM-dd; null si el campo está vacío.
+     */
+    private static LocalDate parseDate(String value) {
+        return value.isEmpty() ? null : LocalDate.parse(value);
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage() != null ? root.getMessage() : root.toString();
+    }
+
+    private Result finish(String kind, ImportState state, long startNanos) {
+        List<Rejection> rejections = new ArrayList<>(state.rejections);
+        rejections.sort(Comparator.comparingLong(Rejection::line));
+
+        Result result = new Result(state.rows.get(), state.imported.get(), state.rejected.get(),
+                List.copyOf(rejections), Duration.ofNanos(System.nanoTime() - startNanos));
+
+        logger.info(String.format("%s import finished: %d rows, %d imported, %d rejected, %.1f rows/s",
+                kind, result.rows(), result.imported(), result.rejected(), result.rowsPerSecond()));
+
+        return result;
+    }
+
+    /**
+     * Columnas de la cabecera, buscadas sin distinguir mayúsculas.
+     */
+    private static final class Header {
+
+        private final String[] names;
+
+        private Header(String[] names) {
+            this.names = names;
+        }
+
+        private int find(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].strip().toLowerCase(Locale.ROOT).equals(name.toLowerCase(Locale.ROOT))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int require(String name) {
+            int index = find(name);
+            if (index < 0)
+                throw new IllegalArgumentException("Missing column '" + name + "' in CSV header.");
+            return index;
+        }
+    }
+
+    /**
+     * Contadores compartidos por el hilo que lee y los hilos que guardan.
+     */
+    private static final class ImportState {
+
+        private final AtomicLong rows = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final List<Rejection> rejections = Collections.synchronizedList(new ArrayList<>());
+
+        private void row() {
+            long n = rows.incrementAndGet();
+            if (n % PROGRESS_EVERY_ROWS == 0) {
+                logger.info(() -> String.format("Read %d rows so far (%d rejected)", n, rejected.get()));
+            }
+        }
+
+        private void reject(long line, String reason) {
+            if (rejected.incrementAndGet() <= MAX_REJECTIONS_KEPT) {
+                rejections.add(new Rejection(line, reason));
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.RHV.service;
 
 import org.RHV.model.Customer;
+import org.RHV.repository.CachingCustomerRepository;
 import org.RHV.repository.CustomerRepository;
 
 import java.util.List;
@@ -27,9 +28,10 @@ public class CustomerService {
     /**
      * Constructor vacío requerido por JavaFX y controladores que
      * crean el servicio sin inyección manual.
+     * Usa la caché de clientes compartida por toda la aplicación.
      */
     public CustomerService() {
-        this.customerRepository = new CustomerRepository();
+        this.customerRepository = CachingCustomerRepository.shared();
     }
 
     /**
@@ -53,29 +55,46 @@ public class CustomerService {
      */
     public void registerCustomer(Customer customer) {
 
-        logger.info("Registering new customer: " + customer.getName());
+        logger.info(() -> "Registering new customer: " + customer.getName());
 
         // Validaciones de campos obligatorios
-        if (customer.getName().isBlank()) {
-            throw new IllegalArgumentException("Name cannot be empty.");
+        String error = validate(customer);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
         }
 
-        if (customer.getAddress().isBlank()) {
-            throw new IllegalArgumentException("Address cannot be empty.");
+        // Guardar cliente en MySQL (la caché se actualiza con el ID generado)
+        if (!customerRepository.save(customer)) {
+            throw new IllegalStateException("Customer could not be saved.");
         }
 
-        if (customer.getEmail().isBlank()) {
-            throw new IllegalArgumentException("Email cannot be empty.");
-        }
+        logger.info("Customer registered successfully.");
+    }
 
-        if (customer.getPhone().isBlank()) {
-            throw new IllegalArgumentException("Phone cannot be empty.");
-        }
+    /**
+     * Reglas de validación de un cliente nuevo, compartidas por el registro
+     * desde la UI y la importación masiva (CsvImportService).
+     *
+     * @return Mensaje de error, o null si el cliente es válido.
+     */
+    public static String validate(Customer customer) {
+        if (isBlank(customer.getName()))
+            return "Name cannot be empty.";
 
-        // Guardar cliente en MySQL
-        customerRepository.save(customer);
+        if (isBlank(customer.getAddress()))
+            return "Address cannot be empty.";
 
-        logger.info("Customer registered successfully.");
+        if (isBlank(customer.getEmail()))
+            return "Email cannot be empty.";
+
+        if (isBlank(customer.getPhone()))
+            return "Phone cannot be empty.";
+
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
     }
 
     /**
@@ -87,4 +106,11 @@ public class CustomerService {
         logger.info("Listing all customers");
         return customerRepository.getAll();
     }
+
+    /**
+     * Devuelve el número de clientes sin cargar la tabla completa.
+     */
+    public int countCustomers() {
+        return customerRepository.count();
+    }
 }
@@ -0,0 +1,105 @@
+package org.RHV.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Servicio que calcula los indicadores (KPI) de las tarjetas del dashboard.
+ *
+ * Los valores se obtienen con consultas de conteo (no se cargan tablas
+ * completas) y se guardan en una "foto" (KpiSnapshot) durante un tiempo
+ * corto (TTL). Mientras la foto está vigente, volver al dashboard no
+ * consulta la base de datos.
+ */
+public class DashboardService {
+
+    private static final Logger logger = Logger.getLogger(DashboardService.class.getName());
+
+    // Tiempo de vida por defecto de la foto de KPIs
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+    /**
+     * Valores mostrados en las tarjetas del dashboard.
+     *
+     * @param totalCustomers  Clientes registrados
+     * @param totalInvoices   Facturas emitidas
+     * @param pendingPayments Pagos pendientes. El esquema todavía no registra
+     *                        pagos, por lo que de momento siempre es 0.
+     * @param takenAt         Momento en que se calcularon los valores
+     */
+    public record KpiSnapshot(long totalCustomers, long totalInvoices, long pendingPayments, Instant takenAt) {
+    }
+
+    private final CustomerService customerService;
+    private final InvoiceService invoiceService;
+    private final Duration ttl;
+
+    // Última foto calculada (null hasta la primera consulta)
+    private volatile KpiSnapshot snapshot;
+
+    // Aumenta con cada invalidate(); una foto calculada en una generación
+    // anterior ya no se guarda
+    private final AtomicLong generation = new AtomicLong();
+
+    public DashboardService(CustomerService customerService, InvoiceService invoiceService) {
+        this(customerService, invoiceService, DEFAULT_TTL);
+    }
+
+    public DashboardService(CustomerService customerService, InvoiceService invoiceService, Duration ttl) {
+        this.customerService = customerService;
+        this.invoiceService = invoiceService;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Devuelve la foto de KPIs, recalculándola solo si caducó.
+     */
+    public KpiSnapshot getKpis() {
+        KpiSnapshot current = snapshot;
+        if (current != null && !isExpired(current)) {
+            return current;
+        }
+
+        synchronized (this) {
+            // Otro hilo pudo haberla recalculado mientras esperábamos
+            current = snapshot;
+            if (current == null || isExpired(current)) {
+                long loadedGeneration = generation.get();
+                current = loadSnapshot();
+
+                // Si se invalidó durante la consulta, los datos pueden ser
+                // anteriores al cambio: se devuelven, pero no se guardan
+                if (generation.get() == loadedGeneration) {
+                    snapshot = current;
+                }
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Descarta la foto actual; la próxima llamada a getKpis() consultará MySQL.
+     * Se usa después de registrar clientes o generar facturas.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private boolean isExpired(KpiSnapshot s) {
+        return s.takenAt().plus(ttl).isBefore(Instant.now());
+    }
+
+    /**
+     * Consulta los conteos en MySQL.
+     */
+    private KpiSnapshot loadSnapshot() {
+        long customers = customerService.countCustomers();
+        long invoices = invoiceService.getTotalInvoices();
+
+        logger.fine(() -> "KPI snapshot refreshed: " + customers + " customers, " + invoices + " invoices");
+        return new KpiSnapshot(customers, invoices, 0, Instant.now());
+    }
+}
@@ -0,0 +1,207 @@
+package org.RHV.service;
+
+import org.RHV.repository.InvoiceFilter;
+import org.RHV.repository.InvoiceRepository;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+import java.util.logging.Logger;
+
+/**
+ * Exportación masiva de facturas a CSV (opcionalmente comprimido con gzip).
+ *
+ * Las filas se leen de la base de datos con un cursor de streaming
+ * (InvoiceRepository.scanInvoiceRecords) y se escriben directamente en un
+ * Writer con búfer, sin pasar por objetos Invoice ni acumularlas: la memoria
+ * usada es la misma para mil facturas que para cien millones.
+ *
+ * El archivo se escribe primero como "&lt;archivo&gt;.part" y se renombra al
+ * terminar, de modo que nunca queda a medias con el nombre definitivo.
+ *
+ * Columnas (compatibles con CsvImportService.importConsumptions):
+ * invoiceId, customerId, name, address, email, phone, consumptionId,
+ * kWh, startDate, endDate, rate, total
+ */
+public class InvoiceExportService {
+
+    private static final Logger logger = Logger.getLogger(InvoiceExportService.class.getName());
+
+    private static final String HEADER =
+            "invoiceId,customerId,name,address,email,phone,consumptionId,kWh,startDate,endDate,rate,total";
+
+    // Tamaño de los búferes de escritura y de compresión
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Resultado de una exportación.
+     */
+    public record Result(long rows, long bytes, Path file, Duration elapsed) {
+
+        /**
+         * Facturas exportadas por segundo.
+         */
+        public double rowsPerSecond() {
+            long nanos = elapsed.toNanos();
+            return nanos <= 0 ? 0 : rows / (nanos / 1_000_000_000.0);
+        }
+    }
+
+    private final InvoiceRepository invoiceRepository;
+
+    /**
+     * Constructor por defecto.
+     */
+    public InvoiceExportService() {
+        this(new InvoiceRepository());
+    }
+
+    /**
+     * Constructor alternativo que permite inyección de dependencias.
+     */
+    public InvoiceExportService(InvoiceRepository invoiceRepository) {
+        this.invoiceRepository = invoiceRepository;
+    }
+
+    /**
+     * Exporta las facturas que pasan el filtro.
+     *
+     * @param file   Archivo de destino (se reemplaza si existe).
+     * @param filter Periodo y clientes a exportar.
+     * @param gzip   true para comprimir con gzip.
+     * @return Filas exportadas, tamaño del archivo y rendimiento.
+     * @throws IOException si no se puede escribir el archivo.
+     *
+     * Flujo:
+     *  1. Abrir el archivo temporal con búfer (y gzip si se pidió).
+     *  2. Escribir la cabecera.
+     *  3. Recorrer las facturas con el cursor y escribir cada fila.
+     *  4. Cerrar (termina el gzip) y renombrar al nombre definitivo.
+     */
+    public Result export(Path file, InvoiceFilter filter, boolean gzip) throws IOException {
+        logger.info(() -> "Exporting invoices to " + file + (gzip ? " (gzip)" : ""));
+
+        long startNanos = System.nanoTime();
+        Path partial = file.resolveSibling(file.getFileName() + ".part");
+        long rows;
+
+        try (Writer out = openWriter(partial, gzip)) {
+            out.write(HEADER);
+            out.write('\n');
+
+            RowWriter rowWriter = new RowWriter(out);
+            try {
+                rows = invoiceRepository.scanInvoiceRecords(filter, rowWriter::write);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Result result = new Result(rows, Files.size(file), file, Duration.ofNanos(System.nanoTime() - startNanos));
+
+        logger.info(String.format("Invoice export finished: %d rows, %d bytes, %.1f rows/s",
+                result.rows(), result.bytes(), result.rowsPerSecond()));
+
+        return result;
+    }
+
+    private static Writer openWriter(Path file, boolean gzip) throws IOException {
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+        if (gzip) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Escribe cada factura como una línea CSV.
+     * Los textos se entrecomillan solo si contienen comas, comillas o saltos de línea.
+     */
+    private static final class RowWriter {
+
+        private final Writer out;
+
+        private RowWriter(Writer out) {
+            this.out = out;
+        }
+
+        private void write(int invoiceId, int customerId, String name, String address, String email, String phone,
+                           int consumptionId, double kwh, LocalDate startDate, LocalDate endDate,
+                           BigDecimal rate, BigDecimal total) {
+            try {
+                out.write(Integer.toString(invoiceId));
+                out.write(',');
+                out.write(Integer.toString(customerId));
+                out.write(',');
+                text(name);
+                out.write(',');
+                text(address);
+                out.write(',');
+                text(email);
+                out.write(',');
+                text(phone);
+                out.write(',');
+                out.write(Integer.toString(consumptionId));
+                out.write(',');
+                out.write(Double.toString(kwh));
+                out.write(',');
+                value(startDate);
+                out.write(',');
+                value(endDate);
+                out.write(',');
+                out.write(rate == null ? "" : rate.toPlainString());
+                out.write(',');
+                out.write(total == null ? "" : total.toPlainString());
+                out.write('\n');
+
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void value(Object value) throws IOException {
+            if (value != null) {
+                out.write(value.toString());
+            }
+        }
+
+        private void text(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+
+            out.write('"');
+            out.write(value.replace("\"", "\"\""));
+            out.write('"');
+        }
+    }
+}
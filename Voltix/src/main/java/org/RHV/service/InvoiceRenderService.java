@@ -0,0 +1,325 @@
+package org.RHV.service;
+
+import org.RHV.document.InvoiceDocument;
+import org.RHV.document.InvoiceTemplate;
+import org.RHV.metrics.Metrics;
+import org.RHV.metrics.Timer;
+import org.RHV.repository.InvoiceFilter;
+import org.RHV.repository.InvoiceRepository;
+import org.RHV.util.Money;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Genera en paralelo un documento por factura (HTML por defecto) a partir de
+ * una plantilla compilada una sola vez.
+ *
+ * Es un pipeline de tres etapas unidas por colas acotadas:
+ * <pre>
+ *     lector (cursor MySQL) → [renderQueue] → N renderizadores → [writeQueue] → M escritores → archivos
+ * </pre>
+ *  - El lector recorre las facturas con InvoiceRepository.scanInvoiceRecords.
+ *  - Los renderizadores (uno por núcleo por defecto) aplican la plantilla y
+ *    codifican el documento en UTF-8: es la parte que usa CPU.
+ *  - Los escritores guardan cada documento como invoice-&lt;id&gt;.&lt;ext&gt;.
+ *
+ * Las colas son acotadas: si los escritores van lentos, los renderizadores
+ * esperan, y si estos van lentos, el lector deja de leer del cursor. La
+ * memoria usada depende del tamaño de las colas, no del número de facturas.
+ *
+ * Un documento que no puede renderizarse o escribirse se registra como fallo
+ * y el resto continúa.
+ */
+public class InvoiceRenderService {
+
+    private static final Logger logger = Logger.getLogger(InvoiceRenderService.class.getName());
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    public static final int DEFAULT_WRITERS = 2;
+
+    // Fallos guardados en el resultado; el resto solo se cuenta
+    public static final int MAX_FAILURES_KEPT = 1000;
+
+    // Cada cuántos documentos se escribe el avance en el log
+    private static final long PROGRESS_EVERY_DOCUMENTS = 10_000;
+
+    // Métricas (ver org.RHV.metrics.Metrics)
+    private static final Timer RENDER_TIMER = Metrics.timer("service.document.render");
+    private static final Timer WRITE_TIMER = Metrics.timer("service.document.write");
+
+    // Marcas de fin de trabajo que se encolan una vez por hilo de la etapa siguiente
+    private static final InvoiceDocument END_OF_INVOICES =
+            new InvoiceDocument(0, 0, null, null, null, null, 0, null, null, null, null, null);
+    private static final Rendered END_OF_DOCUMENTS = new Rendered(0, null);
+
+    /**
+     * Documento que no pudo generarse y el motivo.
+     */
+    public record Failure(int invoiceId, String reason) {
+    }
+
+    /**
+     * Resultado de la generación de documentos.
+     */
+    public record Result(long documents, long failed, List<Failure> failures, Path directory, Duration elapsed) {
+
+        /**
+         * Documentos escritos por segundo.
+         */
+        public double documentsPerSecond() {
+            long nanos = elapsed.toNanos();
+            return nanos <= 0 ? 0 : documents / (nanos / 1_000_000_000.0);
+        }
+    }
+
+    /**
+     * Documento renderizado, ya codificado, esperando a escribirse.
+     */
+    private record Rendered(int invoiceId, byte[] content) {
+    }
+
+    private final InvoiceRepository invoiceRepository;
+
+    // Hilos por etapa y capacidad de cada cola
+    private final int renderers;
+    private final int writers;
+    private final int queueCapacity;
+
+    /**
+     * Constructor por defecto: un renderizador por núcleo.
+     */
+    public InvoiceRenderService() {
+        this(new InvoiceRepository(), Runtime.getRuntime().availableProcessors(),
+                DEFAULT_WRITERS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructor alternativo que permite inyección de dependencias.
+     */
+    public InvoiceRenderService(InvoiceRepository invoiceRepository, int renderers, int writers, int queueCapacity) {
+        this.invoiceRepository = invoiceRepository;
+        this.renderers = Math.max(1, renderers);
+        this.writers = Math.max(1, writers);
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    /**
+     * Genera un documento por cada factura que pasa el filtro.
+     *
+     * @param template  Plantilla ya compilada.
+     * @param filter    Periodo y clientes a incluir.
+     * @param directory Carpeta de destino (se crea si no existe).
+     * @return Documentos escritos, fallos y rendimiento.
+     * @throws IOException si no se puede crear la carpeta de destino.
+     *
+     * Flujo:
+     *  1. Arrancar los hilos renderizadores y escritores.
+     *  2. Recorrer las facturas y encolarlas (esperando si la cola está llena).
+     *  3. Encolar una marca de fin por renderizador y esperar a que terminen.
+     *  4. Encolar una marca de fin por escritor y esperar a que terminen.
+     */
+    public Result render(InvoiceTemplate template, InvoiceFilter filter, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        String extension = template.isHtml() ? ".html" : ".txt";
+
+        logger.info(() -> String.format("Rendering invoices to %s (%d renderers, %d writers, queue %d)",
+                directory, renderers, writers, queueCapacity));
+
+        long startNanos = System.nanoTime();
+        LocalDate issueDate = LocalDate.now();
+        RenderState state = new RenderState();
+
+        BlockingQueue<InvoiceDocument> renderQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Rendered> writeQueue = new ArrayBlockingQueue<>(queueCapacity);
+
+        List<Thread> renderThreads = start(renderers, "voltix-render-",
+                () -> renderLoop(template, renderQueue, writeQueue, state));
+        List<Thread> writeThreads = start(writers, "voltix-doc-writer-",
+                () -> writeLoop(directory, extension, writeQueue, state));
+
+        try {
+            invoiceRepository.scanInvoiceRecords(filter,
+                    (invoiceId, customerId, name, address, email, phone,
+                     consumptionId, kwh, startDate, endDate, rate, total) ->
+                            put(renderQueue, new InvoiceDocument(invoiceId, customerId, name, address, email, phone,
+                                    kwh, startDate, endDate,
+                                    rate == null ? null : Money.of(rate, Money.RATE_SCALE),
+                                    total == null ? null : Money.of(total, Money.TOTAL_SCALE),
+                                    issueDate)));
+
+        } catch (CancellationException e) {
+            logger.warning("Invoice rendering interrupted; remaining invoices were not rendered");
+
+        } finally {
+            // Los hilos terminan aunque la lectura haya fallado
+            finish(renderThreads, renderQueue, END_OF_INVOICES);
+            finish(writeThreads, writeQueue, END_OF_DOCUMENTS);
+        }
+
+        Result result = new Result(state.written.get(), state.failed.get(), state.failures(),
+                directory, Duration.ofNanos(System.nanoTime() - startNanos));
+
+        logger.info(String.format("Invoice rendering finished: %d documents, %d failed, %.1f documents/s",
+                result.documents(), result.failed(), result.documentsPerSecond()));
+
+        return result;
+    }
+
+    // ============================
+    //   ETAPAS
+    // ============================
+
+    private void renderLoop(InvoiceTemplate template, BlockingQueue<InvoiceDocument> in,
+                            BlockingQueue<Rendered> out, RenderState state) {
+        try {
+            while (true) {
+                InvoiceDocument document = in.take();
+                if (document == END_OF_INVOICES) {
+                    return;
+                }
+
+                long startNanos = RENDER_TIMER.start();
+                byte[] content;
+                try {
+                    content = template.render(document).getBytes(StandardCharsets.UTF_8);
+                } catch (RuntimeException e) {
+                    RENDER_TIMER.error();
+                    state.fail(document.invoiceId(), "Render failed: " + e.getMessage());
+                    continue;
+                } finally {
+                    RENDER_TIMER.stop(startNanos);
+                }
+
+                out.put(new Rendered(document.invoiceId(), content));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop(Path directory, String extension, BlockingQueue<Rendered> in, RenderState state) {
+        try {
+            while (true) {
+                Rendered document = in.take();
+                if (document == END_OF_DOCUMENTS) {
+                    return;
+                }
+
+                long startNanos = WRITE_TIMER.start();
+                try {
+                    Files.write(directory.resolve("invoice-" + document.invoiceId() + extension), document.content());
+                    state.written();
+                } catch (IOException | RuntimeException e) {
+                    WRITE_TIMER.error();
+                    state.fail(document.invoiceId(), "Write failed: " + e.getMessage());
+                } finally {
+                    WRITE_TIMER.stop(startNanos);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ============================
+    //   HILOS Y COLAS
+    // ============================
+
+    private static List<Thread> start(int count, String namePrefix, Runnable task) {
+        List<Thread> threads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            threads.add(Thread.ofPlatform().name(namePrefix + i).daemon(true).start(task));
+        }
+        return threads;
+    }
+
+    /**
+     * Encola una marca de fin por hilo y espera a que todos terminen.
+     */
+    private static <T> void finish(List<Thread> threads, BlockingQueue<T> queue, T endMarker) {
+        boolean interrupted = false;
+
+        for (Thread thread : threads) {
+            while (true) {
+                try {
+                    // Si el hilo ya terminó (interrumpido) no hace falta su marca
+                    if (!thread.isAlive() || queue.offer(endMarker, 100, TimeUnit.MILLISECONDS)) {
+                        break;
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+
+        for (Thread thread : threads) {
+            while (true) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Encola una factura desde el visitante del cursor, esperando si la cola está llena.
+     */
+    private static void put(BlockingQueue<InvoiceDocument> queue, InvoiceDocument document) {
+        try {
+            queue.put(document);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Invoice rendering interrupted");
+        }
+    }
+
+    /**
+     * Contadores compartidos por todas las etapas.
+     */
+    private static final class RenderState {
+
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<Failure> failures = Collections.synchronizedList(new ArrayList<>());
+
+        private void written() {
+            long n = written.incrementAndGet();
+            if (n % PROGRESS_EVERY_DOCUMENTS == 0) {
+                logger.info(() -> String.format("Rendered %d documents so far (%d failed)", n, failed.get()));
+            }
+        }
+
+        private void fail(int invoiceId, String reason) {
+            if (failed.incrementAndGet() <= MAX_FAILURES_KEPT) {
+                failures.add(new Failure(invoiceId, reason));
+            }
+        }
+
+        private List<Failure> failures() {
+            synchronized (failures) {
+                return List.copyOf(failures);
+            }
+        }
+    }
+}
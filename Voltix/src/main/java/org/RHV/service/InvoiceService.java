@@ -1,14 +1,23 @@
 package org.RHV.service;
 
+import org.RHV.database.UnitOfWork;
+import org.RHV.jfr.InvoiceGenerationEvent;
+import org.RHV.metrics.Metrics;
+import org.RHV.metrics.Timer;
 import org.RHV.model.Consumption;
 import org.RHV.model.Customer;
 import org.RHV.model.Invoice;
 import org.RHV.repository.ConsumptionRepository;
 import org.RHV.repository.InvoiceRepository;
+import org.RHV.repository.RollupRepository;
+import org.RHV.util.Money;
 import org.RHV.util.TariffCalculator;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 /**
@@ -24,61 +33,113 @@ public class InvoiceService {
 
     private static final Logger logger = Logger.getLogger(InvoiceService.class.getName());
 
+    private static final Timer GENERATE_TIMER = Metrics.timer("service.invoice.generate");
+
     // Repositorios que interactúan con la base de datos
     private final InvoiceRepository invoiceRepository;
     private final ConsumptionRepository consumptionRepository;
 
+    // Totales precalculados por cliente y mes (dashboard e informes).
+    // Si la tabla no puede usarse, los agregados se calculan sobre 'invoices'.
+    private final RollupRepository rollupRepository;
+
+    // Transacción compartida para guardar consumo y factura juntos
+    private final UnitOfWork unitOfWork;
+
     /**
      * Constructor usado por controladores JavaFX.
      * Crea repositorios por defecto.
      */
     public InvoiceService() {
-        this.invoiceRepository = new InvoiceRepository();
-        this.consumptionRepository = new ConsumptionRepository();
+        this(new InvoiceRepository(), new ConsumptionRepository(), new RollupRepository(), new UnitOfWork());
+    }
+
+    /**
+     * Constructor alternativo que permite inyección de dependencias.
+     * Útil para pruebas unitarias o para otros servicios.
+     */
+    public InvoiceService(InvoiceRepository invoiceRepository,
+                          ConsumptionRepository consumptionRepository,
+                          RollupRepository rollupRepository,
+                          UnitOfWork unitOfWork) {
+        this.invoiceRepository = invoiceRepository;
+        this.consumptionRepository = consumptionRepository;
+        this.rollupRepository = rollupRepository;
+        this.unitOfWork = unitOfWork;
     }
 
     /**
      * Genera una factura completa a partir de un cliente y un consumo.
      * El flujo es:
      *  1. Validar datos
-     *  2. Guardar consumo en MySQL
-     *  3. Calcular tarifa y total
-     *  4. Crear factura
-     *  5. Guardar factura en MySQL
+     *  2. Calcular tarifa y total
+     *  3. En una sola transacción (una conexión, un COMMIT):
+     *     guardar consumo, crear factura, guardarla y sumarla
+     *     a los totales mensuales del cliente
+     *
+     * Si falla cualquiera de los pasos se hace ROLLBACK,
+     * por lo que no quedan consumos huérfanos ni totales descuadrados.
      *
      * @param customer    Cliente asociado a la factura
      * @param consumption Consumo eléctrico del periodo
      * @return Factura generada con ID asignado por MySQL
+     * @throws org.RHV.database.DataAccessException si falla la base de datos
      */
     public Invoice generateInvoice(Customer customer, Consumption consumption) {
-
-        logger.info("Generating invoice for customer: " + customer.getName());
-
-        // --- VALIDACIONES ---
-        if (consumption.getKWh() <= 0)
-            throw new IllegalArgumentException("kWh must be greater than zero.");
-
-        if (consumption.getEndDate().isBefore(consumption.getStartDate()))
-            throw new IllegalArgumentException("End date cannot be before start date.");
-
-        // --- GUARDAR CONSUMO ---
-        // Inserta el consumo en MySQL y obtiene el ID generado
-        int consumptionId = consumptionRepository.save(consumption);
-        consumption.setId(consumptionId);
-
-        // --- CÁLCULOS ---
-        double rate = TariffCalculator.getRate(consumption.getKWh());
-        double total = TariffCalculator.calculateTotal(consumption.getKWh());
-
-        // --- CREAR FACTURA ---
-        Invoice invoice = new Invoice(customer, consumption, rate, total);
-
-        // --- GUARDAR FACTURA ---
-        invoiceRepository.saveInvoice(invoice);
-
-        logger.info("Invoice generated successfully with ID: " + invoice.getInvoiceId());
-
-        return invoice;
+        long startNanos = GENERATE_TIMER.start();
+        InvoiceGenerationEvent event = new InvoiceGenerationEvent();
+        event.customerId = customer.getId();
+        event.kwh = consumption.getKWh();
+        event.begin();
+        try {
+
+            logger.info(() -> "Generating invoice for customer: " + customer.getName());
+
+            // --- VALIDACIONES ---
+            if (consumption.getKWh() <= 0)
+                throw new IllegalArgumentException("kWh must be greater than zero.");
+
+            if (consumption.getKWh() > TariffCalculator.MAX_KWH)
+                throw new IllegalArgumentException("kWh cannot exceed " + (long) TariffCalculator.MAX_KWH + ".");
+
+            if (consumption.getEndDate().isBefore(consumption.getStartDate()))
+                throw new IllegalArgumentException("End date cannot be before start date.");
+
+            // --- CÁLCULOS ---
+            Money rate = TariffCalculator.getRate(consumption.getKWh());
+            Money total = TariffCalculator.calculateTotal(consumption.getKWh(), rate);
+
+            // Preparar la tabla de totales antes de abrir la transacción: la primera
+            // vez usa otra conexión y no debe esperar a filas sin confirmar de esta
+            rollupRepository.isAvailable();
+
+            // --- GUARDAR CONSUMO Y FACTURA EN UNA TRANSACCIÓN ---
+            Invoice invoice = unitOfWork.execute(conn -> {
+
+                // Inserta el consumo y obtiene el ID generado
+                int consumptionId = consumptionRepository.save(conn, consumption);
+                consumption.setId(consumptionId);
+
+                // Crea y guarda la factura asociada
+                Invoice created = new Invoice(customer, consumption, rate, total);
+                invoiceRepository.saveInvoice(conn, created);
+
+                // Actualiza los totales del cliente para ese mes
+                rollupRepository.addInvoice(conn, created);
+                return created;
+            });
+
+            logger.info(() -> "Invoice generated successfully with ID: " + invoice.getInvoiceId());
+            event.invoiceId = invoice.getInvoiceId();
+
+            return invoice;
+        } catch (RuntimeException e) {
+            GENERATE_TIMER.error();
+            throw e;
+        } finally {
+            GENERATE_TIMER.stop(startNanos);
+            event.commit();
+        }
     }
 
     /**
@@ -98,4 +159,90 @@ public class InvoiceService {
     public List<Invoice> getAllInvoices() {
         return invoiceRepository.listInvoices();
     }
+
+    /**
+     * Recorre todas las facturas en streaming, sin cargarlas en memoria.
+     *
+     * @param action Acción a ejecutar con cada factura.
+     * @return Número de facturas recorridas.
+     */
+    public long forEachInvoice(Consumer<Invoice> action) {
+        return invoiceRepository.forEachInvoice(action);
+    }
+
+    /**
+     * Devuelve la página de facturas siguiente a lastId (paginación por clave).
+     *
+     * @throws org.RHV.database.DataAccessException si falla la consulta.
+     */
+    public List<Invoice> getInvoicesAfter(int lastId, int limit) {
+        return invoiceRepository.listInvoicesAfter(lastId, limit);
+    }
+
+    /**
+     * Devuelve una página de facturas por posición (offset).
+     *
+     * @throws org.RHV.database.DataAccessException si falla la consulta.
+     */
+    public List<Invoice> getInvoicesPage(int offset, int limit) {
+        return invoiceRepository.listInvoicesPage(offset, limit);
+    }
+
+    /**
+     * Devuelve el número total de facturas.
+     */
+    public int countInvoices() {
+        return invoiceRepository.countInvoices();
+    }
+
+    /**
+     * kWh totales por cliente.
+     */
+    public Map<String, Double> getKwhByCustomer() {
+        return rollupRepository.isAvailable()
+                ? rollupRepository.sumKwhByCustomer()
+                : invoiceRepository.sumKwhByCustomer();
+    }
+
+    /**
+     * kWh totales por año-mes.
+     */
+    public Map<YearMonth, Double> getKwhByYearMonth() {
+        return rollupRepository.isAvailable()
+                ? rollupRepository.sumKwhByYearMonth()
+                : invoiceRepository.sumKwhByYearMonth();
+    }
+
+    /**
+     * Número de facturas por cliente.
+     */
+    public Map<String, Long> getInvoiceCountByCustomer() {
+        return rollupRepository.isAvailable()
+                ? rollupRepository.countInvoicesByCustomer()
+                : invoiceRepository.countInvoicesByCustomer();
+    }
+
+    /**
+     * Número total de facturas según la tabla de totales mensuales.
+     * Más barato que countInvoices() en tablas grandes; se usa en el dashboard.
+     * Si la tabla no puede usarse, se cuenta directamente sobre 'invoices'.
+     */
+    public long getTotalInvoices() {
+        return rollupRepository.isAvailable()
+                ? rollupRepository.totalInvoices()
+                : invoiceRepository.countInvoices();
+    }
+
+    /**
+     * Recalcula la tabla de totales mensuales a partir de todas las facturas.
+     * Se usa para la carga inicial o para corregir datos.
+     *
+     * @return Número de filas (cliente × mes) generadas.
+     */
+    public int rebuildRollups() {
+        logger.info("Rebuilding monthly consumption rollups");
+        int rows = rollupRepository.rebuild();
+        logger.info("Rollups rebuilt: " + rows + " customer-month rows");
+        return rows;
+    }
 }
@@ -0,0 +1,127 @@
+package org.RHV.ui;
+
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Capa común para ejecutar trabajo de E/S (consultas a MySQL, inserciones)
+ * fuera del hilo de JavaFX.
+ *
+ * Cada trabajo se envuelve en un javafx.concurrent.Task y se ejecuta en un
+ * hilo virtual. Los callbacks de éxito y error se invocan siempre en el hilo
+ * de JavaFX, por lo que pueden modificar la interfaz directamente.
+ *
+ * Uso típico en un controlador:
+ * <pre>
+ *     table.setPlaceholder(new Label("Loading..."));
+ *     BackgroundTasks.run(service::getAllCustomers,
+ *             customers -> table.getItems().setAll(customers),
+ *             error -> showAlert(error.getMessage()));
+ * </pre>
+ *
+ * El Task devuelto permite cancelar la carga (por ejemplo si se vuelve a
+ * pedir antes de terminar); un Task cancelado no invoca ningún callback.
+ */
+public final class BackgroundTasks {
+
+    private static final Logger logger = Logger.getLogger(BackgroundTasks.class.getName());
+
+    // Un hilo virtual por tarea: las tareas bloqueadas en JDBC no ocupan hilos del sistema
+    private static final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("voltix-bg-", 0).factory());
+
+    private BackgroundTasks() {
+        // Evitar instanciación
+    }
+
+    /**
+     * Ejecuta el trabajo en segundo plano y entrega el resultado en el hilo de JavaFX.
+     *
+     * @param work      Trabajo a ejecutar (fuera del hilo de JavaFX).
+     * @param onSuccess Recibe el resultado en el hilo de JavaFX.
+     * @param onError   Recibe la excepción en el hilo de JavaFX; si es null solo se registra en logs.
+     * @return Task en ejecución, útil para cancelarlo.
+     */
+    public static <T> Task<T> run(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+
+        task.setOnSucceeded(e -> {
+            if (onSuccess != null) {
+                onSuccess.accept(task.getValue());
+            }
+        });
+
+        task.setOnFailed(e -> {
+            Throwable error = task.getException();
+            logger.log(Level.WARNING, "Background task failed: " + error.getMessage(), error);
+            if (onError != null) {
+                onError.accept(error);
+            }
+        });
+
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Variante para trabajos sin resultado (por ejemplo guardar un registro).
+     */
+    public static Task<Void> execute(ThrowingRunnable work, Runnable onSuccess, Consumer<Throwable> onError) {
+        return run(() -> {
+            work.run();
+            return null;
+        }, ignored -> {
+            if (onSuccess != null) {
+                onSuccess.run();
+            }
+        }, onError);
+    }
+
+    /**
+     * Cancela un Task si sigue en ejecución. Acepta null para simplificar a los llamadores.
+     */
+    public static void cancel(Task<?> task) {
+        if (task != null && task.isRunning()) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Ejecuta la acción en el hilo de JavaFX (directamente si ya estamos en él).
+     */
+    public static void onFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
+        }
+    }
+
+    /**
+     * Deja de aceptar tareas nuevas. Se llama al cerrar la aplicación.
+     */
+    public static void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Trabajo sin resultado que puede lanzar excepciones comprobadas.
+     */
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,192 @@
+package org.RHV.ui;
+
+import javafx.collections.ObservableListBase;
+import org.RHV.model.Invoice;
+import org.RHV.service.InvoiceService;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Lista observable de facturas que se carga por páginas bajo demanda.
+ *
+ * Está pensada como "items" de un TableView: la tabla solo pide (get) las
+ * filas visibles, así que únicamente se consultan a MySQL las páginas de la
+ * ventana visible más un margen de precarga. Las páginas lejanas se descartan
+ * para que la memoria usada no dependa del tamaño de la tabla.
+ *
+ * Las páginas se leen en segundo plano (BackgroundTasks): mientras una página
+ * no llega, get() devuelve null para sus filas y la tabla las muestra vacías.
+ * Al llegar la página se notifica el cambio y la tabla repinta esas filas.
+ * Si la lectura falla la página no se guarda: sus filas siguen vacías y se
+ * vuelve a pedir la próxima vez que la tabla las necesite.
+ * Todos los métodos deben llamarse desde el hilo de JavaFX.
+ *
+ * Limitaciones:
+ *  - Es de solo lectura (no admite add/remove/sort).
+ *  - El orden es siempre por ID de factura.
+ */
+public class PagedInvoiceList extends ObservableListBase<Invoice> {
+
+    private static final Logger logger = Logger.getLogger(PagedInvoiceList.class.getName());
+
+    // Valores por defecto: 100 filas por página, 1 página de precarga, 20 páginas en memoria
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int DEFAULT_PREFETCH_PAGES = 1;
+    public static final int DEFAULT_MAX_CACHED_PAGES = 20;
+
+    private final InvoiceService invoiceService;
+    private final PageLoader loader;
+    private final int pageSize;
+    private final int prefetchPages;
+    private final int maxCachedPages;
+
+    // Páginas cargadas, en orden de último acceso (LRU)
+    private final Map<Integer, List<Invoice>> pages;
+
+    // Páginas que se están leyendo en segundo plano
+    private final Set<Integer> loading = new HashSet<>();
+
+    // Número total de facturas (se obtiene con COUNT al crear la lista)
+    private final int size;
+
+    /**
+     * @param invoiceService Servicio del que se leen las páginas.
+     * @param size           Número total de facturas (countInvoices()).
+     */
+    public PagedInvoiceList(InvoiceService invoiceService, int size) {
+        this(invoiceService, size, DEFAULT_PAGE_SIZE, DEFAULT_PREFETCH_PAGES, DEFAULT_MAX_CACHED_PAGES);
+    }
+
+    /**
+     * @param invoiceService Servicio del que se leen las páginas.
+     * @param size           Número total de facturas (countInvoices()).
+     * @param pageSize       Filas por página.
+     * @param prefetchPages  Páginas vecinas que se cargan junto a la visible.
+     * @param maxCachedPages Páginas que se conservan en memoria como máximo.
+     */
+    public PagedInvoiceList(InvoiceService invoiceService, int size,
+                            int pageSize, int prefetchPages, int maxCachedPages) {
+        this(invoiceService, size, pageSize, prefetchPages, maxCachedPages, BackgroundTasks::run);
+    }
+
+    /**
+     * Constructor con un PageLoader propio. Útil para pruebas unitarias,
+     * que entregan las páginas sin el hilo de JavaFX.
+     */
+    PagedInvoiceList(InvoiceService invoiceService, int size,
+                     int pageSize, int prefetchPages, int maxCachedPages, PageLoader loader) {
+        this.invoiceService = invoiceService;
+        this.loader = loader;
+        this.size = size;
+        this.pageSize = Math.max(1, pageSize);
+        this.prefetchPages = Math.max(0, prefetchPages);
+
+        // Siempre debe caber la página visible con su precarga
+        this.maxCachedPages = Math.max(maxCachedPages, 2 * this.prefetchPages + 1);
+
+        // LinkedHashMap en modo acceso: la primera entrada es la menos usada
+        this.pages = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Devuelve la factura en la posición indicada, o null si su página
+     * todavía se está cargando.
+     */
+    @Override
+    public Invoice get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+
+        int pageNumber = index / pageSize;
+        List<Invoice> page = pages.get(pageNumber);
+
+        // Pedir la página visible y sus vecinas (la tabla las pedirá al desplazarse)
+        for (int p = pageNumber - prefetchPages; p <= pageNumber + prefetchPages; p++) {
+            if (p >= 0 && p * pageSize < size && !pages.containsKey(p)) {
+                requestPage(p);
+            }
+        }
+
+        if (page == null) {
+            return null;
+        }
+
+        int offsetInPage = index - pageNumber * pageSize;
+        return offsetInPage < page.size() ? page.get(offsetInPage) : null;
+    }
+
+    /**
+     * Lee una página en segundo plano si no se está leyendo ya.
+     * Si la página anterior está en memoria se usa paginación por clave
+     * (WHERE id > último ID), que es más barata que LIMIT/OFFSET.
+     */
+    private void requestPage(int pageNumber) {
+        if (!loading.add(pageNumber)) {
+            return;
+        }
+
+        List<Invoice> previous = pages.get(pageNumber - 1);
+        Integer lastId = previous != null && previous.size() == pageSize
+                ? previous.get(previous.size() - 1).getInvoiceId()
+                : null;
+
+        loader.load(() -> lastId != null
+                        ? invoiceService.getInvoicesAfter(lastId, pageSize)
+                        : invoiceService.getInvoicesPage(pageNumber * pageSize, pageSize),
+                page -> pageLoaded(pageNumber, page),
+                error -> loading.remove(pageNumber));
+    }
+
+    /**
+     * Guarda la página recibida y avisa a la tabla de que sus filas cambiaron.
+     */
+    private void pageLoaded(int pageNumber, List<Invoice> page) {
+        loading.remove(pageNumber);
+        pages.put(pageNumber, page);
+        evictPages();
+
+        int from = pageNumber * pageSize;
+        int to = Math.min(size, from + page.size());
+
+        beginChange();
+        for (int i = from; i < to; i++) {
+            nextSet(i, null);
+        }
+        endChange();
+
+        logger.fine(() -> "Loaded invoice page " + pageNumber + " (" + pages.size() + " pages cached)");
+    }
+
+    /**
+     * Descarta las páginas menos usadas cuando se supera maxCachedPages.
+     */
+    private void evictPages() {
+        var it = pages.entrySet().iterator();
+        while (pages.size() > maxCachedPages && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * Lee una página fuera del hilo de JavaFX y entrega el resultado (o el
+     * error) en él. En la aplicación es BackgroundTasks.run.
+     */
+    @FunctionalInterface
+    interface PageLoader {
+        void load(Callable<List<Invoice>> work, Consumer<List<Invoice>> onSuccess, Consumer<Throwable> onError);
+    }
+}
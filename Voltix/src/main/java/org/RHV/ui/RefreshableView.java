@@ -0,0 +1,16 @@
+package org.RHV.ui;
+
+/**
+ * Controlador de una vista que ViewRegistry reutiliza entre visitas.
+ *
+ * initialize() solo se ejecuta la primera vez que se carga el FXML, y puede
+ * hacerlo fuera del hilo de JavaFX (ViewRegistry.prewarm): debe limitarse a
+ * preparar la interfaz, sin consultar datos ni lanzar tareas.
+ *
+ * refresh() se llama en el hilo de JavaFX cada vez que la vista se muestra,
+ * también la primera, para cargar los datos que puedan haber cambiado.
+ */
+public interface RefreshableView {
+
+    void refresh();
+}
@@ -0,0 +1,209 @@
+package org.RHV.ui;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Group;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.layout.Pane;
+import org.RHV.metrics.Metrics;
+import org.RHV.metrics.Timer;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+/**
+ * Caché de vistas FXML: cada archivo se carga (parseo, reflexión,
+ * initialize() del controlador) una sola vez y después se reutiliza el
+ * mismo par nodo + controlador.
+ *
+ * Uso:
+ * <pre>
+ *     ViewRegistry.View&lt;ListInvoicesController&gt; view = ViewRegistry.show("list-invoices.fxml");
+ *     ViewRegistry.detach(view.root());
+ *     contentArea.getChildren().setAll(view.root());
+ * </pre>
+ *
+ * show() llama a RefreshableView.refresh() cada vez que muestra la vista,
+ * también la primera: los controladores cargan sus datos ahí y no en
+ * initialize(). prewarm() carga vistas en segundo plano al arrancar, de modo
+ * que la primera visita ya sea inmediata; como initialize() no lanza tareas
+ * ni toca datos, puede ejecutarse fuera del hilo de JavaFX sin carreras.
+ *
+ * Las rutas pueden ser absolutas ("/org/RHV/list-invoices.fxml") o
+ * relativas al paquete org.RHV ("list-invoices.fxml"); ambas comparten entrada.
+ */
+public final class ViewRegistry {
+
+    private static final Logger logger = Logger.getLogger(ViewRegistry.class.getName());
+
+    private static final String BASE_PATH = "/org/RHV/";
+
+    // Ruta absoluta → vista (o carga en curso)
+    private static final ConcurrentMap<String, CompletableFuture<View<?>>> views = new ConcurrentHashMap<>();
+
+    /**
+     * Nodo raíz y controlador de una vista cargada.
+     */
+    public static final class View<C> {
+
+        private final Parent root;
+        private final C controller;
+
+        private View(Parent root, C controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+
+        public Parent root() {
+            return root;
+        }
+
+        public C controller() {
+            return controller;
+        }
+    }
+
+    private ViewRegistry() {
+        // Evitar instanciación
+    }
+
+    /**
+     * Devuelve la vista, cargándola si es la primera vez.
+     * Si otra hebra la está cargando (prewarm), espera a que termine.
+     *
+     * @throws IOException si el FXML no existe o no se puede cargar.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C> View<C> get(String fxml) throws IOException {
+        String path = resolve(fxml);
+
+        CompletableFuture<View<?>> created = new CompletableFuture<>();
+        CompletableFuture<View<?>> existing = views.putIfAbsent(path, created);
+
+        if (existing == null) {
+            try {
+                created.complete(load(path));
+            } catch (IOException | RuntimeException e) {
+                // No dejar el error en caché: el siguiente intento vuelve a cargar
+                views.remove(path, created);
+                created.completeExceptionally(e);
+                throw e;
+            }
+            return (View<C>) created.join();
+        }
+
+        try {
+            return (View<C>) existing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Could not load view " + path, e.getCause());
+        }
+    }
+
+    /**
+     * Devuelve la vista para mostrarla. Debe llamarse en el hilo de JavaFX.
+     *
+     * Flujo:
+     *  1. Obtener la vista (de la caché o cargándola).
+     *  2. Llamar a refresh() del controlador para que cargue sus datos.
+     */
+    public static <C> View<C> show(String fxml) throws IOException {
+        View<C> view = get(fxml);
+
+        if (view.controller instanceof RefreshableView refreshable) {
+            refreshable.refresh();
+        }
+        return view;
+    }
+
+    /**
+     * Indica si la vista ya está cargada (o cargándose).
+     */
+    public static boolean isLoaded(String fxml) {
+        return views.containsKey(resolve(fxml));
+    }
+
+    /**
+     * Carga las vistas en un hilo en segundo plano, una tras otra.
+     * Si alguna falla se vuelve a intentar al mostrarla.
+     */
+    public static void prewarm(List<String> fxmls) {
+        prewarm(fxmls, null);
+    }
+
+    /**
+     * Igual que prewarm(fxmls), y al terminar ejecuta onDone en el hilo de JavaFX.
+     */
+    public static void prewarm(List<String> fxmls, Runnable onDone) {
+        BackgroundTasks.execute(() -> {
+            for (String fxml : fxmls) {
+                try {
+                    get(fxml);
+                } catch (IOException | RuntimeException e) {
+                    logger.warning("Could not prewarm view " + fxml + ": " + e.getMessage());
+                }
+            }
+        }, onDone, null);
+    }
+
+    /**
+     * Olvida todas las vistas (la siguiente visita las vuelve a cargar).
+     */
+    public static void clear() {
+        views.clear();
+    }
+
+    /**
+     * Parsea el FXML y crea el controlador. Mide el tiempo en ui.view.load.*.
+     */
+    private static View<?> load(String path) throws IOException {
+        URL url = ViewRegistry.class.getResource(path);
+        if (url == null) {
+            throw new IOException("View not found: " + path);
+        }
+
+        Timer timer = Metrics.timer(Metrics.viewLoadName(path));
+        long start = timer.start();
+        try {
+            FXMLLoader loader = new FXMLLoader(url);
+            Parent root = loader.load();
+            return new View<>(root, loader.getController());
+        } catch (IOException | RuntimeException e) {
+            timer.error();
+            throw e;
+        } finally {
+            timer.stop(start);
+        }
+    }
+
+    /**
+     * Un nodo solo puede estar en un sitio del grafo de escena: se quita de
+     * su contenedor anterior o, si era la raíz de una escena, se reemplaza
+     * por un grupo vacío. Llamar antes de colocar la vista en otro sitio.
+     */
+    public static void detach(Parent root) {
+        Parent parent = root.getParent();
+        if (parent instanceof Pane pane) {
+            pane.getChildren().remove(root);
+        } else if (parent instanceof Group group) {
+            group.getChildren().remove(root);
+        }
+
+        Scene scene = root.getScene();
+        if (scene != null && scene.getRoot() == root) {
+            scene.setRoot(new Group());
+        }
+    }
+
+    private static String resolve(String fxml) {
+        return fxml.startsWith("/") ? fxml : BASE_PATH + fxml;
+    }
+}
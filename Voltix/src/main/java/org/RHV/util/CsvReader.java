@@ -0,0 +1,249 @@
+package org.RHV.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de archivos CSV (UTF-8, separados por comas) en streaming.
+ *
+ * Lee el archivo por bloques con un FileChannel y un búfer reutilizado,
+ * de modo que la memoria usada no depende del tamaño del archivo:
+ * solo se guarda la fila actual.
+ *
+ * Formato aceptado (RFC 4180):
+ *  - Campos entre comillas dobles, que pueden contener comas y saltos de línea.
+ *  - Comillas dentro de un campo entre comillas escritas como "".
+ *  - Finales de línea \n o \r\n, y BOM de UTF-8 al inicio.
+ *  - Las líneas vacías se ignoran.
+ *
+ * Uso:
+ * <pre>
+ *     try (CsvReader reader = CsvReader.open(path)) {
+ *         String[] row;
+ *         while ((row = reader.next()) != null) {
+ *             ...
+ *         }
+ *     }
+ * </pre>
+ *
+ * No es seguro entre hilos.
+ */
+public final class CsvReader implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private static final String[] EMPTY_ROW = new String[0];
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private int pos;
+    private int limit;
+    private boolean eof;
+    private boolean started;
+    private long bytesRead;
+
+    // Campo y fila en construcción
+    private byte[] field = new byte[256];
+    private int fieldLength;
+    private final List<String> row = new ArrayList<>();
+
+    // Línea física actual y línea donde empezó la última fila devuelta
+    private long line = 1;
+    private long rowLine;
+
+    public CsvReader(ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.bytes = new byte[Math.max(64, bufferSize)];
+        this.buffer = ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Abre un archivo para lectura con el búfer por defecto.
+     */
+    public static CsvReader open(Path file) throws IOException {
+        return new CsvReader(FileChannel.open(file, StandardOpenOption.READ), DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Lee la siguiente fila.
+     *
+     * @return Campos de la fila, o null al llegar al final del archivo.
+     *
+     * Flujo:
+     *  1. Leer byte a byte desde el búfer (rellenándolo cuando se vacía).
+     *  2. Dentro de comillas, todo es parte del campo salvo la comilla de cierre.
+     *  3. Fuera de comillas, la coma cierra el campo y el salto de línea la fila.
+     *  4. Decodificar cada campo como UTF-8 al cerrarlo.
+     */
+    public String[] next() throws IOException {
+        row.clear();
+        fieldLength = 0;
+        rowLine = line;
+
+        boolean inQuotes = false;
+        boolean fieldQuoted = false;
+        boolean content = false;
+
+        while (true) {
+            int b = read();
+
+            if (b < 0) {
+                if (!content && fieldLength == 0 && row.isEmpty()) {
+                    return null;
+                }
+                // Última fila sin salto de línea final (o comilla sin cerrar)
+                endField();
+                return finishRow();
+            }
+
+            if (inQuotes) {
+                if (b == '"') {
+                    if (peek() == '"') {
+                        pos++;
+                        append('"');
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (b == '\n') {
+                        line++;
+                    }
+                    append(b);
+                }
+                continue;
+            }
+
+            switch (b) {
+                case ',' -> {
+                    endField();
+                    fieldQuoted = false;
+                    content = true;
+                }
+                case '\n' -> {
+                    line++;
+                    if (!content && fieldLength == 0 && row.isEmpty()) {
+                        // Línea vacía: la fila empieza en la siguiente
+                        rowLine = line;
+                        continue;
+                    }
+                    endField();
+                    return finishRow();
+                }
+                case '\r' -> {
+                    // Parte de \r\n; se ignora
+                }
+                case '"' -> {
+                    if (fieldLength == 0 && !fieldQuoted) {
+                        inQuotes = true;
+                        fieldQuoted = true;
+                        content = true;
+                    } else {
+                        append(b);
+                    }
+                }
+                default -> {
+                    append(b);
+                    content = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Línea del archivo (desde 1) donde empieza la última fila devuelta por next().
+     */
+    public long lineNumber() {
+        return rowLine;
+    }
+
+    /**
+     * Bytes leídos del archivo hasta ahora.
+     */
+    public long bytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ============================
+    //   BÚFER
+    // ============================
+
+    private int read() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return bytes[pos++] & 0xFF;
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return bytes[pos] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+
+        int n;
+        do {
+            buffer.clear();
+            n = channel.read(buffer);
+        } while (n == 0);
+
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+
+        pos = 0;
+        limit = n;
+        bytesRead += n;
+
+        // Saltar el BOM de UTF-8 al inicio del archivo
+        if (!started) {
+            started = true;
+            if (n >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) {
+                pos = 3;
+            }
+        }
+        return pos < limit || fill();
+    }
+
+    // ============================
+    //   CAMPOS
+    // ============================
+
+    private void append(int b) {
+        if (fieldLength == field.length) {
+            byte[] grown = new byte[field.length * 2];
+            System.arraycopy(field, 0, grown, 0, fieldLength);
+            field = grown;
+        }
+        field[fieldLength++] = (byte) b;
+    }
+
+    private void endField() {
+        row.add(fieldLength == 0 ? "" : new String(field, 0, fieldLength, StandardCharsets.UTF_8));
+        fieldLength = 0;
+    }
+
+    private String[] finishRow() {
+        return row.toArray(EMPTY_ROW);
+    }
+}
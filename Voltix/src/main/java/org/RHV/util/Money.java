@@ -0,0 +1,264 @@
+package org.RHV.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Importe en punto fijo: un entero de unidades mínimas (long) más una escala.
+ * Por ejemplo, 12.34 con escala 2 se guarda como units = 1234.
+ *
+ * Se usa para tarifas y totales en lugar de double, que acumula errores
+ * de redondeo (0.1 + 0.2 != 0.3), y en lugar de BigDecimal, que crea
+ * varios objetos por operación. Las columnas DECIMAL de MySQL se leen y
+ * escriben sin pérdida con of(BigDecimal) y toBigDecimal().
+ *
+ * Escalas usadas en Voltix:
+ *  - TOTAL_SCALE (2): importes a pagar, en céntimos.
+ *  - RATE_SCALE (4): tarifas por kWh.
+ *
+ * Para cálculos masivos sin crear objetos están las operaciones estáticas
+ * sobre unidades (multiply, rescale, addExact...); los objetos Money solo
+ * se crean al final, para guardarlos en Invoice.
+ *
+ * Todas las operaciones redondean HALF_UP y lanzan ArithmeticException
+ * si el resultado no cabe en un long.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int TOTAL_SCALE = 2;
+    public static final int RATE_SCALE = 4;
+
+    // Escala máxima admitida (10^18 es la mayor potencia de 10 que cabe en un long)
+    public static final int MAX_SCALE = 18;
+
+    public static final Money ZERO = new Money(0, TOTAL_SCALE);
+
+    private static final long[] POW10 = new long[MAX_SCALE + 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+    }
+
+    private final long units;
+    private final int scale;
+
+    private Money(long units, int scale) {
+        this.units = units;
+        this.scale = scale;
+    }
+
+    // ---------------------------------------------------------------
+    // Creación
+    // ---------------------------------------------------------------
+
+    /**
+     * Crea un importe a partir de sus unidades mínimas.
+     * Money.ofUnits(1234, 2) representa 12.34.
+     */
+    public static Money ofUnits(long units, int scale) {
+        checkScale(scale);
+        return new Money(units, scale);
+    }
+
+    /**
+     * Crea un importe conservando exactamente la escala del BigDecimal
+     * (por ejemplo, el valor de una columna DECIMAL).
+     */
+    public static Money of(BigDecimal value) {
+        return of(value, Math.max(0, value.scale()));
+    }
+
+    /**
+     * Crea un importe con la escala indicada, redondeando HALF_UP si el
+     * valor tiene más decimales.
+     */
+    public static Money of(BigDecimal value, int scale) {
+        checkScale(scale);
+        return new Money(value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact(), scale);
+    }
+
+    /**
+     * Convierte un texto como "12.34" al importe con la escala indicada.
+     */
+    public static Money parse(String text, int scale) {
+        return of(new BigDecimal(text.trim()), scale);
+    }
+
+    // ---------------------------------------------------------------
+    // Operaciones sin objetos sobre unidades
+    // ---------------------------------------------------------------
+
+    /**
+     * Convierte unidades de una escala a otra (redondeando HALF_UP si se pierden decimales).
+     */
+    public static long rescale(long units, int fromScale, int toScale) {
+        checkScale(fromScale);
+        checkScale(toScale);
+
+        if (toScale >= fromScale) {
+            return Math.multiplyExact(units, POW10[toScale - fromScale]);
+        }
+        return divideHalfUp(units, POW10[fromScale - toScale]);
+    }
+
+    /**
+     * Multiplica dos cantidades en punto fijo y devuelve el resultado
+     * con resultScale decimales.
+     *
+     * Ejemplo: 150.500 kWh (150500, escala 3) × 0.1500 (1500, escala 4)
+     * con escala 2 → 2258 (22.58).
+     */
+    public static long multiply(long aUnits, int aScale, long bUnits, int bScale, int resultScale) {
+        checkScale(aScale);
+        checkScale(bScale);
+        checkScale(resultScale);
+
+        int productScale = aScale + bScale;
+        if (productScale - resultScale > MAX_SCALE) {
+            throw new IllegalArgumentException("Combined scale " + productScale + " too large for result scale " + resultScale);
+        }
+
+        long product = Math.multiplyExact(aUnits, bUnits);
+
+        if (resultScale >= productScale) {
+            return Math.multiplyExact(product, POW10[resultScale - productScale]);
+        }
+        return divideHalfUp(product, POW10[productScale - resultScale]);
+    }
+
+    /**
+     * Convierte una cantidad double (por ejemplo kWh) a unidades en punto fijo,
+     * redondeando al múltiplo más cercano de 10^-scale.
+     */
+    public static long toUnits(double value, int scale) {
+        checkScale(scale);
+        if (!Double.isFinite(value)) {
+            throw new ArithmeticException("Cannot convert " + value + " to fixed point");
+        }
+        double scaled = value * POW10[scale];
+        if (Math.abs(scaled) >= 0x1p63) {
+            throw new ArithmeticException("Value " + value + " overflows scale " + scale);
+        }
+        return Math.round(scaled);
+    }
+
+    /**
+     * Suma de unidades con control de desbordamiento.
+     */
+    public static long addExact(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    /**
+     * División entera redondeando HALF_UP (los empates se alejan de cero).
+     */
+    private static long divideHalfUp(long value, long divisor) {
+        long quotient = value / divisor;
+        long remainder = value % divisor;
+
+        // |remainder| * 2 >= divisor, escrito sin riesgo de desbordamiento
+        if (Math.abs(remainder) >= divisor - Math.abs(remainder)) {
+            quotient += Long.signum(value);
+        }
+        return quotient;
+    }
+
+    private static void checkScale(int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Scale must be between 0 and " + MAX_SCALE + ": " + scale);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Operaciones sobre importes
+    // ---------------------------------------------------------------
+
+    public Money plus(Money other) {
+        int s = Math.max(scale, other.scale);
+        return new Money(Math.addExact(rescale(units, scale, s), rescale(other.units, other.scale, s)), s);
+    }
+
+    public Money minus(Money other) {
+        int s = Math.max(scale, other.scale);
+        return new Money(Math.subtractExact(rescale(units, scale, s), rescale(other.units, other.scale, s)), s);
+    }
+
+    /**
+     * Multiplica por un número entero (por ejemplo unidades facturadas).
+     */
+    public Money times(long factor) {
+        return new Money(Math.multiplyExact(units, factor), scale);
+    }
+
+    /**
+     * Devuelve el mismo importe con otra escala (redondeando HALF_UP).
+     */
+    public Money withScale(int newScale) {
+        return newScale == scale ? this : new Money(rescale(units, scale, newScale), newScale);
+    }
+
+    // ---------------------------------------------------------------
+    // Conversión y consulta
+    // ---------------------------------------------------------------
+
+    public long units() {
+        return units;
+    }
+
+    public int scale() {
+        return scale;
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    /**
+     * Valor exacto, listo para PreparedStatement.setBigDecimal (columnas DECIMAL).
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, scale);
+    }
+
+    /**
+     * Valor aproximado, solo para gráficos o cálculos que ya usan double.
+     */
+    public double doubleValue() {
+        return (double) units / POW10[scale];
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        if (scale == other.scale) {
+            return Long.compare(units, other.units);
+        }
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+
+    /**
+     * Dos importes son iguales si valen lo mismo, aunque tengan distinta escala
+     * (12.3 y 12.30 son iguales).
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money other)) return false;
+        return compareTo(other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return toBigDecimal().stripTrailingZeros().hashCode();
+    }
+
+    /**
+     * Texto con todos los decimales de la escala, por ejemplo "12.30".
+     */
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
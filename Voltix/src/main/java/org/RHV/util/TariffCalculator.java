@@ -1,30 +1,95 @@
 package org.RHV.util;
 /*Esta clase sirve para calcular la tarifa
-y el total a pagar según el consumo de energía en kWh.*/
+y el total a pagar según el consumo de energía en kWh.
+Las tarifas y los totales se expresan en punto fijo (Money):
+tarifas con 4 decimales y totales en céntimos.*/
 public class TariffCalculator {
+
+    // Límites de los tramos de consumo (kWh)
+    public static final double BASIC_LIMIT = 100;
+    public static final double MEDIUM_LIMIT = 300;
+
+    // Los kWh se tarifican con resolución de Wh (3 decimales)
+    public static final int KWH_SCALE = 3;
+
+    // Consumo máximo admitido por lectura (1 TWh). Muy por encima de
+    // cualquier lectura real y lejos del límite de Money: kWh × tarifa no
+    // desborda ni al sumar millones de totales
+    public static final double MAX_KWH = 1_000_000_000;
+
+    // Tarifa por kWh de cada tramo, en unidades de Money.RATE_SCALE
+    public static final long BASIC_RATE_UNITS = 1200;   // 0.1200
+    public static final long MEDIUM_RATE_UNITS = 1500;  // 0.1500
+    public static final long HIGH_RATE_UNITS = 2000;    // 0.2000
+
+    public static final Money BASIC_RATE = Money.ofUnits(BASIC_RATE_UNITS, Money.RATE_SCALE);
+    public static final Money MEDIUM_RATE = Money.ofUnits(MEDIUM_RATE_UNITS, Money.RATE_SCALE);
+    public static final Money HIGH_RATE = Money.ofUnits(HIGH_RATE_UNITS, Money.RATE_SCALE);
+
     /*
     * Este método devuelve la tarifa por kWh dependiendo del consumo:
     * Si el cliente consume 0–100 kWh, paga 0.12 por kWh
     * Si consume 101–300 kWh, paga 0.15
     * Si consume más de 300 kWh, paga 0.20
     */
-    public static double getRate(double kwh){
-        if(kwh<=100){
-            return 0.12; //Basic rate
-        }else if (kwh<=300) {
-            return 0.15; //Medium rate
+    public static Money getRate(double kwh){
+        if(kwh<=BASIC_LIMIT){
+            return BASIC_RATE; //Basic rate
+        }else if (kwh<=MEDIUM_LIMIT) {
+            return MEDIUM_RATE; //Medium rate
         }else {
-            return 0.20; // High rate
+            return HIGH_RATE; // High rate
         }
     }
 
     /*
     * Este método calcula el total a pagar:
     * Primero obtiene la tarifa llamando a getRate(kWh)
-    * Luego multiplica tarifa × consumo.
+    * Luego multiplica tarifa × consumo y redondea a céntimos.
     * */
-    public static  double calculateTotal(double kwh){
-        double rate = getRate(kwh);
-        return kwh * rate;
+    public static Money calculateTotal(double kwh){
+        Money rate = getRate(kwh);
+        return calculateTotal(kwh, rate);
+    }
+
+    /*
+    * Calcula el total cuando la tarifa ya se conoce,
+    * evitando evaluar el tramo dos veces.
+    * */
+    public static Money calculateTotal(double kwh, Money rate){
+        long units = Money.multiply(Money.toUnits(kwh, KWH_SCALE), KWH_SCALE,
+                rate.units(), rate.scale(), Money.TOTAL_SCALE);
+        return Money.ofUnits(units, Money.TOTAL_SCALE);
+    }
+
+    /*
+    * Tarifica muchos consumos de una vez (facturación masiva, recálculos).
+    * Rellena rateUnits[i] (escala Money.RATE_SCALE) y totalUnits[i]
+    * (escala Money.TOTAL_SCALE) para cada kwh[i] sin crear objetos.
+    * El resultado es idéntico a getRate/calculateTotal.
+    * */
+    public static void rateAll(double[] kwh, long[] rateUnits, long[] totalUnits){
+        rateAll(kwh, rateUnits, totalUnits, 0, kwh.length);
+    }
+
+    /*
+    * Igual que rateAll(kwh, rateUnits, totalUnits) pero solo para las
+    * posiciones [from, from + length). Los tres arreglos usan las mismas posiciones.
+    * */
+    public static void rateAll(double[] kwh, long[] rateUnits, long[] totalUnits, int from, int length){
+        int to = from + length;
+        if (from < 0 || length < 0 || to > kwh.length || to > rateUnits.length || to > totalUnits.length) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds");
+        }
+
+        // Bucle sin saltos difíciles de predecir: los ternarios se compilan
+        // como selecciones condicionales y el JIT puede desenrollar el bucle
+        for (int i = from; i < to; i++) {
+            double k = kwh[i];
+            long r = k <= BASIC_LIMIT ? BASIC_RATE_UNITS : (k <= MEDIUM_LIMIT ? MEDIUM_RATE_UNITS : HIGH_RATE_UNITS);
+            rateUnits[i] = r;
+            totalUnits[i] = Money.multiply(Money.toUnits(k, KWH_SCALE), KWH_SCALE,
+                    r, Money.RATE_SCALE, Money.TOTAL_SCALE);
+        }
     }
 }
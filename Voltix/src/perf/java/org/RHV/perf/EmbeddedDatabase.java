@@ -0,0 +1,94 @@
+package org.RHV.perf;
+
+import org.RHV.database.DatabaseConfig;
+import org.RHV.database.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Base de datos H2 en memoria en modo MySQL, con el esquema de Voltix.
+ *
+ * Configura el pool de DatabaseConnection para que apunte a ella, de modo
+ * que los repositorios y servicios se prueban sin cambios y sin servidor.
+ * Con una URL JDBC distinta (por ejemplo un MySQL de pruebas) solo se
+ * crean las tablas que falten.
+ */
+final class EmbeddedDatabase {
+
+    static final String DEFAULT_URL =
+            "jdbc:h2:mem:voltix_perf;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    // Mismas tablas y columnas que usan los repositorios
+    private static final String[] SCHEMA = {
+            """
+            CREATE TABLE IF NOT EXISTS customers (
+                id      INT AUTO_INCREMENT PRIMARY KEY,
+                name    VARCHAR(100) NOT NULL,
+                address VARCHAR(200) NOT NULL,
+                email   VARCHAR(100) NOT NULL,
+                phone   VARCHAR(30)  NOT NULL
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS consumptions (
+                id         INT AUTO_INCREMENT PRIMARY KEY,
+                kwh        DOUBLE NOT NULL,
+                start_date DATE   NOT NULL,
+                end_date   DATE   NOT NULL
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS invoices (
+                id             INT AUTO_INCREMENT PRIMARY KEY,
+                customer_id    INT            NOT NULL,
+                consumption_id INT            NOT NULL,
+                rate           DECIMAL(10, 4) NOT NULL,
+                total          DECIMAL(15, 2) NOT NULL,
+                FOREIGN KEY (customer_id) REFERENCES customers (id),
+                FOREIGN KEY (consumption_id) REFERENCES consumptions (id)
+            )
+            """
+    };
+
+    private EmbeddedDatabase() {
+        // Evitar instanciación
+    }
+
+    /**
+     * Apunta el pool a la base indicada y crea el esquema.
+     *
+     * @param url      URL JDBC (DEFAULT_URL para H2 en memoria).
+     * @param user     Usuario.
+     * @param password Contraseña.
+     * @param poolSize Conexiones máximas del pool.
+     */
+    static void start(String url, String user, String password, int poolSize) throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("db.url", url);
+        props.setProperty("db.user", user);
+        props.setProperty("db.password", password);
+        props.setProperty("db.pool.maxSize", String.valueOf(poolSize));
+        props.setProperty("db.pool.minIdle", "1");
+
+        // H2 no admite el fetch size de streaming de MySQL (Integer.MIN_VALUE)
+        if (url.startsWith("jdbc:h2:")) {
+            props.setProperty("db.streamFetchSize", "1000");
+        }
+
+        DatabaseConnection.configure(DatabaseConfig.of(props));
+
+        try (Connection conn = DatabaseConnection.getDataSource().getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String ddl : SCHEMA) {
+                stmt.execute(ddl);
+            }
+        }
+    }
+
+    static void stop() {
+        DatabaseConnection.shutdown();
+    }
+}
@@ -0,0 +1,85 @@
+package org.RHV.perf;
+
+import java.util.Arrays;
+
+/**
+ * Registra la duración de cada operación de una fase y calcula
+ * rendimiento (operaciones por segundo) y percentiles de latencia.
+ *
+ * Si una fase procesa muchas filas en una sola llamada (un lote, un
+ * recorrido en streaming), se registra la llamada con record() y las
+ * filas con addItems(), y el rendimiento se expresa en filas por segundo.
+ */
+final class LatencyRecorder {
+
+    private final String name;
+    private long[] samples = new long[1024];
+    private int count;
+    private long items;
+    private long wallStart;
+    private long wallNanos;
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Marca el inicio de la fase (para el tiempo total de reloj).
+     */
+    LatencyRecorder start() {
+        wallStart = System.nanoTime();
+        return this;
+    }
+
+    /**
+     * Marca el final de la fase.
+     */
+    LatencyRecorder stop() {
+        wallNanos = System.nanoTime() - wallStart;
+        return this;
+    }
+
+    void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    void addItems(long n) {
+        items += n;
+    }
+
+    /**
+     * Cabecera de la tabla de resultados.
+     */
+    static String header() {
+        return String.format("%-34s %9s %10s %12s %9s %9s %9s %9s",
+                "operation", "calls", "items", "items/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+    }
+
+    /**
+     * Fila de la tabla de resultados.
+     */
+    String summary() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+
+        long processed = items > 0 ? items : count;
+        double seconds = wallNanos / 1e9;
+
+        return String.format("%-34s %9d %10d %12.1f %9.3f %9.3f %9.3f %9.3f",
+                name, count, processed,
+                seconds > 0 ? processed / seconds : 0,
+                percentile(sorted, 0.50), percentile(sorted, 0.95),
+                percentile(sorted, 0.99), count == 0 ? 0 : sorted[count - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
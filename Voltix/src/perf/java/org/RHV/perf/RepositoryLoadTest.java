@@ -0,0 +1,316 @@
+package org.RHV.perf;
+
+import org.RHV.metrics.MetricsFileReporter;
+import org.RHV.model.Customer;
+import org.RHV.model.Invoice;
+import org.RHV.repository.ConsumptionRepository;
+import org.RHV.repository.CustomerRepository;
+import org.RHV.repository.InvoiceRepository;
+import org.RHV.repository.RollupRepository;
+import org.RHV.service.BillingRunService;
+import org.RHV.service.BillingRunService.MeterReading;
+import org.RHV.service.InvoiceService;
+import org.RHV.database.UnitOfWork;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Prueba de carga de los repositorios sobre una base embebida (H2 en modo MySQL).
+ *
+ * Flujo:
+ *  1. Arrancar la base y crear el esquema (EmbeddedDatabase).
+ *  2. Insertar clientes uno a uno (CustomerRepository.save).
+ *  3. Generar facturas una a una (InvoiceService.generateInvoice).
+ *  4. Generar el resto de facturas por lotes (BillingRunService), un mes por ejecución.
+ *  5. Medir las lecturas: listados, paginación, streaming, conteos y agregados.
+ *  6. Imprimir una tabla con llamadas, filas, filas/s y percentiles de latencia.
+ *
+ * Opciones (todas opcionales):
+ *   --customers=1000      clientes a insertar
+ *   --invoices=100000     facturas en total
+ *   --single=1000         de ellas, cuántas se generan una a una
+ *   --months=12           meses entre los que se reparten las facturas por lotes
+ *   --batch-size=500      filas por lote en la facturación masiva
+ *   --pool-size=8         conexiones del pool (y lotes en paralelo)
+ *   --page-size=100       filas por página en las lecturas paginadas
+ *   --pages=200           páginas a leer en cada lectura paginada
+ *   --url=... --user=... --password=...   otra base (por defecto H2 en memoria)
+ *   --verbose             mantener los logs INFO de los servicios
+ */
+public final class RepositoryLoadTest {
+
+    private static final LocalDate FIRST_PERIOD = LocalDate.of(2024, 1, 1);
+
+    // Referencia fuerte al logger raíz mientras dura la prueba
+    private static final Logger rootLogger = Logger.getLogger("");
+
+    private final Map<String, String> options;
+    private final List<LatencyRecorder> results = new ArrayList<>();
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private RepositoryLoadTest(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+
+        if (!options.containsKey("verbose")) {
+            rootLogger.setLevel(Level.WARNING);
+        }
+
+        // Con -Dvoltix.metrics.file=... se vuelcan también las métricas de los repositorios
+        MetricsFileReporter metricsReporter = MetricsFileReporter.startFromSystemProperties();
+        try {
+            new RepositoryLoadTest(options).run();
+        } finally {
+            if (metricsReporter != null) {
+                metricsReporter.close();
+            }
+        }
+    }
+
+    private void run() throws Exception {
+        int customers = intOption("customers", 1_000);
+        int invoices = intOption("invoices", 100_000);
+        int single = Math.min(invoices, intOption("single", 1_000));
+        int months = Math.max(1, intOption("months", 12));
+        int batchSize = intOption("batch-size", 500);
+        int poolSize = intOption("pool-size", 8);
+        int pageSize = intOption("page-size", 100);
+        int pages = intOption("pages", 200);
+        String url = options.getOrDefault("url", EmbeddedDatabase.DEFAULT_URL);
+
+        System.out.printf("Voltix repository load test: %d customers, %d invoices (%d single), %s%n",
+                customers, invoices, single, url);
+
+        EmbeddedDatabase.start(url, options.getOrDefault("user", "sa"),
+                options.getOrDefault("password", ""), poolSize);
+
+        try {
+            CustomerRepository customerRepository = new CustomerRepository();
+            InvoiceRepository invoiceRepository = new InvoiceRepository();
+            ConsumptionRepository consumptionRepository = new ConsumptionRepository();
+            RollupRepository rollupRepository = new RollupRepository();
+            rollupRepository.ensureTable();
+
+            List<Customer> seeded = insertCustomers(customerRepository, customers);
+            generateSingle(new InvoiceService(), seeded, single);
+            billInBatches(new BillingRunService(invoiceRepository, consumptionRepository, rollupRepository,
+                    new UnitOfWork(), batchSize, poolSize), seeded, invoices - single, months);
+
+            measureReads(customerRepository, invoiceRepository, rollupRepository, seeded, pageSize, pages);
+
+        } finally {
+            EmbeddedDatabase.stop();
+        }
+
+        System.out.println();
+        System.out.println(LatencyRecorder.header());
+        for (LatencyRecorder r : results) {
+            System.out.println(r.summary());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Escrituras
+    // ---------------------------------------------------------------
+
+    private List<Customer> insertCustomers(CustomerRepository repository, int count) throws Exception {
+        List<Customer> customers = new ArrayList<>(count);
+        LatencyRecorder rec = phase("customer.save");
+
+        for (int i = 1; i <= count; i++) {
+            Customer c = new Customer(0, "Customer " + i, "Street " + i,
+                    "customer" + i + "@voltix.test", "555-" + i);
+            if (!timed(rec, () -> repository.save(c))) {
+                throw new IllegalStateException("Could not insert customer " + i);
+            }
+            customers.add(c);
+        }
+
+        rec.stop();
+        return customers;
+    }
+
+    private void generateSingle(InvoiceService service, List<Customer> customers, int count) throws Exception {
+        LatencyRecorder rec = phase("invoice.generate (single)");
+
+        for (int i = 0; i < count; i++) {
+            Customer customer = customers.get(i % customers.size());
+            LocalDate start = FIRST_PERIOD.plusMonths(i % 12);
+            double kwh = randomKwh();
+            timed(rec, () -> service.generateInvoice(customer, kwh, start, start.plusMonths(1).minusDays(1)));
+        }
+
+        rec.stop();
+    }
+
+    private void billInBatches(BillingRunService billing, List<Customer> customers,
+                               int total, int months) throws Exception {
+        if (total <= 0) {
+            return;
+        }
+
+        LatencyRecorder rec = phase("billing.run (batch, per month)");
+        int perMonth = (total + months - 1) / months;
+        int remaining = total;
+
+        for (int m = 0; m < months && remaining > 0; m++) {
+            int count = Math.min(perMonth, remaining);
+            remaining -= count;
+
+            List<MeterReading> readings = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                readings.add(new MeterReading(customers.get(i % customers.size()), randomKwh()));
+            }
+
+            LocalDate start = FIRST_PERIOD.plusMonths(m);
+            BillingRunService.Result result = timed(rec,
+                    () -> billing.run(start, start.plusMonths(1).minusDays(1), readings, null));
+            rec.addItems(result.invoiced());
+
+            if (!result.failures().isEmpty()) {
+                System.out.println("Billing failures in month " + start + ": " + result.failures().size()
+                        + " (first: " + result.failures().get(0).reason() + ")");
+            }
+        }
+
+        rec.stop();
+    }
+
+    // ---------------------------------------------------------------
+    // Lecturas
+    // ---------------------------------------------------------------
+
+    private void measureReads(CustomerRepository customers, InvoiceRepository invoices,
+                              RollupRepository rollups, List<Customer> seeded,
+                              int pageSize, int pages) throws Exception {
+
+        LatencyRecorder rec = phase("customer.getAll");
+        for (int i = 0; i < 20; i++) {
+            rec.addItems(timed(rec, customers::getAll).size());
+        }
+        rec.stop();
+
+        rec = phase("customer.findById");
+        for (int i = 0; i < 2_000; i++) {
+            int id = seeded.get(random.nextInt(seeded.size())).getId();
+            timed(rec, () -> customers.findById(id));
+        }
+        rec.stop();
+
+        rec = phase("invoice.countInvoices");
+        int total = 0;
+        for (int i = 0; i < 20; i++) {
+            total = timed(rec, invoices::countInvoices);
+        }
+        rec.stop();
+
+        rec = phase("invoice.listInvoices (full)");
+        for (int i = 0; i < 3; i++) {
+            rec.addItems(timed(rec, invoices::listInvoices).size());
+        }
+        rec.stop();
+
+        rec = phase("invoice.forEachInvoice (stream)");
+        for (int i = 0; i < 3; i++) {
+            rec.addItems(timed(rec, () -> invoices.forEachInvoice(inv -> { })));
+        }
+        rec.stop();
+
+        rec = phase("invoice.listInvoicesAfter (keyset)");
+        int lastId = 0;
+        for (int p = 0; p < pages; p++) {
+            int after = lastId;
+            List<Invoice> page = timed(rec, () -> invoices.listInvoicesAfter(after, pageSize));
+            rec.addItems(page.size());
+            if (page.isEmpty()) {
+                lastId = 0;
+            } else {
+                lastId = page.get(page.size() - 1).getInvoiceId();
+            }
+        }
+        rec.stop();
+
+        rec = phase("invoice.listInvoicesPage (random)");
+        int maxOffset = Math.max(1, total - pageSize);
+        for (int p = 0; p < pages; p++) {
+            int offset = random.nextInt(maxOffset);
+            rec.addItems(timed(rec, () -> invoices.listInvoicesPage(offset, pageSize)).size());
+        }
+        rec.stop();
+
+        rec = phase("invoice.sumKwhByCustomer (GROUP BY)");
+        for (int i = 0; i < 10; i++) {
+            timed(rec, invoices::sumKwhByCustomer);
+        }
+        rec.stop();
+
+        rec = phase("rollup.sumKwhByCustomer");
+        for (int i = 0; i < 10; i++) {
+            timed(rec, rollups::sumKwhByCustomer);
+        }
+        rec.stop();
+
+        rec = phase("rollup.sumKwhByYearMonth");
+        for (int i = 0; i < 10; i++) {
+            timed(rec, rollups::sumKwhByYearMonth);
+        }
+        rec.stop();
+    }
+
+    // ---------------------------------------------------------------
+    // Utilidades
+    // ---------------------------------------------------------------
+
+    private LatencyRecorder phase(String name) {
+        System.out.println("Running " + name + "...");
+        LatencyRecorder rec = new LatencyRecorder(name);
+        results.add(rec);
+        return rec.start();
+    }
+
+    private static <T> T timed(LatencyRecorder rec, Callable<T> operation) throws Exception {
+        long start = System.nanoTime();
+        T result = operation.call();
+        rec.record(System.nanoTime() - start);
+        return result;
+    }
+
+    private double randomKwh() {
+        return random.nextInt(1, 600_000) / 1000.0;
+    }
+
+    private int intOption(String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    /**
+     * Convierte "--clave=valor" y "--bandera" en un mapa.
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,103 @@
+package org.RHV.service;
+
+import org.RHV.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DashboardServiceTest {
+
+    private final AtomicInteger customers = new AtomicInteger(3);
+    private final AtomicLong invoices = new AtomicLong(10);
+    private final AtomicInteger queries = new AtomicInteger();
+
+    // Servicios sin base de datos: devuelven los contadores de la prueba
+    private final CustomerService customerService = new CustomerService((CustomerRepository) null) {
+        @Override
+        public int countCustomers() {
+            queries.incrementAndGet();
+            return customers.get();
+        }
+    };
+
+    private final InvoiceService invoiceService = new InvoiceService(null, null, null, null) {
+        @Override
+        public long getTotalInvoices() {
+            return invoices.get();
+        }
+    };
+
+    @Test
+    void snapshotIsReusedWhileFresh() {
+        DashboardService dashboard = new DashboardService(customerService, invoiceService, Duration.ofHours(1));
+
+        DashboardService.KpiSnapshot first = dashboard.getKpis();
+        customers.set(4);
+        DashboardService.KpiSnapshot second = dashboard.getKpis();
+
+        assertSame(first, second);
+        assertEquals(3, second.totalCustomers());
+        assertEquals(10, second.totalInvoices());
+        assertEquals(0, second.pendingPayments());
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void expiredSnapshotIsReloaded() {
+        // TTL negativo: la foto caduca en cuanto se toma
+        DashboardService dashboard = new DashboardService(customerService, invoiceService, Duration.ofMillis(-1));
+
+        DashboardService.KpiSnapshot first = dashboard.getKpis();
+        customers.set(4);
+        invoices.set(11);
+        DashboardService.KpiSnapshot second = dashboard.getKpis();
+
+        assertNotSame(first, second);
+        assertEquals(4, second.totalCustomers());
+        assertEquals(11, second.totalInvoices());
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        DashboardService dashboard = new DashboardService(customerService, invoiceService, Duration.ofHours(1));
+
+        dashboard.getKpis();
+        customers.set(4);
+        dashboard.invalidate();
+
+        assertEquals(4, dashboard.getKpis().totalCustomers());
+        assertEquals(4, dashboard.getKpis().totalCustomers());
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void snapshotLoadedDuringInvalidateIsNotCached() {
+        DashboardService[] holder = new DashboardService[1];
+
+        // El primer conteo simula un cliente registrado mientras se consulta
+        CustomerService racing = new CustomerService((CustomerRepository) null) {
+            @Override
+            public int countCustomers() {
+                if (queries.incrementAndGet() == 1) {
+                    holder[0].invalidate();
+                    return 3;
+                }
+                return 4;
+            }
+        };
+        DashboardService dashboard = new DashboardService(racing, invoiceService, Duration.ofHours(1));
+        holder[0] = dashboard;
+
+        assertEquals(3, dashboard.getKpis().totalCustomers());
+        assertEquals(4, dashboard.getKpis().totalCustomers());
+        assertEquals(4, dashboard.getKpis().totalCustomers());
+        assertEquals(2, queries.get());
+    }
+}
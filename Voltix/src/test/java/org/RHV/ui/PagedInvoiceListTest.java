@@ -0,0 +1,195 @@
+package org.RHV.ui;
+
+import javafx.collections.ListChangeListener;
+import org.RHV.database.DataAccessException;
+import org.RHV.model.Consumption;
+import org.RHV.model.Customer;
+import org.RHV.model.Invoice;
+import org.RHV.service.InvoiceService;
+import org.RHV.util.Money;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PagedInvoiceListTest {
+
+    private static final Customer CUSTOMER = new Customer(1, "Ana", "Calle 1", "ana@example.com", "600000000");
+
+    // Facturas con ID 1..total, en orden; cada llamada queda registrada en "calls"
+    private final List<String> calls = new ArrayList<>();
+    private boolean failing;
+    private int total;
+
+    private final InvoiceService invoiceService = new InvoiceService(null, null, null, null) {
+        @Override
+        public List<Invoice> getInvoicesPage(int offset, int limit) {
+            calls.add("page " + offset);
+            return invoices(offset, limit);
+        }
+
+        @Override
+        public List<Invoice> getInvoicesAfter(int lastId, int limit) {
+            calls.add("after " + lastId);
+            return invoices(lastId, limit);
+        }
+    };
+
+    // Lecturas pedidas por la lista y todavía no entregadas
+    private final List<Request> pending = new ArrayList<>();
+
+    private record Request(Callable<List<Invoice>> work,
+                           Consumer<List<Invoice>> onSuccess,
+                           Consumer<Throwable> onError) {
+    }
+
+    @Test
+    void loadsVisiblePageAndPrefetchOnDemand() {
+        PagedInvoiceList list = list(25, 10, 1, 20);
+        int[] replaced = new int[1];
+        list.addListener((ListChangeListener<Invoice>) c -> {
+            while (c.next()) {
+                if (c.wasReplaced()) {
+                    replaced[0] += c.getTo() - c.getFrom();
+                }
+            }
+        });
+
+        assertEquals(25, list.size());
+        assertNull(list.get(0));
+        assertEquals(2, pending.size());
+
+        deliverAll();
+
+        assertEquals(List.of("page 0", "page 10"), calls);
+        assertEquals(20, replaced[0]);
+        assertEquals(1, list.get(0).getInvoiceId());
+        assertEquals(16, list.get(15).getInvoiceId());
+
+        // La página 2 se pide por clave: la 1 está completa en memoria
+        deliverAll();
+        assertEquals("after 20", calls.get(2));
+        assertEquals(25, list.get(24).getInvoiceId());
+    }
+
+    @Test
+    void pageIsRequestedOnlyOnceWhileLoading() {
+        PagedInvoiceList list = list(25, 10, 0, 20);
+
+        list.get(0);
+        list.get(5);
+        list.get(9);
+
+        assertEquals(1, pending.size());
+    }
+
+    @Test
+    void failedPageIsNotCachedAndIsRequestedAgain() {
+        PagedInvoiceList list = list(25, 10, 0, 20);
+        int[] changes = new int[1];
+        list.addListener((ListChangeListener<Invoice>) c -> changes[0]++);
+
+        failing = true;
+        assertNull(list.get(0));
+        deliverAll();
+
+        assertEquals(0, changes[0]);
+        assertNull(list.get(0));
+        assertEquals(1, pending.size());
+
+        failing = false;
+        deliverAll();
+
+        assertEquals(1, changes[0]);
+        assertEquals(1, list.get(0).getInvoiceId());
+        assertEquals(List.of("page 0", "page 0"), calls);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedPages() {
+        PagedInvoiceList list = list(100, 10, 0, 2);
+
+        for (int index : new int[]{0, 10, 20}) {
+            list.get(index);
+            deliverAll();
+        }
+        calls.clear();
+
+        assertEquals(21, list.get(20).getInvoiceId());
+        assertEquals(11, list.get(10).getInvoiceId());
+        assertNull(list.get(0));
+        assertEquals(1, pending.size());
+
+        deliverAll();
+        assertEquals(List.of("page 0"), calls);
+        assertEquals(1, list.get(0).getInvoiceId());
+    }
+
+    @Test
+    void lastPageMayBeShort() {
+        PagedInvoiceList list = list(25, 10, 0, 20);
+
+        list.get(20);
+        deliverAll();
+
+        assertNotNull(list.get(24));
+        assertEquals(25, list.get(24).getInvoiceId());
+    }
+
+    @Test
+    void indexOutsideTheListIsRejected() {
+        PagedInvoiceList list = list(25, 10, 1, 20);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(25));
+        assertEquals(0, pending.size());
+    }
+
+    private PagedInvoiceList list(int size, int pageSize, int prefetchPages, int maxCachedPages) {
+        total = size;
+        return new PagedInvoiceList(invoiceService, size, pageSize, prefetchPages, maxCachedPages,
+                (work, onSuccess, onError) -> pending.add(new Request(work, onSuccess, onError)));
+    }
+
+    /**
+     * Ejecuta las lecturas pendientes y entrega cada resultado como lo haría
+     * BackgroundTasks en el hilo de JavaFX.
+     */
+    private void deliverAll() {
+        List<Request> requests = new ArrayList<>(pending);
+        pending.clear();
+
+        for (Request request : requests) {
+            List<Invoice> page;
+            try {
+                page = request.work().call();
+            } catch (Exception e) {
+                request.onError().accept(e);
+                continue;
+            }
+            request.onSuccess().accept(page);
+        }
+    }
+
+    private List<Invoice> invoices(int afterPosition, int limit) {
+        if (failing) {
+            throw new DataAccessException("Error loading invoice page: connection refused", null);
+        }
+
+        List<Invoice> page = new ArrayList<>();
+        for (int id = afterPosition + 1; id <= Math.min(total, afterPosition + limit); id++) {
+            Consumption consumption = new Consumption(id, 100, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+            page.add(new Invoice(id, CUSTOMER, consumption, Money.ofUnits(1200, Money.RATE_SCALE),
+                    Money.ofUnits(1200, Money.TOTAL_SCALE)));
+        }
+        return page;
+    }
+}
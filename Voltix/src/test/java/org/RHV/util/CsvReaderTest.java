@@ -0,0 +1,150 @@
+package org.RHV.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CsvReaderTest {
+
+    // Búfer mínimo (64 bytes) para que filas y campos crucen varios rellenos
+    private static final int SMALL_BUFFER = 64;
+
+    @Test
+    void readsSimpleRows() throws IOException {
+        List<String[]> rows = readAll("name,kwh\nAna,150.5\nLuis,80\n");
+
+        assertEquals(3, rows.size());
+        assertArrayEquals(new String[]{"name", "kwh"}, rows.get(0));
+        assertArrayEquals(new String[]{"Ana", "150.5"}, rows.get(1));
+        assertArrayEquals(new String[]{"Luis", "80"}, rows.get(2));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndEscapedQuotes() throws IOException {
+        List<String[]> rows = readAll("\"Pérez, Ana\",\"Calle \"\"Mayor\"\" 1\",\"\"\n");
+
+        assertArrayEquals(new String[]{"Pérez, Ana", "Calle \"Mayor\" 1", ""}, rows.get(0));
+    }
+
+    @Test
+    void quoteInsideUnquotedFieldIsLiteral() throws IOException {
+        assertArrayEquals(new String[]{"5\" pipe", "x"}, readAll("5\" pipe,x\n").get(0));
+    }
+
+    @Test
+    void emptyFieldsArePreserved() throws IOException {
+        List<String[]> rows = readAll("a,,b\n,\nc,\n");
+
+        assertArrayEquals(new String[]{"a", "", "b"}, rows.get(0));
+        assertArrayEquals(new String[]{"", ""}, rows.get(1));
+        assertArrayEquals(new String[]{"c", ""}, rows.get(2));
+    }
+
+    @Test
+    void crlfLineEndingsAreStripped() throws IOException {
+        List<String[]> rows = readAll("a,b\r\nc,d\r\n\r\ne,f");
+
+        assertEquals(3, rows.size());
+        assertArrayEquals(new String[]{"a", "b"}, rows.get(0));
+        assertArrayEquals(new String[]{"c", "d"}, rows.get(1));
+        assertArrayEquals(new String[]{"e", "f"}, rows.get(2));
+    }
+
+    @Test
+    void lineBreaksInsideQuotesArePartOfTheField() throws IOException {
+        List<String[]> rows = readAll("\"line 1\r\nline 2\nline 3\",x\r\ny,z\r\n");
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[]{"line 1\r\nline 2\nline 3", "x"}, rows.get(0));
+        assertArrayEquals(new String[]{"y", "z"}, rows.get(1));
+    }
+
+    @Test
+    void lineNumbersCountPhysicalLines() throws IOException {
+        String csv = "h1,h2\n"                 // línea 1
+                + "\n"                          // línea 2 (vacía)
+                + "\"multi\nline\",x\n"        // líneas 3-4
+                + "\r\n"                        // línea 5 (vacía)
+                + "last,row";                   // línea 6, sin salto final
+
+        try (CsvReader reader = reader(csv)) {
+            long[] lines = new long[3];
+            for (int i = 0; i < lines.length; i++) {
+                reader.next();
+                lines[i] = reader.lineNumber();
+            }
+            assertArrayEquals(new long[]{1, 3, 6}, lines);
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void skipsUtf8ByteOrderMark() throws IOException {
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        byte[] body = "id,name\n1,Ñandú\n".getBytes(StandardCharsets.UTF_8);
+        byte[] csv = new byte[bom.length + body.length];
+        System.arraycopy(bom, 0, csv, 0, bom.length);
+        System.arraycopy(body, 0, csv, bom.length, body.length);
+
+        List<String[]> rows = readAll(csv);
+
+        assertArrayEquals(new String[]{"id", "name"}, rows.get(0));
+        assertArrayEquals(new String[]{"1", "Ñandú"}, rows.get(1));
+    }
+
+    @Test
+    void fieldsLongerThanTheBufferAreReadWhole() throws IOException {
+        String longText = "é".repeat(500);     // 1000 bytes en UTF-8, varios rellenos del búfer
+        String longQuoted = "x,\"y\"\"".repeat(100);
+
+        List<String[]> rows = readAll(longText + ",\"" + longQuoted.replace("\"", "\"\"") + "\"\n");
+
+        assertArrayEquals(new String[]{longText, longQuoted}, rows.get(0));
+    }
+
+    @Test
+    void emptyInputHasNoRows() throws IOException {
+        assertEquals(0, readAll("").size());
+        assertEquals(0, readAll("\n\r\n\n").size());
+    }
+
+    @Test
+    void countsBytesRead() throws IOException {
+        byte[] csv = "a,b\nc,d\n".getBytes(StandardCharsets.UTF_8);
+        try (CsvReader reader = new CsvReader(Channels.newChannel(new ByteArrayInputStream(csv)), SMALL_BUFFER)) {
+            while (reader.next() != null) {
+                // solo recorrer
+            }
+            assertEquals(csv.length, reader.bytesRead());
+        }
+    }
+
+    private static List<String[]> readAll(String csv) throws IOException {
+        return readAll(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String[]> readAll(byte[] csv) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(Channels.newChannel(new ByteArrayInputStream(csv)), SMALL_BUFFER)) {
+            String[] row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static CsvReader reader(String csv) {
+        byte[] bytes = csv.getBytes(StandardCharsets.UTF_8);
+        return new CsvReader(Channels.newChannel(new ByteArrayInputStream(bytes)), SMALL_BUFFER);
+    }
+}
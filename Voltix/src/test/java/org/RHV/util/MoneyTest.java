@@ -0,0 +1,121 @@
+package org.RHV.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+
+    @Test
+    void ofKeepsDecimalScaleAndParseRoundsHalfUp() {
+        Money exact = Money.of(new BigDecimal("12.340"));
+        assertEquals(12340, exact.units());
+        assertEquals(3, exact.scale());
+
+        assertEquals(Money.ofUnits(1235, 2), Money.parse(" 12.345 ", 2));
+        assertEquals(Money.ofUnits(-1235, 2), Money.parse("-12.345", 2));
+        assertEquals(Money.ofUnits(1234, 2), Money.parse("12.3449", 2));
+    }
+
+    @Test
+    void plusAndMinusUseTheLargerScale() {
+        Money total = Money.ofUnits(1230, 2).plus(Money.ofUnits(1500, 4));   // 12.30 + 0.1500
+
+        assertEquals(4, total.scale());
+        assertEquals(124500, total.units());
+        assertEquals("12.4500", total.toString());
+
+        Money difference = Money.ofUnits(100, 2).minus(Money.ofUnits(2500, 4));
+        assertEquals("0.7500", difference.toString());
+        assertEquals(1, difference.signum());
+    }
+
+    @Test
+    void timesAndWithScale() {
+        assertEquals("37.02", Money.ofUnits(1234, 2).times(3).toString());
+        assertEquals("12.35", Money.ofUnits(123450, 4).withScale(2).toString());
+        assertEquals("12.3450", Money.ofUnits(1234500, 5).withScale(4).toString());
+
+        Money same = Money.ofUnits(1234, 2);
+        assertSame(same, same.withScale(2));
+    }
+
+    @Test
+    void multiplyRoundsHalfUpAwayFromZero() {
+        // 150.500 kWh × 0.1500 = 22.575 → 22.58
+        assertEquals(2258, Money.multiply(150500, 3, 1500, 4, 2));
+        assertEquals(-2258, Money.multiply(-150500, 3, 1500, 4, 2));
+
+        // 0.004 × 1.0000 = 0.004 → 0.00; 0.005 → 0.01
+        assertEquals(0, Money.multiply(4, 3, 10000, 4, 2));
+        assertEquals(1, Money.multiply(5, 3, 10000, 4, 2));
+
+        // Escala del resultado mayor que la del producto
+        assertEquals(150000, Money.multiply(1, 0, 1500, 4, 6));
+    }
+
+    @Test
+    void rescaleConvertsBothWays() {
+        assertEquals(123400, Money.rescale(1234, 2, 4));
+        assertEquals(1235, Money.rescale(123450, 4, 2));
+        assertEquals(-1235, Money.rescale(-123450, 4, 2));
+        assertEquals(1234, Money.rescale(123449, 4, 2));
+    }
+
+    @Test
+    void toUnitsRoundsToNearestUnit() {
+        assertEquals(150500, Money.toUnits(150.5, 3));
+        assertEquals(300, Money.toUnits(0.1 + 0.2, 3));
+        assertEquals(-1, Money.toUnits(-0.0006, 3));
+
+        assertThrows(ArithmeticException.class, () -> Money.toUnits(Double.NaN, 2));
+        assertThrows(ArithmeticException.class, () -> Money.toUnits(Double.POSITIVE_INFINITY, 2));
+        assertThrows(ArithmeticException.class, () -> Money.toUnits(1e17, 2));
+    }
+
+    @Test
+    void overflowThrowsInsteadOfWrapping() {
+        Money max = Money.ofUnits(Long.MAX_VALUE, 0);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofUnits(1, 0)));
+        assertThrows(ArithmeticException.class, () -> max.times(2));
+        assertThrows(ArithmeticException.class, () -> Money.addExact(Long.MAX_VALUE, 1));
+        assertThrows(ArithmeticException.class, () -> Money.rescale(Long.MAX_VALUE, 0, 1));
+        assertThrows(ArithmeticException.class, () -> Money.multiply(Long.MAX_VALUE, 0, 2, 0, 0));
+    }
+
+    @Test
+    void invalidScalesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Money.ofUnits(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofUnits(1, Money.MAX_SCALE + 1));
+        assertThrows(IllegalArgumentException.class, () -> Money.multiply(1, 18, 1, 18, 0));
+    }
+
+    @Test
+    void equalValuesWithDifferentScalesAreEqual() {
+        Money a = Money.ofUnits(1230, 2);     // 12.30
+        Money b = Money.ofUnits(123, 1);      // 12.3
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(0, a.compareTo(b));
+        assertNotEquals(a, Money.ofUnits(1231, 2));
+        assertTrue(Money.ofUnits(1, 4).compareTo(Money.ZERO) > 0);
+    }
+
+    @Test
+    void conversions() {
+        Money m = Money.ofUnits(1230, 2);
+
+        assertEquals(new BigDecimal("12.30"), m.toBigDecimal());
+        assertEquals("12.30", m.toString());
+        assertEquals(12.3, m.doubleValue(), 0.0);
+        assertEquals("0.00", Money.ZERO.toString());
+    }
+}
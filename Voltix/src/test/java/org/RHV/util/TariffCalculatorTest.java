@@ -0,0 +1,86 @@
+package org.RHV.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TariffCalculatorTest {
+
+    @Test
+    void rateDependsOnTier() {
+        assertEquals(TariffCalculator.BASIC_RATE, TariffCalculator.getRate(0));
+        assertEquals(TariffCalculator.BASIC_RATE, TariffCalculator.getRate(100));
+        assertEquals(TariffCalculator.MEDIUM_RATE, TariffCalculator.getRate(100.001));
+        assertEquals(TariffCalculator.MEDIUM_RATE, TariffCalculator.getRate(300));
+        assertEquals(TariffCalculator.HIGH_RATE, TariffCalculator.getRate(300.001));
+    }
+
+    @Test
+    void totalIsRoundedToCents() {
+        assertEquals("12.00", TariffCalculator.calculateTotal(100).toString());
+        assertEquals("22.58", TariffCalculator.calculateTotal(150.5).toString());     // 22.575
+        assertEquals("45.00", TariffCalculator.calculateTotal(300).toString());
+        assertEquals("60.20", TariffCalculator.calculateTotal(301).toString());
+        assertEquals("200000000.00", TariffCalculator.calculateTotal(TariffCalculator.MAX_KWH).toString());
+    }
+
+    @Test
+    void rateAllMatchesGetRateAndCalculateTotal() {
+        SplittableRandom random = new SplittableRandom(42);
+        double[] kwh = new double[10_000];
+        for (int i = 0; i < kwh.length; i++) {
+            kwh[i] = random.nextDouble(0, 1_000);
+        }
+
+        // Valores en los límites de los tramos y con empates de redondeo
+        double[] edges = {0, 0.0005, 99.9995, 100, 100.0005, 100.001, 150.5, 299.999, 300, 300.0005, 300.001,
+                12_345.678, TariffCalculator.MAX_KWH};
+        System.arraycopy(edges, 0, kwh, 0, edges.length);
+
+        long[] rateUnits = new long[kwh.length];
+        long[] totalUnits = new long[kwh.length];
+        TariffCalculator.rateAll(kwh, rateUnits, totalUnits);
+
+        for (int i = 0; i < kwh.length; i++) {
+            Money rate = TariffCalculator.getRate(kwh[i]);
+            Money total = TariffCalculator.calculateTotal(kwh[i]);
+
+            assertEquals(rate.units(), rateUnits[i], "rate for " + kwh[i]);
+            assertEquals(total.units(), totalUnits[i], "total for " + kwh[i]);
+        }
+    }
+
+    @Test
+    void rateAllWithRangeOnlyTouchesThatRange() {
+        double[] kwh = {50, 150, 350, 80};
+        long[] rateUnits = new long[4];
+        long[] totalUnits = new long[4];
+        Arrays.fill(rateUnits, -1);
+        Arrays.fill(totalUnits, -1);
+
+        TariffCalculator.rateAll(kwh, rateUnits, totalUnits, 1, 2);
+
+        assertArrayEquals(new long[]{-1, TariffCalculator.MEDIUM_RATE_UNITS, TariffCalculator.HIGH_RATE_UNITS, -1},
+                rateUnits);
+        assertArrayEquals(new long[]{-1, 2250, 7000, -1}, totalUnits);
+    }
+
+    @Test
+    void rateAllRejectsRangesOutsideTheArrays() {
+        double[] kwh = new double[4];
+        long[] rateUnits = new long[4];
+        long[] totalUnits = new long[3];
+
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> TariffCalculator.rateAll(kwh, rateUnits, totalUnits));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> TariffCalculator.rateAll(kwh, rateUnits, rateUnits, -1, 2));
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> TariffCalculator.rateAll(kwh, rateUnits, rateUnits, 3, 2));
+    }
+}